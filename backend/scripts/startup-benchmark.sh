@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Startup benchmark: plain fat jar vs the prod build (Spring AOT + AppCDS + lazy init)
+#
+#   mvn -Pprod package -DskipTests && scripts/startup-benchmark.sh [runs]
+#
+# Each run starts the app, polls READY_URL until it answers, and records the time from launch
+# to the first good response plus the process RSS at that moment. Prints the median of each.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PORT:-8081}"
+READY_URL="http://localhost:${PORT}/simulate/metrics"
+FAT_JAR="target/coffee-shop-1.0.0.jar"
+CDS_DIR="target/cds"
+SCRATCH="$(mktemp -d)"
+trap 'rm -rf "$SCRATCH"' EXIT
+
+if [[ ! -f "$FAT_JAR" || ! -f "$CDS_DIR/coffee-shop.jsa" ]]; then
+    echo "Build first: mvn -Pprod package -DskipTests" >&2
+    exit 1
+fi
+if curl -s -o /dev/null --max-time 1 "$READY_URL"; then
+    echo "Port ${PORT} is already serving; stop the running backend first" >&2
+    exit 1
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# run_once <dir> <java args...>: prints "<ms-to-ready> <rss-kb>"
+run_once() {
+    local dir="$1"
+    shift
+    local start pid ready rss
+    start=$(now_ms)
+    (cd "$dir" && exec java "$@" --server.port="$PORT" --archive.path="$SCRATCH/completed-orders.bin") \
+        > "$SCRATCH/app.log" 2>&1 &
+    pid=$!
+    until curl -s -o /dev/null --max-time 1 "$READY_URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Backend exited during startup:" >&2
+            tail -20 "$SCRATCH/app.log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    ready=$(( $(now_ms) - start ))
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ready $rss"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# bench <label> <dir> <java args...>
+bench() {
+    local label="$1"
+    shift
+    : > "$SCRATCH/results"
+    for ((i = 1; i <= RUNS; i++)); do
+        run_once "$@" >> "$SCRATCH/results"
+    done
+    local ready rss
+    ready=$(cut -d' ' -f1 "$SCRATCH/results" | median)
+    rss=$(cut -d' ' -f2 "$SCRATCH/results" | median)
+    printf '%-28s %10d ms %10d MB\n' "$label" "$ready" $(( rss / 1024 ))
+}
+
+printf '%-28s %13s %13s\n' "build (median of ${RUNS})" "time-to-ready" "RSS"
+bench "plain fat jar" . -jar "$FAT_JAR"
+bench "prod (AOT + CDS + lazy)" "$CDS_DIR" -XX:SharedArchiveFile=coffee-shop.jsa -Dspring.aot.enabled=true \
+    -jar coffee-shop.jar --spring.profiles.active=prod
@@ -1,13 +1,36 @@
 package com.hackathon.coffeeshop.controller;
 
+import com.hackathon.coffeeshop.dto.ProjectedList;
+import com.hackathon.coffeeshop.dto.RushHourOrderDetails;
+import com.hackathon.coffeeshop.model.ScoringWeights;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
 import com.hackathon.coffeeshop.service.AnalyticsService;
 import com.hackathon.coffeeshop.service.BaristaService;
 import com.hackathon.coffeeshop.service.QueueService;
+import com.hackathon.coffeeshop.service.RandomService;
+import com.hackathon.coffeeshop.service.SimulationJob;
+import com.hackathon.coffeeshop.service.SimulationJobService;
+import com.hackathon.coffeeshop.service.SimulationParameters;
+import com.hackathon.coffeeshop.service.TimeSeriesStore;
+import com.hackathon.coffeeshop.service.WeightTuner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * REST API for Analytics and Statistics
@@ -18,16 +41,34 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AnalyticsController {
     
+    private static final int MAX_STATS_WINDOW = 100_000;
+    private static final int MAX_SERIES_POINTS = 2000;
+    
     private final AnalyticsService analyticsService;
     private final QueueService queueService;
     private final BaristaService baristaService;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final SimulationJobService jobService;
+    private final RandomService randomService;
+    private final TimeSeriesStore timeSeries;
+    private final WeightTuner weightTuner;
 
     public AnalyticsController(AnalyticsService analyticsService, 
                                QueueService queueService,
-                               BaristaService baristaService) {
+                               BaristaService baristaService,
+                               SchedulingPolicyRegistry policyRegistry,
+                               SimulationJobService jobService,
+                               RandomService randomService,
+                               TimeSeriesStore timeSeries,
+                               WeightTuner weightTuner) {
         this.analyticsService = analyticsService;
         this.queueService = queueService;
         this.baristaService = baristaService;
+        this.policyRegistry = policyRegistry;
+        this.jobService = jobService;
+        this.randomService = randomService;
+        this.timeSeries = timeSeries;
+        this.weightTuner = weightTuner;
     }
 
     /**
@@ -44,15 +85,17 @@ public class AnalyticsController {
     }
 
     /**
-     * POST /analytics/test100
-     * Generate 100 random orders and complete them instantly for testing
+     * POST /analytics/test100?seed=42
+     * Generate 100 random orders and complete them instantly for testing (same seed, same orders)
      */
     @PostMapping("/test100")
-    public ResponseEntity<Map<String, Object>> generateTest100Orders() {
-        int ordersAdded = analyticsService.generateBulkOrders(100);
+    public ResponseEntity<Map<String, Object>> generateTest100Orders(@RequestParam(required = false) Long seed) {
+        long runSeed = seed != null ? seed : randomService.nextSeed();
+        int ordersAdded = analyticsService.generateBulkOrders(100, runSeed);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
+        response.put("seed", runSeed);
         response.put("ordersGenerated", ordersAdded);
         response.put("ordersCompleted", ordersAdded);
         response.put("message", String.format("Successfully generated and completed %d test orders", ordersAdded));
@@ -61,13 +104,418 @@ public class AnalyticsController {
     }
 
     /**
-     * POST /analytics/rush-hour-100
-     * Simulate rush hour with 100 orders using SMART priority algorithm
+     * POST /analytics/rush-hour-100?policy=SMART&seed=42
+     * Simulate rush hour with 100 orders using a scheduling policy (SMART by default)
+     * The seed used is returned with the stats; passing it again replays the same run.
+     * orderDetails holds every order unless limit / top / fields bound it; the rest of a run
+     * can then be paged with GET /analytics/rush-hour/{runId}/orders.
      */
     @PostMapping("/rush-hour-100")
-    public ResponseEntity<Map<String, Object>> simulateRushHour100() {
-        Map<String, Object> rushHourStats = analyticsService.simulateRushHour200Orders();
-        return ResponseEntity.ok(rushHourStats);
+    public ResponseEntity<Map<String, Object>> simulateRushHour100(
+            @RequestParam(defaultValue = SchedulingPolicyRegistry.DEFAULT_POLICY) String policy,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Long seed) {
+        try {
+            Set<String> projection = ProjectedList.parseFields(fields);
+            if (projection != null) {
+                RushHourOrderDetails.validateFields(projection);  // before running the simulation
+            }
+            Map<String, Object> rushHourStats =
+                    analyticsService.simulateRushHour(policyRegistry.get(policy),
+                            seed != null ? seed : randomService.nextSeed());
+            RushHourOrderDetails details = (RushHourOrderDetails) rushHourStats.get("orderDetails");
+            if (limit != null || top != null) {
+                Map<String, Object> page = detailsPage(details, (int) rushHourStats.get("runId"),
+                        top, limit, null, projection);
+                rushHourStats.put("orderDetails", page.get("orders"));
+                rushHourStats.put("orderDetailsNextCursor", page.get("nextCursor"));
+            } else if (projection != null) {
+                rushHourStats.put("orderDetails", details.project(projection));
+            }
+            return ResponseEntity.ok(rushHourStats);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /analytics/rush-hour/{runId}/orders?limit=50&cursor=...&top=K&fields=id,waitTime
+     * Page through the order details of one of the last few rush-hour runs
+     * top=K returns the K longest waits (partial selection, no full sort)
+     */
+    @GetMapping("/rush-hour/{runId}/orders")
+    public ResponseEntity<Map<String, Object>> getRushHourOrders(@PathVariable int runId,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) Integer top,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) String fields) {
+        Optional<RushHourOrderDetails> details = analyticsService.getRunDetails(runId);
+        if (details.isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", String.format("Rush-hour run %d not found (only recent runs are kept)", runId));
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        try {
+            return ResponseEntity.ok(detailsPage(details.get(), runId, top, limit, cursor,
+                    ProjectedList.parseFields(fields)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * POST /analytics/jobs
+     * Submit a simulation job: {orders, lambda, baristas, horizonMinutes, seed, policy} (all optional)
+     * Returns 202 with the job id; 429 when the job queue is full
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestBody(required = false) Map<String, Object> request) {
+        Map<String, Object> body = request != null ? request : Map.of();
+        SimulationJob job;
+        try {
+            SimulationParameters parameters = new SimulationParameters(
+                    intParam(body, "orders", SimulationParameters.DEFAULT_ORDERS),
+                    doubleParam(body, "lambda", SimulationParameters.DEFAULT_LAMBDA),
+                    intParam(body, "baristas", SimulationParameters.DEFAULT_BARISTAS),
+                    doubleParam(body, "horizonMinutes", SimulationParameters.DEFAULT_HORIZON_MINUTES),
+                    body.get("seed") instanceof Number seed ? seed.longValue() : randomService.nextSeed());
+            String policy = body.get("policy") != null ? body.get("policy").toString()
+                    : SchedulingPolicyRegistry.DEFAULT_POLICY;
+            job = jobService.submit(parameters, policyRegistry.get(policy));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Simulation job queue is full, try again later");
+            error.put("executor", jobService.getExecutorStats());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+        }
+        
+        Map<String, Object> response = job.toSummary();
+        response.put("statusUrl", "/analytics/jobs/" + job.getId());
+        response.put("eventsUrl", "/analytics/jobs/" + job.getId() + "/events");
+        response.put("resultUrl", "/analytics/jobs/" + job.getId() + "/result");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * GET /analytics/jobs
+     * Recent simulation jobs (newest first) and executor load
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> listJobs() {
+        List<Map<String, Object>> jobs = new ArrayList<>();
+        for (SimulationJob job : jobService.getJobs()) {
+            jobs.add(job.toSummary());
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("executor", jobService.getExecutorStats());
+        response.put("jobs", jobs);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /analytics/jobs/{id}
+     * Job status, progress and partial metrics
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String id) {
+        return jobService.getJob(id)
+                .map(job -> ResponseEntity.ok(job.toSummary()))
+                .orElseGet(() -> jobNotFound(id));
+    }
+
+    /**
+     * GET /analytics/jobs/{id}/events
+     * Server-sent events: "progress" snapshots while the job runs, then one "done" event
+     */
+    @GetMapping("/jobs/{id}/events")
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        Optional<SimulationJob> found = jobService.getJob(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SimulationJob job = found.get();
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(30));
+        Consumer<SimulationJob> subscriber = new Consumer<>() {
+            @Override
+            public void accept(SimulationJob update) {
+                try {
+                    emitter.send(SseEmitter.event()
+                            .name(update.isFinished() ? "done" : "progress")
+                            .data(update.toSummary(), MediaType.APPLICATION_JSON));
+                    if (update.isFinished()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    update.unsubscribe(this);  // client went away
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(subscriber));
+        emitter.onTimeout(() -> job.unsubscribe(subscriber));
+        emitter.onError(e -> job.unsubscribe(subscriber));
+        if (!job.isFinished()) {
+            subscriber.accept(job);  // current state right away
+        }
+        job.subscribe(subscriber);
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+    }
+
+    /**
+     * GET /analytics/jobs/{id}/result?limit=50&top=K&fields=...
+     * Final result once COMPLETED (202 with the status while it runs, 409 if it failed or was cancelled)
+     * orderDetails holds the first page; the rest pages through /analytics/rush-hour/{runId}/orders
+     */
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<Map<String, Object>> getJobResult(@PathVariable String id,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) Integer top,
+                                                            @RequestParam(required = false) String fields) {
+        Optional<SimulationJob> found = jobService.getJob(id);
+        if (found.isEmpty()) {
+            return jobNotFound(id);
+        }
+        SimulationJob job = found.get();
+        if (!job.isFinished()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toSummary());
+        }
+        if (job.getStatus() != SimulationJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.toSummary());
+        }
+        
+        try {
+            Map<String, Object> result = new LinkedHashMap<>(job.getResult());
+            RushHourOrderDetails details = (RushHourOrderDetails) result.get("orderDetails");
+            Map<String, Object> page = detailsPage(details, (int) result.get("runId"), top, limit, null,
+                    ProjectedList.parseFields(fields));
+            result.put("orderDetails", page.get("orders"));
+            result.put("orderDetailsNextCursor", page.get("nextCursor"));
+            result.put("job", job.toSummary());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * DELETE /analytics/jobs/{id}
+     * Cancel a queued or running job
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> cancelJob(@PathVariable String id) {
+        Optional<SimulationJob> found = jobService.getJob(id);
+        if (found.isEmpty()) {
+            return jobNotFound(id);
+        }
+        SimulationJob job = found.get();
+        if (!jobService.cancel(job)) {
+            Map<String, Object> error = job.toSummary();
+            error.put("success", false);
+            error.put("message", String.format("Job %s already finished (%s)", id, job.getStatus()));
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        Map<String, Object> response = job.toSummary();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /analytics/weights
+     * Live SMART scoring weights and the specification defaults
+     */
+    @GetMapping("/weights")
+    public ResponseEntity<Map<String, Object>> getWeights() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("current", ScoringWeights.current().toMap());
+        response.put("defaults", ScoringWeights.DEFAULT.toMap());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * PUT /analytics/weights
+     * Hot-swap some or all weights ({"waitWeight": 45, ...}); the live queue is re-scored at once
+     */
+    @PutMapping("/weights")
+    public ResponseEntity<Map<String, Object>> updateWeights(@RequestBody Map<String, Object> changes) {
+        try {
+            return weightsChanged(queueService.applyScoringWeights(ScoringWeights.current().with(changes)));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * DELETE /analytics/weights
+     * Restore the specification defaults
+     */
+    @DeleteMapping("/weights")
+    public ResponseEntity<Map<String, Object>> resetWeights() {
+        return weightsChanged(queueService.applyScoringWeights(ScoringWeights.DEFAULT));
+    }
+
+    private ResponseEntity<Map<String, Object>> weightsChanged(ScoringWeights previous) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("previous", previous.toMap());
+        response.put("current", ScoringWeights.current().toMap());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /analytics/tuning
+     * Start tuning the scoring weights: {generations, population, traces, replayRunId, orders, lambda,
+     * baristas, horizonMinutes, seed, objective: {complaints, p95Wait, fairness}, apply} (all optional)
+     * Returns 202 with the run summary; 409 while another run is in progress
+     */
+    @PostMapping("/tuning")
+    public ResponseEntity<Map<String, Object>> startTuning(@RequestBody(required = false) Map<String, Object> request) {
+        Map<String, Object> body = request != null ? request : Map.of();
+        WeightTuner.TuningRun run;
+        try {
+            WeightTuner.Objective defaults = weightTuner.getDefaultObjective();
+            Map<String, Object> objective = new HashMap<>();
+            if (body.get("objective") instanceof Map<?, ?> map) {
+                map.forEach((key, value) -> objective.put(String.valueOf(key), value));
+            }
+            Object replay = body.get("replayRunId");
+            if (replay != null && !(replay instanceof Number)) {
+                throw new IllegalArgumentException("replayRunId must be a number");
+            }
+            run = weightTuner.start(new WeightTuner.TuningRequest(
+                    intParam(body, "generations", 20),
+                    intParam(body, "population", 8),
+                    intParam(body, "traces", 4),
+                    replay != null ? ((Number) replay).intValue() : null,
+                    new SimulationParameters(
+                            intParam(body, "orders", SimulationParameters.DEFAULT_ORDERS),
+                            doubleParam(body, "lambda", SimulationParameters.DEFAULT_LAMBDA),
+                            intParam(body, "baristas", SimulationParameters.DEFAULT_BARISTAS),
+                            doubleParam(body, "horizonMinutes", SimulationParameters.DEFAULT_HORIZON_MINUTES),
+                            body.get("seed") instanceof Number seed ? seed.longValue() : randomService.nextSeed()),
+                    new WeightTuner.Objective(
+                            doubleParam(objective, "complaints", defaults.complaints()),
+                            doubleParam(objective, "p95Wait", defaults.p95Wait()),
+                            doubleParam(objective, "fairness", defaults.fairness())),
+                    Boolean.TRUE.equals(body.get("apply"))));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        } catch (IllegalStateException e) {
+            return tuningConflict(e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run.toSummary());
+    }
+
+    /**
+     * GET /analytics/tuning
+     * Progress of the current or last tuning run: baseline vs best weights and objective per generation
+     */
+    @GetMapping("/tuning")
+    public ResponseEntity<Map<String, Object>> getTuning() {
+        return weightTuner.getLastRun()
+                .map(run -> ResponseEntity.ok(run.toSummary()))
+                .orElseGet(() -> {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("success", false);
+                    error.put("message", "No tuning run yet");
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+                });
+    }
+
+    /**
+     * POST /analytics/tuning/apply
+     * Hot-swap the best weights of the last finished run into the live engine
+     */
+    @PostMapping("/tuning/apply")
+    public ResponseEntity<Map<String, Object>> applyTuning() {
+        try {
+            return weightsChanged(weightTuner.applyBest());
+        } catch (IllegalStateException e) {
+            return tuningConflict(e.getMessage());
+        }
+    }
+
+    /**
+     * DELETE /analytics/tuning
+     * Cancel the running tuning run (the live weights are left as they are)
+     */
+    @DeleteMapping("/tuning")
+    public ResponseEntity<Map<String, Object>> cancelTuning() {
+        if (!weightTuner.cancel()) {
+            return tuningConflict("No tuning run in progress");
+        }
+        Map<String, Object> response = weightTuner.getLastRun().orElseThrow().toSummary();
+        response.put("success", true);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> tuningConflict(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    private ResponseEntity<Map<String, Object>> jobNotFound(String id) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", String.format("Simulation job %s not found", id));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    private static int intParam(Map<String, Object> body, String name, int defaultValue) {
+        Object value = body.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        throw new IllegalArgumentException(name + " must be a number");
+    }
+
+    private static double doubleParam(Map<String, Object> body, String name, double defaultValue) {
+        Object value = body.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        throw new IllegalArgumentException(name + " must be a number");
+    }
+
+    private Map<String, Object> detailsPage(RushHourOrderDetails details, int runId, Integer top,
+                                            Integer limit, String cursor, Set<String> fields) {
+        Map<String, Object> page = new HashMap<>();
+        page.put("runId", runId);
+        page.put("total", details.size());
+        page.put("nextCursor", null);
+        
+        RushHourOrderDetails view;
+        if (top != null) {
+            view = details.top(top);
+        } else {
+            int offset = cursor != null ? PageCursor.decode(cursor).offset() : 0;
+            view = details.page(offset, PageCursor.clampLimit(limit));
+            int next = offset + view.rowCount();
+            if (next < details.size()) {
+                page.put("nextCursor", new PageCursor(next, next).encode());
+            }
+        }
+        page.put("orders", view.project(fields));
+        return page;
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.badRequest().body(error);
     }
 
     /**
@@ -89,4 +537,60 @@ public class AnalyticsController {
         Map<String, Object> stats = analyticsService.getLast100OrderStats();
         return ResponseEntity.ok(stats);
     }
+
+    /**
+     * GET /analytics/window?last=500
+     * Statistics of the last N completed orders (each window size is cached separately)
+     */
+    @GetMapping("/window")
+    public ResponseEntity<Map<String, Object>> getWindowStats(@RequestParam(defaultValue = "100") int last) {
+        if (last < 1 || last > MAX_STATS_WINDOW) {
+            return badRequest(String.format("last must be between 1 and %d", MAX_STATS_WINDOW));
+        }
+        return ResponseEntity.ok(analyticsService.getRecentOrderStats(last));
+    }
+
+    /**
+     * GET /analytics/timeseries?from=2026-10-12&to=2026-10-19&resolution=auto&maxPoints=500
+     * Rolled-up arrivals, completions, waits, queue length and busy baristas over simulated time
+     * Defaults to the last hour; resolution=auto picks the finest tier (1m, 15m, 1h) that still
+     * holds from and fits in maxPoints buckets.
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<Map<String, Object>> getTimeSeries(@RequestParam(required = false) String from,
+                                                             @RequestParam(required = false) String to,
+                                                             @RequestParam(defaultValue = "auto") String resolution,
+                                                             @RequestParam(defaultValue = "500") int maxPoints) {
+        try {
+            if (maxPoints < 1 || maxPoints > MAX_SERIES_POINTS) {
+                return badRequest(String.format("maxPoints must be between 1 and %d", MAX_SERIES_POINTS));
+            }
+            LocalDateTime end = TimeParams.parse("to", to);
+            if (end == null) {
+                end = queueService.getSimulatedTime().plusMinutes(1);  // include the current minute
+            }
+            LocalDateTime start = TimeParams.parse("from", from);
+            if (start == null) {
+                start = end.minusHours(1);
+            }
+            if (!start.isBefore(end)) {
+                return badRequest("from must be before to");
+            }
+            TimeSeriesStore.Resolution tier = "auto".equalsIgnoreCase(resolution)
+                    ? timeSeries.pickResolution(start, end, maxPoints)
+                    : TimeSeriesStore.Resolution.parse(resolution);
+            long points = TimeSeriesStore.pointCount(start, end, tier);
+            if (points > maxPoints) {
+                return badRequest(String.format("%s resolution needs %d points for this range (maxPoints=%d)",
+                        tier.getLabel(), points, maxPoints));
+            }
+            Map<String, Object> series = timeSeries.range(start, end, tier);
+            series.put("from", start);
+            series.put("to", end);
+            series.put("tiers", timeSeries.getTiers());
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.hackathon.coffeeshop.controller;
 
+import com.hackathon.coffeeshop.dto.BaristaStatusDto;
 import com.hackathon.coffeeshop.service.BaristaService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -26,8 +27,8 @@ public class BaristaController {
      * Returns status of all baristas
      */
     @GetMapping("/status")
-    public ResponseEntity<List<Map<String, Object>>> getBaristaStatus() {
-        List<Map<String, Object>> status = baristaService.getBaristaStatus();
+    public ResponseEntity<List<BaristaStatusDto>> getBaristaStatus() {
+        List<BaristaStatusDto> status = baristaService.getBaristaStatus();
         return ResponseEntity.ok(status);
     }
 
@@ -0,0 +1,157 @@
+package com.hackathon.coffeeshop.controller;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import com.hackathon.coffeeshop.repository.OrderHistoryRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API for persisted order history (persistence.enabled)
+ * Queries go to the embedded database through its indexes, never to the in-memory order list.
+ * Times are simulated store times: ISO date-time, or a date for midnight; from is inclusive,
+ * to exclusive.
+ */
+@RestController
+@RequestMapping("/history")
+@CrossOrigin(origins = "http://localhost:3000")
+public class HistoryController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final OrderHistoryRepository history;
+
+    public HistoryController(OrderHistoryRepository history) {
+        this.history = history;
+    }
+
+    /**
+     * GET /history/orders?from=2026-10-01&to=2026-10-08&drink=LATTE&customerType=GOLD&barista=Barista%201&limit=100
+     * Completed orders, newest first (all filters optional)
+     */
+    @GetMapping("/orders")
+    public ResponseEntity<Map<String, Object>> getOrders(@RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(required = false) String drink,
+                                                        @RequestParam(required = false) String customerType,
+                                                        @RequestParam(required = false) String barista,
+                                                        @RequestParam(defaultValue = "100") int limit) {
+        if (!history.isEnabled()) {
+            return disabled();
+        }
+        try {
+            List<Map<String, Object>> orders = history.findCompletedOrders(TimeParams.parse("from", from),
+                    TimeParams.parse("to", to), parseDrink(drink), parseCustomerType(customerType), barista,
+                    checkLimit(limit));
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", orders.size());
+            response.put("orders", orders);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /history/summary?groupBy=day&from=...&to=...
+     * Orders, average / max wait and timeouts per day, drink, customerType or barista
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<Map<String, Object>> getSummary(@RequestParam(defaultValue = "day") String groupBy,
+                                                          @RequestParam(required = false) String from,
+                                                          @RequestParam(required = false) String to) {
+        if (!history.isEnabled()) {
+            return disabled();
+        }
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("groupBy", groupBy);
+            response.put("groups", history.summarize(TimeParams.parse("from", from),
+                    TimeParams.parse("to", to), groupBy));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /history/baristas?barista=Barista%201&from=...&to=...&limit=100
+     * Periodic barista stat snapshots, newest first
+     */
+    @GetMapping("/baristas")
+    public ResponseEntity<Map<String, Object>> getBaristaStats(@RequestParam(required = false) String barista,
+                                                               @RequestParam(required = false) String from,
+                                                               @RequestParam(required = false) String to,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        if (!history.isEnabled()) {
+            return disabled();
+        }
+        try {
+            List<Map<String, Object>> snapshots = history.findBaristaStats(barista, TimeParams.parse("from", from),
+                    TimeParams.parse("to", to), checkLimit(limit));
+            Map<String, Object> response = new HashMap<>();
+            response.put("count", snapshots.size());
+            response.put("snapshots", snapshots);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /history/stats
+     * Write queue depth and rows written, dropped and failed
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(history.getStats());
+    }
+
+    private static DrinkType parseDrink(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DrinkType.valueOf(value.toUpperCase().replace(" ", "_"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid drink: " + value);
+        }
+    }
+
+    private static CustomerType parseCustomerType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return CustomerType.valueOf(value.toUpperCase().replace(" ", "_"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid customerType: " + value);
+        }
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException(String.format("limit must be between 1 and %d", MAX_LIMIT));
+        }
+        return limit;
+    }
+
+    private ResponseEntity<Map<String, Object>> disabled() {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", "Order history is disabled (start with persistence.enabled=true)");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
+    private ResponseEntity<Map<String, Object>> badRequest(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.badRequest().body(error);
+    }
+}
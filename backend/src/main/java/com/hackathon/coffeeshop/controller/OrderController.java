@@ -1,15 +1,27 @@
 package com.hackathon.coffeeshop.controller;
 
+import com.hackathon.coffeeshop.dto.AbandonedOrderDto;
+import com.hackathon.coffeeshop.dto.OrderStatusDto;
+import com.hackathon.coffeeshop.dto.ProjectedList;
+import com.hackathon.coffeeshop.dto.QueueOrderDto;
+import com.hackathon.coffeeshop.model.CustomerType;
 import com.hackathon.coffeeshop.model.DrinkType;
+import com.hackathon.coffeeshop.model.Barista;
 import com.hackathon.coffeeshop.model.Order;
+import com.hackathon.coffeeshop.model.OrderStatus;
+import com.hackathon.coffeeshop.service.AdmissionService;
 import com.hackathon.coffeeshop.service.QueueService;
 import com.hackathon.coffeeshop.service.BaristaService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -22,39 +34,107 @@ public class OrderController {
     
     private final QueueService queueService;
     private final BaristaService baristaService;
+    private final AdmissionService admissionService;
 
-    public OrderController(QueueService queueService, BaristaService baristaService) {
+    public OrderController(QueueService queueService, BaristaService baristaService,
+                           AdmissionService admissionService) {
         this.queueService = queueService;
         this.baristaService = baristaService;
+        this.admissionService = admissionService;
     }
 
     /**
-     * GET /orders/queue
-     * Returns current order queue with priorities
+     * GET /orders/queue?top=K | ?limit=N&cursor=... &fields=id,priority
+     * Returns current order queue with priorities (whole queue when no paging parameter is given)
+     * top=K selects the first K without sorting the whole queue; limit/cursor pages through it.
+     * The queue length and the next page's cursor come back in X-Total-Count / X-Next-Cursor.
      */
     @GetMapping("/queue")
-    public ResponseEntity<List<Map<String, Object>>> getQueue() {
-        List<Order> orders = queueService.getQueueOrders();
+    public ResponseEntity<?> getQueue(@RequestParam(required = false) Integer top,
+                                      @RequestParam(required = false) Integer limit,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) String fields) {
+        List<Order> orders;
+        int total;
+        String nextCursor = null;
+        try {
+            if (top != null) {
+                orders = queueService.getTopQueueOrders(Math.max(0, top));
+                total = queueService.getQueueSize();
+            } else if (limit != null || cursor != null) {
+                PageCursor from = cursor != null ? PageCursor.decode(cursor) : new PageCursor(0, 0);
+                QueueService.QueuePage page = queueService.getQueuePage(from.afterId(), from.offset(),
+                        PageCursor.clampLimit(limit));
+                orders = page.orders();
+                total = page.total();
+                if (page.hasMore()) {
+                    Order last = orders.get(orders.size() - 1);
+                    nextCursor = new PageCursor(last.getId(), page.offset() + orders.size()).encode();
+                }
+            } else {
+                orders = queueService.getQueueOrders();
+                total = orders.size();
+            }
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
         
-        List<Map<String, Object>> orderData = orders.stream()
-                .map(this::orderToMap)
+        LocalDateTime now = queueService.getSimulatedTime();
+        List<QueueOrderDto> orderData = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            orderData.add(QueueOrderDto.of(order, now));
+        }
+        
+        Object body;
+        try {
+            body = ProjectedList.of(orderData, QueueOrderDto.class, ProjectedList.parseFields(fields));
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header("X-Total-Count", String.valueOf(total));
+        if (nextCursor != null) {
+            response.header("X-Next-Cursor", nextCursor);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * GET /orders/abandoned
+     * Recently abandoned orders (customers who hit their timeout), newest first
+     */
+    @GetMapping("/abandoned")
+    public ResponseEntity<Map<String, Object>> getAbandonedOrders() {
+        List<AbandonedOrderDto> orders = queueService.getAbandonedOrders().stream()
+                .map(AbandonedOrderDto::of)
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(orderData);
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalAbandoned", queueService.getAbandonedOrderCount());
+        response.put("orders", orders);
+        
+        return ResponseEntity.ok(response);
     }
 
     /**
      * POST /orders/random
-     * Add a random order to the queue
+     * Add a random order to the queue (429 if admission control turns it away)
      */
     @PostMapping("/random")
     public ResponseEntity<Map<String, Object>> addRandomOrder() {
-        Order order = queueService.addRandomOrder();
+        DrinkType drinkType = queueService.nextDrinkType();
+        CustomerType customerType = queueService.nextCustomerType();
+        AdmissionService.Admission admission = admissionService.admit(drinkType, customerType);
+        if (admission.order() == null) {
+            return notAdmitted(admission.decision());
+        }
+        Order order = admission.order();
         baristaService.assignOrders(); // Try to assign immediately
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("order", orderToMap(order));
+        putWarning(response, admission.decision());
+        response.put("order", toDto(order));
         response.put("message", String.format("Added Order #%d: %s", 
                 order.getId(), order.getDrinkType().getDisplayName()));
         
@@ -63,44 +143,160 @@ public class OrderController {
 
     /**
      * POST /orders/create
-     * Add a specific drink type
+     * Add a specific drink type (429 if admission control turns it away)
      */
     @PostMapping("/create")
     public ResponseEntity<Map<String, Object>> createOrder(@RequestBody Map<String, String> request) {
+        DrinkType drinkType;
         try {
             String drinkName = request.get("drinkType");
-            DrinkType drinkType = DrinkType.valueOf(drinkName.toUpperCase().replace(" ", "_"));
-            
-            Order order = queueService.addOrder(drinkType);
-            baristaService.assignOrders();
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("order", orderToMap(order));
-            
-            return ResponseEntity.ok(response);
+            drinkType = DrinkType.valueOf(drinkName.toUpperCase().replace(" ", "_"));
+        } catch (Exception e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, "Invalid drink type");
+        }
+        
+        CustomerType customerType = queueService.nextCustomerType();
+        AdmissionService.Admission admission = admissionService.admit(drinkType, customerType);
+        if (admission.order() == null) {
+            return notAdmitted(admission.decision());
+        }
+        Order order = admission.order();
+        baristaService.assignOrders();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("order", toDto(order));
+        putWarning(response, admission.decision());
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /orders/{id}
+     * Status of a single order: state, queue position and ETA (no full queue sort per poll)
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getOrder(@PathVariable int id) {
+        Optional<Order> found = queueService.findOrder(id);
+        if (found.isEmpty()) {
+            return errorResponse(HttpStatus.NOT_FOUND, String.format("Order #%d not found", id));
+        }
+        return ResponseEntity.ok(orderStatusToDto(found.get()));
+    }
+
+    /**
+     * DELETE /orders/{id}
+     * Cancel an order that is still waiting in the queue
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> cancelOrder(@PathVariable int id) {
+        Optional<Order> found = queueService.findOrder(id);
+        if (found.isEmpty()) {
+            return errorResponse(HttpStatus.NOT_FOUND, String.format("Order #%d not found", id));
+        }
+        Order order = found.get();
+        if (!queueService.cancelOrder(order)) {
+            return errorResponse(HttpStatus.CONFLICT, String.format("Order #%d cannot be cancelled (%s)",
+                    id, order.getStatus().toString().toLowerCase()));
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("order", orderStatusToDto(order));
+        response.put("message", String.format("Cancelled Order #%d", id));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * PATCH /orders/{id}
+     * Change the drink of an order that is still waiting in the queue
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> changeOrder(@PathVariable int id,
+                                                           @RequestBody Map<String, String> request) {
+        DrinkType drinkType;
+        try {
+            drinkType = DrinkType.valueOf(request.get("drinkType").toUpperCase().replace(" ", "_"));
         } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "Invalid drink type");
-            return ResponseEntity.badRequest().body(error);
+            return errorResponse(HttpStatus.BAD_REQUEST, "Invalid drink type");
+        }
+        
+        Optional<Order> found = queueService.findOrder(id);
+        if (found.isEmpty()) {
+            return errorResponse(HttpStatus.NOT_FOUND, String.format("Order #%d not found", id));
+        }
+        Order order = found.get();
+        if (!queueService.changeDrink(order, drinkType)) {
+            return errorResponse(HttpStatus.CONFLICT, String.format("Order #%d can no longer be changed (%s)",
+                    id, order.getStatus().toString().toLowerCase()));
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("order", orderStatusToDto(order));
+        response.put("message", String.format("Order #%d changed to %s", id, drinkType.getDisplayName()));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Single-order status view: queue position/ETA while waiting, barista/time left while in progress
+     */
+    private OrderStatusDto orderStatusToDto(Order order) {
+        // the position lookup refreshes the queue snapshot and ETA, so it goes before the DTO
+        int position = queueService.getQueuePosition(order);
+        QueueOrderDto base = toDto(order);
+        String status = order.getStatus().toString().toLowerCase();
+        
+        if (order.getStatus() == OrderStatus.QUEUED) {
+            return OrderStatusDto.of(base, status, position > 0 ? position : null,
+                    queueService.getQueueSize(), null, base.estimatedWaitMinutes());
+        } else if (order.getStatus() == OrderStatus.IN_PROGRESS) {
+            Optional<Barista> barista = baristaService.findBaristaFor(order);
+            return OrderStatusDto.of(base, status, null, null,
+                    barista.map(Barista::getName).orElse(null),
+                    Math.round(baristaService.getTimeRemaining(order) * 10) / 10.0);
         }
+        return OrderStatusDto.of(base, status, null, null, null, 0.0);
     }
 
     /**
-     * Convert Order model to JSON-friendly map (with new fields)
+     * 429 for a rejected or diverted arrival; Retry-After is the predicted wait beyond the timeout
      */
-    private Map<String, Object> orderToMap(Order order) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", order.getId());
-        map.put("drinkType", order.getDrinkType().getDisplayName());
-        map.put("waitTime", Math.round(order.getWaitTime(queueService.getSimulatedTime()) * 10) / 10.0);
-        map.put("priority", order.getPriorityScore());
-        map.put("reason", order.getPriorityReason());
-        map.put("urgency", order.getUrgency().toString().toLowerCase());
-        map.put("customerType", order.getCustomerType().getDisplayName());
-        map.put("peopleServedAhead", order.getPeopleServedAhead());
-        map.put("estimatedWaitMinutes", Math.round(order.getEstimatedWaitMinutes() * 10) / 10.0);
-        return map;
+    private ResponseEntity<Map<String, Object>> notAdmitted(AdmissionService.Decision decision) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", decision.reason());
+        error.put("action", decision.action().name().toLowerCase());
+        error.put("customerType", decision.customerType().name());
+        error.put("predictedWaitMinutes", Math.round(decision.predictedWaitMinutes() * 10) / 10.0);
+        error.put("timeoutMinutes", decision.timeoutMinutes());
+        if (decision.divertTo() != null) {
+            error.put("divertTo", decision.divertTo());
+        }
+        long retryAfterSeconds = Math.max(60, Math.round(
+                (decision.predictedWaitMinutes() - decision.timeoutMinutes()) * 60));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
+
+    private static void putWarning(Map<String, Object> response, AdmissionService.Decision decision) {
+        if (decision.action() == AdmissionService.Action.WARN) {
+            response.put("warning", decision.reason());
+            response.put("predictedWaitMinutes", Math.round(decision.predictedWaitMinutes() * 10) / 10.0);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+
+    private QueueOrderDto toDto(Order order) {
+        return QueueOrderDto.of(order, queueService.getSimulatedTime());
     }
 }
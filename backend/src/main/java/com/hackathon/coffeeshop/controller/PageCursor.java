@@ -0,0 +1,35 @@
+package com.hackathon.coffeeshop.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor: id of the last row returned and the offset to resume from
+ * (offset alone for immutable lists; live queues resume after the id while it is still queued)
+ */
+record PageCursor(int afterId, int offset) {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((afterId + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by encode()
+     */
+    static PageCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new PageCursor(Integer.parseInt(parts[0]), Math.max(0, Integer.parseInt(parts[1])));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    static int clampLimit(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+}
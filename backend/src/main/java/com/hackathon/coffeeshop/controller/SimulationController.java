@@ -1,16 +1,23 @@
 package com.hackathon.coffeeshop.controller;
 
+import com.hackathon.coffeeshop.logging.EventLogger;
+import com.hackathon.coffeeshop.repository.OrderHistoryRepository;
 import com.hackathon.coffeeshop.model.Order;
-import com.hackathon.coffeeshop.model.QueueMode;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicy;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
+import com.hackathon.coffeeshop.service.AdmissionService;
 import com.hackathon.coffeeshop.service.BaristaService;
 import com.hackathon.coffeeshop.service.QueueService;
 import com.hackathon.coffeeshop.service.SimulationScheduler;
+import com.hackathon.coffeeshop.service.TickProfiler;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * REST API for Simulation Controls and Metrics
@@ -23,13 +30,28 @@ public class SimulationController {
     private final QueueService queueService;
     private final BaristaService baristaService;
     private final SimulationScheduler scheduler;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final TickProfiler profiler;
+    private final EventLogger events;
+    private final OrderHistoryRepository history;
+    private final AdmissionService admissionService;
 
     public SimulationController(QueueService queueService, 
                                 BaristaService baristaService, 
-                                SimulationScheduler scheduler) {
+                                SimulationScheduler scheduler,
+                                SchedulingPolicyRegistry policyRegistry,
+                                TickProfiler profiler,
+                                EventLogger events,
+                                OrderHistoryRepository history,
+                                AdmissionService admissionService) {
         this.queueService = queueService;
         this.baristaService = baristaService;
         this.scheduler = scheduler;
+        this.policyRegistry = policyRegistry;
+        this.profiler = profiler;
+        this.events = events;
+        this.history = history;
+        this.admissionService = admissionService;
     }
 
     /**
@@ -68,15 +90,19 @@ public class SimulationController {
 
     /**
      * POST /simulate/reset
-     * Reset entire system
+     * Reset entire system; optional body {"seed": 42} replays the live store's random draws
      */
     @PostMapping("/reset")
-    public ResponseEntity<Map<String, Object>> resetSystem() {
-        queueService.reset();
-        baristaService.completeAllOrders();
+    public ResponseEntity<Map<String, Object>> resetSystem(@RequestBody(required = false) Map<String, Object> request) {
+        if (request != null && request.get("seed") instanceof Number seed) {
+            baristaService.reset(seed.longValue());
+        } else {
+            baristaService.reset();
+        }
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
+        response.put("seed", queueService.getSeed());
         response.put("message", "System reset complete");
         
         return ResponseEntity.ok(response);
@@ -116,6 +142,113 @@ public class SimulationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * POST /simulate/abandonment
+     * Toggle live abandonment (customers leave at their timeout) on/off
+     */
+    @PostMapping("/abandonment")
+    public ResponseEntity<Map<String, Object>> toggleAbandonment(@RequestBody Map<String, Boolean> request) {
+        boolean enabled = request.getOrDefault("enabled", true);
+        queueService.setAbandonmentEnabled(enabled);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("abandonmentEnabled", enabled);
+        response.put("message", "Customer abandonment " + (enabled ? "enabled" : "disabled"));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /simulate/batching
+     * Toggle same-drink batching on/off and set the max batch size K
+     */
+    @PostMapping("/batching")
+    public ResponseEntity<Map<String, Object>> toggleBatching(@RequestBody Map<String, Object> request) {
+        boolean enabled = Boolean.TRUE.equals(request.getOrDefault("enabled", true));
+        int maxBatchSize = request.get("maxBatchSize") instanceof Number n
+                ? n.intValue()
+                : queueService.getMaxBatchSize();
+        queueService.setBatching(enabled, maxBatchSize);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("batchingEnabled", enabled);
+        response.put("maxBatchSize", queueService.getMaxBatchSize());
+        response.put("message", "Same-drink batching " + (enabled
+                ? String.format("enabled (K=%d)", queueService.getMaxBatchSize())
+                : "disabled"));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /simulate/lookahead
+     * Toggle look-ahead pre-assignment on/off and set the reservation threshold (minutes)
+     */
+    @PostMapping("/lookahead")
+    public ResponseEntity<Map<String, Object>> toggleLookAhead(@RequestBody Map<String, Object> request) {
+        boolean enabled = Boolean.TRUE.equals(request.getOrDefault("enabled", true));
+        double thresholdMinutes = request.get("thresholdMinutes") instanceof Number n
+                ? n.doubleValue()
+                : baristaService.getLookAheadMinutes();
+        baristaService.setLookAhead(enabled, thresholdMinutes);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("lookAheadEnabled", enabled);
+        response.put("thresholdMinutes", baristaService.getLookAheadMinutes());
+        response.put("message", "Look-ahead assignment " + (enabled
+                ? String.format("enabled (%.1f min)", baristaService.getLookAheadMinutes())
+                : "disabled"));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /simulate/pipeline
+     * Switch between the station pipeline and whole-order barista tasks
+     */
+    @PostMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> togglePipeline(@RequestBody Map<String, Boolean> request) {
+        boolean enabled = request.getOrDefault("enabled", true);
+        baristaService.setPipeline(enabled);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("pipelineEnabled", enabled);
+        response.put("active", baristaService.isPipelineActive());
+        response.put("message", (enabled ? "Station pipeline" : "Whole-order tasks")
+                + (baristaService.isPipelineActive() == enabled
+                        ? " active"
+                        : " requested (switches once current drinks are finished)"));
+        
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /simulate/admission
+     * Toggle admission control on/off and optionally set the hard queue cap
+     */
+    @PostMapping("/admission")
+    public ResponseEntity<Map<String, Object>> toggleAdmission(@RequestBody Map<String, Object> request) {
+        boolean enabled = Boolean.TRUE.equals(request.getOrDefault("enabled", true));
+        if (request.get("maxQueue") instanceof Number n) {
+            admissionService.setMaxQueue(n.intValue());
+        }
+        admissionService.setEnabled(enabled);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("admissionEnabled", enabled);
+        response.put("maxQueue", admissionService.getMaxQueue());
+        response.put("message", "Admission control " + (enabled
+                ? String.format("enabled (max %d waiting)", admissionService.getMaxQueue())
+                : "disabled"));
+        
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * GET /simulate/metrics
      * Get performance metrics
@@ -127,25 +260,71 @@ public class SimulationController {
         // Add barista stats
         Map<String, Integer> baristaStats = baristaService.getBaristaStats();
         metrics.put("activeOrders", baristaStats.get("busy"));
+        metrics.put("batching", baristaService.getBatchingStats());
+        metrics.put("lookAhead", baristaService.getLookAheadStats());
+        metrics.put("pipeline", baristaService.getPipelineStats());
+        metrics.put("eventLog", events.getStats());
+        metrics.put("history", history.getStats());
+        metrics.put("admission", admissionService.getStats());
         
         return ResponseEntity.ok(metrics);
     }
 
     /**
      * POST /simulate/mode
-     * Switch queue mode (FIFO <-> SMART)
+     * Switch scheduling policy by name (FIFO, SMART, SJF, EDF, WFQ)
      */
     @PostMapping("/mode")
     public ResponseEntity<Map<String, Object>> switchMode(@RequestBody Map<String, String> request) {
-        String modeStr = request.get("mode");
-        QueueMode mode = QueueMode.valueOf(modeStr.toUpperCase());
-        queueService.setQueueMode(mode);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("currentMode", mode.toString());
-        response.put("message", String.format("Switched to %s mode", mode));
-        
-        return ResponseEntity.ok(response);
+        try {
+            SchedulingPolicy policy = queueService.setSchedulingPolicy(request.get("mode"));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("currentMode", policy.getName());
+            response.put("description", policy.getDescription());
+            response.put("message", String.format("Switched to %s mode", policy.getName()));
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * GET /simulate/policies
+     * List available scheduling policies
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<List<Map<String, Object>>> getPolicies() {
+        String current = queueService.getCurrentPolicy().getName();
+        List<Map<String, Object>> policies = policyRegistry.getAll().stream()
+                .map(policy -> {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("name", policy.getName());
+                    entry.put("description", policy.getDescription());
+                    entry.put("active", policy.getName().equals(current));
+                    return entry;
+                })
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(policies);
+    }
+
+    /**
+     * GET /simulate/profile
+     * Per-phase timing of recent simulation ticks (format=folded for flamegraph input)
+     */
+    @GetMapping("/profile")
+    public ResponseEntity<?> getProfile(@RequestParam(defaultValue = "20") int recent,
+                                        @RequestParam(defaultValue = "json") String format) {
+        if ("folded".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body(profiler.getFoldedStacks());
+        }
+        return ResponseEntity.ok(profiler.getProfile(Math.max(0, recent)));
     }
 }
@@ -0,0 +1,30 @@
+package com.hackathon.coffeeshop.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Simulated-time query parameters: ISO date-time, or a date for midnight
+ */
+final class TimeParams {
+
+    private TimeParams() {
+    }
+
+    /**
+     * @return null for a missing or blank value
+     * @throws IllegalArgumentException if the value is neither an ISO date nor date-time
+     */
+    static LocalDateTime parse(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format(
+                    "%s must be an ISO date (2026-10-19) or date-time (2026-10-19T08:30), got '%s'", name, value));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.hackathon.coffeeshop.model.Order;
+
+/**
+ * Entry of the abandoned-orders feed
+ */
+public record AbandonedOrderDto(
+        int id,
+        String drinkType,
+        String customerType,
+        double waitTime,
+        String abandonedAt) {
+
+    public static AbandonedOrderDto of(Order order) {
+        return new AbandonedOrderDto(
+                order.getId(),
+                order.getDrinkType().getDisplayName(),
+                order.getCustomerType().getDisplayName(),
+                Math.round(order.getWaitTime(order.getAbandonedTime()) * 10) / 10.0,
+                order.getAbandonedTime().toString());
+    }
+}
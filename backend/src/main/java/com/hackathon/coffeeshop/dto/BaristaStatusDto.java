@@ -0,0 +1,26 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Barista card for /baristas/status (order fields only while busy; reservedOrderIds only
+ * while the next task is reserved by look-ahead)
+ */
+public record BaristaStatusDto(
+        int id,
+        String name,
+        String status,
+        double workloadRatio,
+        double totalWorkMinutes,
+        int ordersCompleted,
+        String currentOrder,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer orderId,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String customerType,
+        double timeRemaining,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer batchSize,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<Integer> batchOrderIds,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<Integer> reservedOrderIds,
+        double idleMinutes) {
+}
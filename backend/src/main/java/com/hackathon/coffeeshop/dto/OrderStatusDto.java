@@ -0,0 +1,29 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Single-order status: queue position while waiting, barista while in progress
+ */
+public record OrderStatusDto(
+        int id,
+        String drinkType,
+        double waitTime,
+        double priority,
+        String reason,
+        String urgency,
+        String customerType,
+        int peopleServedAhead,
+        String status,
+        Integer position,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer queueLength,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String barista,
+        double estimatedWaitMinutes) {
+
+    public static OrderStatusDto of(QueueOrderDto order, String status, Integer position,
+                                    Integer queueLength, String barista, double estimatedWaitMinutes) {
+        return new OrderStatusDto(order.id(), order.drinkType(), order.waitTime(), order.priority(),
+                order.reason(), order.urgency(), order.customerType(), order.peopleServedAhead(),
+                status, position, queueLength, barista, estimatedWaitMinutes);
+    }
+}
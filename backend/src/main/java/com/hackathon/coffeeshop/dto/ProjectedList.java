@@ -0,0 +1,100 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * List of DTO records serialized with only the requested fields (fields= projection)
+ * Accessors are resolved once per response and each row is written straight to the generator.
+ */
+public class ProjectedList<R extends Record> implements JsonSerializable {
+
+    private final List<R> rows;
+    private final String[] names;
+    private final Method[] accessors;
+
+    private ProjectedList(List<R> rows, String[] names, Method[] accessors) {
+        this.rows = rows;
+        this.names = names;
+        this.accessors = accessors;
+    }
+
+    /**
+     * Rows restricted to fields (null = all fields, returned as-is)
+     * @throws IllegalArgumentException for a field the record does not have
+     */
+    public static <R extends Record> Object of(List<R> rows, Class<R> type, Set<String> fields) {
+        if (fields == null) {
+            return rows;
+        }
+        List<String> names = new ArrayList<>();
+        List<Method> accessors = new ArrayList<>();
+        Set<String> unknown = new LinkedHashSet<>(fields);
+        for (RecordComponent component : type.getRecordComponents()) {
+            if (fields.contains(component.getName())) {
+                names.add(component.getName());
+                accessors.add(component.getAccessor());
+                unknown.remove(component.getName());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field(s): " + String.join(", ", unknown));
+        }
+        return new ProjectedList<>(rows, names.toArray(new String[0]), accessors.toArray(new Method[0]));
+    }
+
+    /**
+     * Parse a comma-separated fields= parameter (null or blank = no projection)
+     */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                parsed.add(field.trim());
+            }
+        }
+        return parsed.isEmpty() ? null : parsed;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartArray(this, rows.size());
+        for (R row : rows) {
+            gen.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                gen.writeFieldName(names[i]);
+                serializers.defaultSerializeValue(read(accessors[i], row), gen);
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private static Object read(Method accessor, Object row) throws IOException {
+        try {
+            return accessor.invoke(row);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Cannot read " + accessor.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.hackathon.coffeeshop.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queue entry as served by /orders/queue and the order create endpoints
+ */
+public record QueueOrderDto(
+        int id,
+        String drinkType,
+        double waitTime,
+        double priority,
+        String reason,
+        String urgency,
+        String customerType,
+        int peopleServedAhead,
+        double estimatedWaitMinutes) {
+
+    public static QueueOrderDto of(Order order, LocalDateTime now) {
+        return new QueueOrderDto(
+                order.getId(),
+                order.getDrinkType().getDisplayName(),
+                Math.round(order.getWaitTime(now) * 10) / 10.0,
+                order.getPriorityScore(),
+                order.getPriorityReason(),
+                order.getUrgency().toString().toLowerCase(),
+                order.getCustomerType().getDisplayName(),
+                order.getPeopleServedAhead(),
+                Math.round(order.getEstimatedWaitMinutes() * 10) / 10.0);
+    }
+}
@@ -0,0 +1,242 @@
+package com.hackathon.coffeeshop.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Per-order drill-down of a rush-hour simulation, backed by the simulation's own arrays
+ * Serialized row by row straight into the response JsonGenerator, so a run with thousands
+ * of orders never materializes a map (or an object) per order. page/top/project return
+ * cheap views over the same arrays (row index list + field mask).
+ */
+public class RushHourOrderDetails implements JsonSerializable {
+
+    public static final List<String> FIELDS = List.of("id", "drink", "prepTime", "customerType",
+            "arrivalMinute", "waitTime", "totalTime", "served", "complaint", "barista", "skippedBy");
+
+    private final DrinkType[] drinks;
+    private final CustomerType[] customerTypes;
+    private final double[] arrivalMinutes;
+    private final double[] waitTimes;
+    private final double[] totalTimes;
+    private final boolean[] served;
+    private final int[] baristas;
+    private final int[] skippedBy;
+    private final String[] baristaNames;
+    private final int[] rows;          // row indices of this view (null = every order in id order)
+    private final boolean[] include;   // per FIELDS entry (null = all)
+
+    public RushHourOrderDetails(DrinkType[] drinks, CustomerType[] customerTypes, double[] arrivalMinutes,
+                                double[] waitTimes, double[] totalTimes, boolean[] served,
+                                int[] baristas, int[] skippedBy, int baristaCount) {
+        this.drinks = drinks;
+        this.customerTypes = customerTypes;
+        this.arrivalMinutes = arrivalMinutes;
+        this.waitTimes = waitTimes;
+        this.totalTimes = totalTimes;
+        this.served = served;
+        this.baristas = baristas;
+        this.skippedBy = skippedBy;
+        this.baristaNames = new String[baristaCount];
+        for (int b = 0; b < baristaCount; b++) {
+            baristaNames[b] = "Barista " + (b + 1);
+        }
+        this.rows = null;
+        this.include = null;
+    }
+
+    private RushHourOrderDetails(RushHourOrderDetails base, int[] rows, boolean[] include) {
+        this.drinks = base.drinks;
+        this.customerTypes = base.customerTypes;
+        this.arrivalMinutes = base.arrivalMinutes;
+        this.waitTimes = base.waitTimes;
+        this.totalTimes = base.totalTimes;
+        this.served = base.served;
+        this.baristas = base.baristas;
+        this.skippedBy = base.skippedBy;
+        this.baristaNames = base.baristaNames;
+        this.rows = rows;
+        this.include = include;
+    }
+
+    /**
+     * Arrival minute of every order in the run, in id order (a copy, for replaying the run)
+     */
+    public double[] getArrivalMinutes() {
+        return arrivalMinutes.clone();
+    }
+
+    public DrinkType[] getDrinks() {
+        return drinks.clone();
+    }
+
+    public CustomerType[] getCustomerTypes() {
+        return customerTypes.clone();
+    }
+
+    public int getBaristaCount() {
+        return baristaNames.length;
+    }
+
+    /**
+     * Orders in the whole run
+     */
+    public int size() {
+        return drinks.length;
+    }
+
+    /**
+     * Rows this view serializes
+     */
+    public int rowCount() {
+        return rows != null ? rows.length : drinks.length;
+    }
+
+    /**
+     * Orders [offset, offset + limit) in id order
+     */
+    public RushHourOrderDetails page(int offset, int limit) {
+        int from = Math.min(drinks.length, Math.max(0, offset));
+        int to = (int) Math.min(drinks.length, (long) from + Math.max(0, limit));
+        int[] page = new int[to - from];
+        for (int i = 0; i < page.length; i++) {
+            page[i] = from + i;
+        }
+        return new RushHourOrderDetails(this, page, include);
+    }
+
+    /**
+     * The k orders with the longest wait, longest first
+     * Partial selection with a bounded min-heap of row indices, O(n log k) instead of a full sort
+     */
+    public RushHourOrderDetails top(int k) {
+        int n = drinks.length;
+        k = Math.max(0, Math.min(k, n));
+        // Negative when row a ranks ahead of row b (longer wait, then lower id)
+        Comparator<Integer> ranking = (a, b) -> {
+            int byWait = Double.compare(waitTimes[b], waitTimes[a]);
+            return byWait != 0 ? byWait : Integer.compare(a, b);
+        };
+        PriorityQueue<Integer> kept = new PriorityQueue<>(Math.max(1, k), ranking.reversed());
+        for (int i = 0; i < n && k > 0; i++) {
+            if (kept.size() < k) {
+                kept.add(i);
+            } else if (ranking.compare(i, kept.peek()) < 0) {
+                kept.poll();
+                kept.add(i);
+            }
+        }
+        List<Integer> selected = new ArrayList<>(kept);
+        selected.sort(ranking);
+        int[] top = new int[selected.size()];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = selected.get(i);
+        }
+        return new RushHourOrderDetails(this, top, include);
+    }
+
+    /**
+     * Restrict serialized fields (null = all)
+     * @throws IllegalArgumentException for an unknown field name
+     */
+    public RushHourOrderDetails project(Set<String> fields) {
+        if (fields == null) {
+            return this;
+        }
+        validateFields(fields);
+        boolean[] mask = new boolean[FIELDS.size()];
+        for (int f = 0; f < mask.length; f++) {
+            mask[f] = fields.contains(FIELDS.get(f));
+        }
+        return new RushHourOrderDetails(this, rows, mask);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a name is not one of FIELDS
+     */
+    public static void validateFields(Set<String> fields) {
+        Set<String> unknown = new LinkedHashSet<>(fields);
+        unknown.removeAll(FIELDS);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown field(s): " + String.join(", ", unknown));
+        }
+    }
+
+    public boolean isComplaint(int i) {
+        return !served[i] || totalTimes[i] > 10.0;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        int count = rowCount();
+        gen.writeStartArray(this, count);
+        for (int r = 0; r < count; r++) {
+            writeRow(gen, rows != null ? rows[r] : r);
+        }
+        gen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private void writeRow(JsonGenerator gen, int i) throws IOException {
+        gen.writeStartObject();
+        if (has(0)) {
+            gen.writeNumberField("id", i + 1);
+        }
+        if (has(1)) {
+            gen.writeStringField("drink", drinks[i].getDisplayName());
+        }
+        if (has(2)) {
+            gen.writeNumberField("prepTime", drinks[i].getPreparationTime());
+        }
+        if (has(3)) {
+            gen.writeStringField("customerType", customerTypes[i].getDisplayName());
+        }
+        if (has(4)) {
+            gen.writeNumberField("arrivalMinute", r2(arrivalMinutes[i]));
+        }
+        if (has(5)) {
+            gen.writeNumberField("waitTime", r2(waitTimes[i]));
+        }
+        if (has(6)) {
+            gen.writeNumberField("totalTime", r2(totalTimes[i]));
+        }
+        if (has(7)) {
+            gen.writeBooleanField("served", served[i]);
+        }
+        if (has(8)) {
+            gen.writeBooleanField("complaint", isComplaint(i));
+        }
+        if (has(9)) {
+            gen.writeStringField("barista", baristas[i] >= 0 ? baristaNames[baristas[i]] : "—");
+        }
+        if (has(10)) {
+            gen.writeNumberField("skippedBy", skippedBy[i]);
+        }
+        gen.writeEndObject();
+    }
+
+    private boolean has(int field) {
+        return include == null || include[field];
+    }
+
+    private static double r2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,214 @@
+package com.hackathon.coffeeshop.logging;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous structured event log for the dispatch loop
+ * Callers only apply sampling / rate limits and copy a few fields into a preallocated
+ * ring slot; a background thread formats each event as one JSON line and writes it to
+ * the "coffee.events" logger. Nothing on the dispatch path formats strings or takes
+ * the stdout lock, and a full ring drops events instead of blocking.
+ */
+@Component
+public class EventLogger {
+
+    private static final Logger log = LoggerFactory.getLogger("coffee.events");
+    private static final long IDLE_PARK_NANOS = 10_000_000L;  // 10 ms
+    private static final EventType[] TYPES = EventType.values();
+
+    private final boolean enabled;
+    private final EventRingBuffer ring;
+    private final int[] sampleEvery = new int[TYPES.length];
+    private final int[] maxPerSecond = new int[TYPES.length];
+
+    // Per-type counters (indexed by ordinal)
+    private final AtomicLongArray seen = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray sampledOut = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray rateLimited = new AtomicLongArray(TYPES.length);
+    private final AtomicLongArray windowSecond = new AtomicLongArray(TYPES.length);
+    private final AtomicIntegerArray windowCount = new AtomicIntegerArray(TYPES.length);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public EventLogger(Environment environment) {
+        this.enabled = environment.getProperty("events.enabled", Boolean.class, true);
+        this.ring = new EventRingBuffer(environment.getProperty("events.buffer-size", Integer.class, 8192));
+        for (EventType type : TYPES) {
+            sampleEvery[type.ordinal()] = Math.max(1, environment.getProperty(
+                    "events.sample-every." + type.name(), Integer.class, type.getDefaultSampleEvery()));
+            maxPerSecond[type.ordinal()] = environment.getProperty(
+                    "events.max-per-second." + type.name(), Integer.class, type.getDefaultMaxPerSecond());
+        }
+
+        this.drainer = new Thread(this::drainLoop, "event-log-drainer");
+        drainer.setDaemon(true);
+        if (enabled) {
+            drainer.start();
+        }
+    }
+
+    public void orderAssigned(String barista, int orderId, DrinkType drink, CustomerType customer,
+                              double priority, int batchSize) {
+        publish(EventType.ORDER_ASSIGNED, barista, orderId, drink, customer, batchSize, priority);
+    }
+
+    public void orderCompleted(String barista, int orderId, DrinkType drink, double waitMinutes) {
+        publish(EventType.ORDER_COMPLETED, barista, orderId, drink, null, 1, waitMinutes);
+    }
+
+    /**
+     * Workload-aware pick; count is +1 for a complex order (underutilized), -1 for a quick one (overloaded)
+     */
+    public void workloadBalanced(String barista, int orderId, int direction, double workloadRatio) {
+        publish(EventType.WORKLOAD_BALANCED, barista, orderId, null, null, direction, workloadRatio);
+    }
+
+    public void orderAbandoned(int orderId, CustomerType customer, double waitMinutes) {
+        publish(EventType.ORDER_ABANDONED, null, orderId, null, customer, 1, waitMinutes);
+    }
+
+    public void poissonArrivals(int arrivals, int minute) {
+        publish(EventType.POISSON_ARRIVALS, null, 0, null, null, arrivals, minute);
+    }
+
+    public void tick(int queueSize, double tickMillis) {
+        publish(EventType.TICK, null, 0, null, null, queueSize, tickMillis);
+    }
+
+    private void publish(EventType type, String actor, int orderId, DrinkType drink,
+                         CustomerType customer, int count, double value) {
+        if (!enabled) {
+            return;
+        }
+        int t = type.ordinal();
+        long n = seen.incrementAndGet(t);
+        if (sampleEvery[t] > 1 && n % sampleEvery[t] != 0) {
+            sampledOut.incrementAndGet(t);
+            return;
+        }
+        if (maxPerSecond[t] > 0 && !withinRateLimit(t)) {
+            rateLimited.incrementAndGet(t);
+            return;
+        }
+        if (!ring.offer(type, actor, orderId, drink, customer, count, value)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Fixed one-second window per type; the window reset is racy, which only makes the limit approximate
+     */
+    private boolean withinRateLimit(int t) {
+        long second = System.currentTimeMillis() / 1000;
+        long window = windowSecond.get(t);
+        if (window != second && windowSecond.compareAndSet(t, window, second)) {
+            windowCount.set(t, 0);
+        }
+        return windowCount.incrementAndGet(t) <= maxPerSecond[t];
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        while (running) {
+            if (drain(line) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain(line);
+    }
+
+    private int drain(StringBuilder line) {
+        int drained = 0;
+        EventRingBuffer.Slot slot;
+        while ((slot = ring.peek()) != null) {
+            line.setLength(0);
+            format(slot, line);
+            ring.release();
+            log.info(line.toString());
+            written.incrementAndGet();
+            drained++;
+        }
+        return drained;
+    }
+
+    private static void format(EventRingBuffer.Slot slot, StringBuilder out) {
+        out.append("{\"type\":\"").append(slot.type.name())
+                .append("\",\"ts\":").append(slot.timestampMillis);
+        if (slot.actor != null) {
+            out.append(",\"barista\":\"").append(slot.actor).append('"');
+        }
+        if (slot.orderId != 0) {
+            out.append(",\"orderId\":").append(slot.orderId);
+        }
+        if (slot.drink != null) {
+            out.append(",\"drink\":\"").append(slot.drink.name()).append('"');
+        }
+        if (slot.customer != null) {
+            out.append(",\"customer\":\"").append(slot.customer.name()).append('"');
+        }
+        switch (slot.type) {
+            case ORDER_ASSIGNED -> out.append(",\"batchSize\":").append(slot.count)
+                    .append(",\"priority\":").append(Math.round(slot.value * 10) / 10.0);
+            case ORDER_COMPLETED, ORDER_ABANDONED -> out.append(",\"waitMinutes\":")
+                    .append(Math.round(slot.value * 10) / 10.0);
+            case WORKLOAD_BALANCED -> out.append(",\"picked\":\"").append(slot.count > 0 ? "complex" : "quick")
+                    .append("\",\"workloadRatio\":").append(Math.round(slot.value * 100) / 100.0);
+            case POISSON_ARRIVALS -> out.append(",\"arrivals\":").append(slot.count)
+                    .append(",\"minute\":").append((int) slot.value);
+            case TICK -> out.append(",\"queueSize\":").append(slot.count)
+                    .append(",\"tickMs\":").append(Math.round(slot.value * 1000) / 1000.0);
+        }
+        out.append('}');
+    }
+
+    /**
+     * Counters for the metrics endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("bufferCapacity", ring.capacity());
+        stats.put("buffered", ring.size());
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+
+        Map<String, Object> byType = new HashMap<>();
+        for (EventType type : TYPES) {
+            int t = type.ordinal();
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("seen", seen.get(t));
+            entry.put("sampledOut", sampledOut.get(t));
+            entry.put("rateLimited", rateLimited.get(t));
+            entry.put("sampleEvery", sampleEvery[t]);
+            entry.put("maxPerSecond", maxPerSecond[t]);
+            byType.put(type.name(), entry);
+        }
+        stats.put("types", byType);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        if (drainer.isAlive()) {
+            drainer.join(1000);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackathon.coffeeshop.logging;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring of fixed-size event slots
+ * Slots are preallocated and overwritten in place; a per-slot sequence number says whether
+ * a slot is free for the producer at position p (seq == p) or ready for the consumer (seq == p + 1).
+ * Producers claim a position with one CAS and never block: when the ring is full the event is dropped.
+ */
+class EventRingBuffer {
+
+    /**
+     * One event: primitives plus references to existing constants, never formatted strings
+     */
+    static final class Slot {
+        EventType type;
+        long timestampMillis;
+        String actor;
+        int orderId;
+        DrinkType drink;
+        CustomerType customer;
+        int count;
+        double value;
+    }
+
+    private final Slot[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();  // next position to claim (producers)
+    private long head;                                 // next position to read (consumer only)
+
+    EventRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an event; false if the ring is full
+     */
+    boolean offer(EventType type, String actor, int orderId, DrinkType drink,
+                  CustomerType customer, int count, double value) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Slot slot = slots[index];
+                    slot.type = type;
+                    slot.timestampMillis = System.currentTimeMillis();
+                    slot.actor = actor;
+                    slot.orderId = orderId;
+                    slot.drink = drink;
+                    slot.customer = customer;
+                    slot.count = count;
+                    slot.value = value;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;  // consumer has not freed this slot yet: full
+            } else {
+                position = tail.get();  // another producer claimed it
+            }
+        }
+    }
+
+    /**
+     * Next published slot, or null; the caller must release() it before polling again
+     */
+    Slot peek() {
+        int index = (int) (head & mask);
+        return sequences.get(index) == head + 1 ? slots[index] : null;
+    }
+
+    void release() {
+        int index = (int) (head & mask);
+        Slot slot = slots[index];
+        slot.actor = null;
+        slot.drink = null;
+        slot.customer = null;
+        sequences.lazySet(index, head + slots.length);
+        head++;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
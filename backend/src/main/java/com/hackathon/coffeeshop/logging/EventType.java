@@ -0,0 +1,31 @@
+package com.hackathon.coffeeshop.logging;
+
+/**
+ * Structured event types emitted by the dispatch loop
+ * Each type carries its default sampling (log 1 in sampleEvery) and per-second rate limit;
+ * both can be overridden with events.sample-every.TYPE / events.max-per-second.TYPE
+ */
+public enum EventType {
+    ORDER_ASSIGNED(1, 200),
+    ORDER_COMPLETED(1, 200),
+    WORKLOAD_BALANCED(1, 50),
+    ORDER_ABANDONED(1, 100),
+    POISSON_ARRIVALS(1, 20),
+    TICK(1, 10);
+
+    private final int defaultSampleEvery;
+    private final int defaultMaxPerSecond;
+
+    EventType(int defaultSampleEvery, int defaultMaxPerSecond) {
+        this.defaultSampleEvery = defaultSampleEvery;
+        this.defaultMaxPerSecond = defaultMaxPerSecond;
+    }
+
+    public int getDefaultSampleEvery() {
+        return defaultSampleEvery;
+    }
+
+    public int getDefaultMaxPerSecond() {
+        return defaultMaxPerSecond;
+    }
+}
@@ -2,18 +2,30 @@ package com.hackathon.coffeeshop.model;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Barista model with workload tracking for load balancing
+ * A task is either a single order or a batch of same-drink orders poured together.
+ * The next task can be reserved while the current one is finishing (look-ahead), so it
+ * starts at the exact moment the current one ends instead of on the next scheduler tick.
+ * In the station pipeline a task is one hands-on stage of an order instead of the whole drink.
  */
 public class Barista {
     private int id;
     private String name;
     private BaristaStatus status;
     private Order currentOrder;
+    private List<Order> currentBatch = Collections.emptyList();
     private LocalDateTime taskStartTime;
     private double totalWorkMinutes;  // For workload calculation
     private int ordersCompleted;
+    private List<Order> reservedBatch = Collections.emptyList();  // next task, starts when this one ends
+    private LocalDateTime idleSince;  // set while free
+    private double idleMinutes;       // completed idle stretches
+    private RecipeStep currentStage;  // pipeline stage in progress (null for a whole-order task)
 
     public Barista(int id, String name) {
         this.id = id;
@@ -24,27 +36,178 @@ public class Barista {
     }
 
     public void assignOrder(Order order, LocalDateTime currentTime) {
-        this.currentOrder = order;
+        assignBatch(List.of(order), currentTime);
+    }
+
+    /**
+     * Take several orders of the same drink as one task
+     * The first order is the one the dispatcher selected; the rest ride along
+     */
+    public void assignBatch(List<Order> orders, LocalDateTime currentTime) {
+        if (idleSince != null) {
+            idleMinutes += Math.max(0, ChronoUnit.SECONDS.between(idleSince, currentTime)) / 60.0;
+            idleSince = null;
+        }
+        this.currentBatch = new ArrayList<>(orders);
+        this.currentOrder = orders.get(0);
         this.status = BaristaStatus.BUSY;
         this.taskStartTime = currentTime;
     }
 
+    /**
+     * Work one hands-on pipeline stage of an order (busy for the stage only)
+     */
+    public void startStage(Order order, RecipeStep stage, LocalDateTime currentTime) {
+        assignBatch(List.of(order), currentTime);
+        this.currentStage = stage;
+    }
+
+    /**
+     * Stage done at its end time: its minutes count as work, and the order counts as
+     * completed by the barista who finished its last stage
+     */
+    public void finishStage(LocalDateTime endTime, boolean orderDone) {
+        if (currentStage != null) {
+            this.totalWorkMinutes += currentStage.minutes();
+            if (orderDone) {
+                this.ordersCompleted++;
+            }
+        }
+        this.currentStage = null;
+        this.currentOrder = null;
+        this.currentBatch = Collections.emptyList();
+        this.status = BaristaStatus.FREE;
+        this.taskStartTime = null;
+        this.idleSince = endTime;
+    }
+
+    public RecipeStep getCurrentStage() {
+        return currentStage;
+    }
+
     public void completeOrder() {
         if (currentOrder != null) {
-            this.totalWorkMinutes += currentOrder.getDrinkType().getPreparationTime();
-            this.ordersCompleted++;
+            this.totalWorkMinutes += getCurrentTaskMinutes();
+            this.ordersCompleted += currentBatch.size();
         }
         this.currentOrder = null;
+        this.currentBatch = Collections.emptyList();
         this.status = BaristaStatus.FREE;
         this.taskStartTime = null;
     }
 
+    /**
+     * Drop the current task without counting it as work done (system reset)
+     */
+    public void releaseTask() {
+        this.currentStage = null;
+        this.currentOrder = null;
+        this.currentBatch = Collections.emptyList();
+        this.status = BaristaStatus.FREE;
+        this.taskStartTime = null;
+        this.idleSince = null;
+    }
+
+    /**
+     * Finish the current task at its scheduled end and start the reserved one right then
+     * Without a reservation the barista is free (and idle) from that moment.
+     * @return the end time of the finished task
+     */
+    public LocalDateTime finishTask() {
+        LocalDateTime endTime = getTaskEndTime();
+        completeOrder();
+        if (!reservedBatch.isEmpty()) {
+            assignBatch(reservedBatch, endTime);
+            reservedBatch = Collections.emptyList();
+        } else {
+            idleSince = endTime;
+        }
+        return endTime;
+    }
+
+    /**
+     * Hold the next task for this barista while the current one is still running
+     */
+    public void reserveBatch(List<Order> orders) {
+        this.reservedBatch = new ArrayList<>(orders);
+    }
+
+    public List<Order> getReservedBatch() {
+        return reservedBatch;
+    }
+
+    public boolean hasReservation() {
+        return !reservedBatch.isEmpty();
+    }
+
+    /**
+     * Drop the reservation (orders handed back to the caller)
+     */
+    public List<Order> clearReservation() {
+        List<Order> released = reservedBatch;
+        reservedBatch = Collections.emptyList();
+        return released;
+    }
+
+    /**
+     * Start idle-time accounting (barista free since the given time)
+     */
+    public void markIdleSince(LocalDateTime time) {
+        if (status == BaristaStatus.FREE) {
+            this.idleSince = time;
+        }
+    }
+
+    /**
+     * Minutes spent free so far, including the current idle stretch
+     */
+    public double getIdleMinutes(LocalDateTime currentTime) {
+        double ongoing = idleSince != null
+                ? Math.max(0, ChronoUnit.SECONDS.between(idleSince, currentTime)) / 60.0
+                : 0.0;
+        return idleMinutes + ongoing;
+    }
+
+    /**
+     * Scheduled end of the current task (null while free)
+     */
+    public LocalDateTime getTaskEndTime() {
+        if (currentOrder == null || taskStartTime == null) {
+            return null;
+        }
+        return taskStartTime.plusSeconds(Math.round(getCurrentTaskMinutes() * 60));
+    }
+    /**
+     * Preparation time of the current task (batched drinks share one combined time)
+     */
+    public double getCurrentTaskMinutes() {
+        if (currentOrder == null) {
+            return 0.0;
+        }
+        if (currentStage != null) {
+            return currentStage.minutes();
+        }
+        return currentOrder.getDrinkType().getBatchPreparationTime(currentBatch.size());
+    }
+
+    /**
+     * Minutes until the given order is ready: its task's remaining time, or for a reserved
+     * order the current task plus its own
+     */
+    public double getTimeRemaining(Order order, LocalDateTime currentTime) {
+        if (reservedBatch.contains(order)) {
+            return getTimeRemaining(currentTime)
+                    + order.getDrinkType().getBatchPreparationTime(reservedBatch.size());
+        }
+        return getTimeRemaining(currentTime);
+    }
+
     public double getTimeRemaining(LocalDateTime currentTime) {
         if (currentOrder == null || taskStartTime == null) {
             return 0.0;
         }
         double elapsedMinutes = ChronoUnit.SECONDS.between(taskStartTime, currentTime) / 60.0;
-        double remaining = currentOrder.getDrinkType().getPreparationTime() - elapsedMinutes;
+        double remaining = getCurrentTaskMinutes() - elapsedMinutes;
         return Math.max(0, remaining);
     }
 
@@ -58,11 +221,11 @@ public class Barista {
     }
 
     public boolean isOverloaded(double averageWorkMinutes) {
-        return getWorkloadRatio(averageWorkMinutes) > 1.2;
+        return getWorkloadRatio(averageWorkMinutes) > ScoringWeights.current().overloadedRatio();
     }
 
     public boolean isUnderutilized(double averageWorkMinutes) {
-        return getWorkloadRatio(averageWorkMinutes) < 0.8;
+        return getWorkloadRatio(averageWorkMinutes) < ScoringWeights.current().underutilizedRatio();
     }
 
     public boolean isFree() {
@@ -86,6 +249,10 @@ public class Barista {
         return currentOrder;
     }
 
+    public List<Order> getCurrentBatch() {
+        return currentBatch;
+    }
+
     public LocalDateTime getTaskStartTime() {
         return taskStartTime;
     }
@@ -0,0 +1,31 @@
+package com.hackathon.coffeeshop.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a completed order, backed either by a live Order or by a record in the
+ * completed-order archive
+ */
+public interface CompletedOrderView {
+
+    int getId();
+
+    DrinkType getDrinkType();
+
+    CustomerType getCustomerType();
+
+    /**
+     * Whole seconds from order to the given time, in minutes
+     */
+    double getWaitTime(LocalDateTime currentTime);
+
+    /**
+     * Minutes from order to completion
+     */
+    double getTotalCompletionTime();
+
+    /**
+     * Took longer than 10 minutes from order to completion
+     */
+    boolean isComplaint();
+}
@@ -1,26 +1,87 @@
 package com.hackathon.coffeeshop.model;
 
+import java.util.List;
+
+import static com.hackathon.coffeeshop.model.RecipeStep.step;
+
 /**
  * Types of coffee drinks with their preparation times and complexity scores
+ * Batch settings: how many same-drink orders a barista can pour at once, and the
+ * marginal cost of each extra cup as a fraction of the single-cup preparation time
+ * (built-in defaults below, overridable per drink at startup, see configureBatching)
+ * Recipe: the stages of the drink for the station pipeline; stage minutes add up to
+ * the preparation time, so both production models do the same work per drink.
  */
 public enum DrinkType {
-    COLD_BREW("Cold Brew", 1.0, 10, "₹120"),
-    ESPRESSO("Espresso", 2.0, 15, "₹150"),
-    AMERICANO("Americano", 2.0, 12, "₹140"),
-    CAPPUCCINO("Cappuccino", 4.0, 20, "₹180"),
-    LATTE("Latte", 4.0, 18, "₹200"),
-    MOCHA("Specialty (Mocha)", 6.0, 25, "₹250");
+    COLD_BREW("Cold Brew", 1.0, 10, "₹120", 4, 0.25,
+            step(Stage.FINISH, 1.0)),
+    ESPRESSO("Espresso", 2.0, 15, "₹150", 2, 0.6,
+            step(Stage.GRIND, 0.5), step(Stage.BREW, 1.0), step(Stage.FINISH, 0.5)),
+    AMERICANO("Americano", 2.0, 12, "₹140", 3, 0.5,
+            step(Stage.GRIND, 0.5), step(Stage.BREW, 1.0), step(Stage.FINISH, 0.5)),
+    CAPPUCCINO("Cappuccino", 4.0, 20, "₹180", 3, 0.5,
+            step(Stage.GRIND, 0.5), step(Stage.BREW, 1.0), step(Stage.STEAM, 2.0), step(Stage.FINISH, 0.5)),
+    LATTE("Latte", 4.0, 18, "₹200", 3, 0.45,
+            step(Stage.GRIND, 0.5), step(Stage.BREW, 1.0), step(Stage.STEAM, 1.5), step(Stage.FINISH, 1.0)),
+    MOCHA("Specialty (Mocha)", 6.0, 25, "₹250", 2, 0.6,
+            step(Stage.GRIND, 0.5), step(Stage.BREW, 1.0), step(Stage.STEAM, 2.0), step(Stage.FINISH, 2.5));
 
     private final String displayName;
     private final double preparationTime; // in minutes
     private final int complexityScore;    // for priority calculation
     private final String price;
+    private final int defaultMaxBatchSize;
+    private final double defaultBatchMarginalFactor;
+    private volatile int maxBatchSize;       // max cups of this drink poured as one task
+    private volatile double batchMarginalFactor; // extra cup cost (fraction of prep time)
+    private final List<RecipeStep> recipe;
+    private final double handsOnTime;         // recipe minutes that need a barista
 
-    DrinkType(String displayName, double preparationTime, int complexityScore, String price) {
+    DrinkType(String displayName, double preparationTime, int complexityScore, String price,
+              int maxBatchSize, double batchMarginalFactor, RecipeStep... recipe) {
         this.displayName = displayName;
         this.preparationTime = preparationTime;
         this.complexityScore = complexityScore;
         this.price = price;
+        this.defaultMaxBatchSize = maxBatchSize;
+        this.defaultBatchMarginalFactor = batchMarginalFactor;
+        this.maxBatchSize = maxBatchSize;
+        this.batchMarginalFactor = batchMarginalFactor;
+        this.recipe = List.of(recipe);
+        double handsOn = 0.0;
+        for (RecipeStep step : recipe) {
+            if (step.stage().isHandsOn()) {
+                handsOn += step.minutes();
+            }
+        }
+        this.handsOnTime = handsOn;
+    }
+
+    /**
+     * Override the batch settings of this drink (null = built-in default); applies to the live
+     * store and to simulations alike
+     * @throws IllegalArgumentException if the size is below 1 or the factor outside [0, 1]
+     */
+    public void configureBatching(Integer maxBatchSize, Double marginalFactor) {
+        int size = maxBatchSize != null ? maxBatchSize : defaultMaxBatchSize;
+        double factor = marginalFactor != null ? marginalFactor : defaultBatchMarginalFactor;
+        if (size < 1) {
+            throw new IllegalArgumentException(name() + " max batch size must be >= 1");
+        }
+        if (!(factor >= 0.0 && factor <= 1.0)) {
+            throw new IllegalArgumentException(name() + " batch marginal factor must be between 0 and 1");
+        }
+        this.maxBatchSize = size;
+        this.batchMarginalFactor = factor;
+    }
+
+    /**
+     * Combined preparation time for a batch of this drink (sub-linear in batch size)
+     * Formula: prep × (1 + (size - 1) × marginalFactor)
+     */
+    public double getBatchPreparationTime(int batchSize) {
+        int size = Math.max(1, Math.min(batchSize, maxBatchSize));
+        return preparationTime * (1.0 + (size - 1) * batchMarginalFactor);
     }
 
     public String getDisplayName() {
@@ -38,4 +99,20 @@ public enum DrinkType {
     public String getPrice() {
         return price;
     }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public double getBatchMarginalFactor() {
+        return batchMarginalFactor;
+    }
+
+    public List<RecipeStep> getRecipe() {
+        return recipe;
+    }
+
+    public double getHandsOnTime() {
+        return handsOnTime;
+    }
 }
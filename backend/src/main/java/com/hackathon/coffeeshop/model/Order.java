@@ -2,12 +2,14 @@ package com.hackathon.coffeeshop.model;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
 
 /**
  * Core Order model with weighted priority calculation and fairness tracking
  * Priority formula: (wait_time × 40%) + (complexity × 25%) + (loyalty × 10%) + (urgency × 25%)
+ * (the live weights are ScoringWeights.current(); the percentages above are the defaults)
  */
-public class Order {
+public class Order implements CompletedOrderView {
     private static int orderCounter = 100;
     
     private int id;
@@ -17,19 +19,13 @@ public class Order {
     private double priorityScore;
     private String priorityReason;
     private Urgency urgency;
-    private int peopleServedAhead;  // Fairness tracking
+    private int peopleServedAhead;  // Fairness tracking (kept in sync by QueueService)
+    private int arrivalRank = -1;   // Position in the queue's arrival order
     private double estimatedWaitMinutes;
     private LocalDateTime completionTime;  // Track when order was completed
-
-    public Order(DrinkType drinkType) {
-        this.id = ++orderCounter;
-        this.drinkType = drinkType;
-        this.customerType = assignRandomCustomerType();
-        this.orderTime = LocalDateTime.now();
-        this.urgency = Urgency.NORMAL;
-        this.peopleServedAhead = 0;
-        recalculatePriority(LocalDateTime.now());
-    }
+    private LocalDateTime abandonedTime;   // Set when the customer walked out
+    private String barista;                // Who prepared it (last hands-on barista in the pipeline)
+    private OrderStatus status = OrderStatus.QUEUED;
 
     public Order(DrinkType drinkType, CustomerType customerType) {
         this.id = ++orderCounter;
@@ -46,35 +42,38 @@ public class Order {
      * Formula: (wait_time × 40%) + (complexity × 25%) + (loyalty × 10%) + (urgency × 25%)
      */
     public void recalculatePriority(LocalDateTime currentTime) {
+        ScoringWeights weights = ScoringWeights.current();
         double waitTimeMinutes = getWaitTime(currentTime);
-        double timeoutThreshold = customerType.getTimeoutMinutes();
+        describePriority(waitTimeMinutes, weights);
         
-        // 1. Wait Time Component (40% weight)
-        // Scale: 0-10 minutes → 0-40 points
-        double waitTimeScore = Math.min((waitTimeMinutes / 10.0) * 40.0, 40.0);
-        
-        // 2. Complexity Component (25% weight)
-        // Inverse: shorter orders get higher score for throughput
-        double maxPrepTime = 6.0; // Mocha is longest
-        double complexityScore = ((maxPrepTime - drinkType.getPreparationTime()) / maxPrepTime) * 25.0;
-        
-        // 3. Loyalty Component (10% weight)
-        double loyaltyScore = (customerType.getLoyaltyBonus() / 10.0) * 10.0;
-        
-        // 4. Urgency Component (25% weight)
-        double urgencyScore = 0.0;
-        double urgencyThreshold = timeoutThreshold - 2.0; // Start urgency 2 min before timeout
+        // Total Priority Score (0-100 scale)
+        this.priorityScore = Math.max(0, Math.min(100, 
+                rawPriorityScore(waitTimeMinutes, drinkType, customerType, peopleServedAhead, weights)));
+    }
+
+    /**
+     * Take a score computed in bulk at the given time (QueueColumns, same formula and clamp);
+     * only the urgency level and explanation are derived here
+     */
+    public void applyPriorityScore(double priorityScore, LocalDateTime scoredAt) {
+        describePriority(getWaitTime(scoredAt), ScoringWeights.current());
+        this.priorityScore = priorityScore;
+    }
+
+    /**
+     * Urgency level and explanation (score components live in rawPriorityScore)
+     */
+    private void describePriority(double waitTimeMinutes, ScoringWeights weights) {
+        double timeoutThreshold = customerType.getTimeoutMinutes();
+        double urgencyThreshold = timeoutThreshold - weights.urgencyRampMinutes(); // Urgency ramps up before the timeout
         
         if (waitTimeMinutes >= timeoutThreshold) {
             // CRITICAL: Exceeded timeout
-            urgencyScore = 25.0;
             this.urgency = Urgency.URGENT;
             this.priorityReason = String.format("🚨 CRITICAL - Exceeded %s timeout (%.1f min)", 
                     customerType.getDisplayName(), timeoutThreshold);
         } else if (waitTimeMinutes >= urgencyThreshold) {
             // ELEVATED: Approaching timeout
-            double urgencyRatio = (waitTimeMinutes - urgencyThreshold) / 2.0;
-            urgencyScore = urgencyRatio * 25.0;
             this.urgency = Urgency.ELEVATED;
             this.priorityReason = String.format("⚠️ Approaching timeout - %.1f min remaining", 
                     timeoutThreshold - waitTimeMinutes);
@@ -84,17 +83,56 @@ public class Order {
             this.priorityReason = determineNormalReason(waitTimeMinutes);
         }
         
-        // 5. Fairness Penalty
-        // If >3 people have been served ahead, add penalty (reduce priority)
-        double fairnessPenalty = 0.0;
-        if (peopleServedAhead > 3) {
-            fairnessPenalty = (peopleServedAhead - 3) * 2.0;  // -2 points per extra skip
+        if (peopleServedAhead > weights.fairnessThreshold()) {
             this.priorityReason += String.format(" | Fairness: %d skipped", peopleServedAhead);
         }
+    }
+
+    /**
+     * Unclamped weighted priority score with the live weights
+     */
+    public static double rawPriorityScore(double waitTimeMinutes, DrinkType drinkType,
+                                          CustomerType customerType, int peopleServedAhead) {
+        return rawPriorityScore(waitTimeMinutes, drinkType, customerType, peopleServedAhead,
+                ScoringWeights.current());
+    }
+
+    /**
+     * Unclamped weighted priority score, shared by the live queue and the simulator
+     * Formula: (wait_time × 40%) + (complexity × 25%) + (loyalty × 10%) + (urgency × 25%) - fairness
+     * Written with min/max rather than branches so QueueColumns can run the same arithmetic
+     * as a vectorizable loop
+     */
+    public static double rawPriorityScore(double waitTimeMinutes, DrinkType drinkType,
+                                          CustomerType customerType, int peopleServedAhead,
+                                          ScoringWeights weights) {
+        double timeoutThreshold = customerType.getTimeoutMinutes();
         
-        // Total Priority Score (0-100 scale)
-        this.priorityScore = Math.max(0, Math.min(100, 
-                waitTimeScore + complexityScore + loyaltyScore + urgencyScore - fairnessPenalty));
+        // 1. Wait Time Component (40% weight)
+        // Scale: 0-10 minutes → 0-40 points
+        double waitTimeScore = Math.min((waitTimeMinutes / 10.0) * weights.waitWeight(), weights.waitWeight());
+        
+        // 2. Complexity Component (25% weight)
+        // Inverse: shorter orders get higher score for throughput
+        double maxPrepTime = 6.0; // Mocha is longest
+        double complexityScore = ((maxPrepTime - drinkType.getPreparationTime()) / maxPrepTime) * weights.complexityWeight();
+        
+        // 3. Loyalty Component (10% weight)
+        double loyaltyScore = (customerType.getLoyaltyBonus() / 10.0) * weights.loyaltyWeight();
+        
+        // 4. Urgency Component (25% weight)
+        // Ramps 0 → full over the ramp minutes before the timeout, full past it
+        double ramp = weights.urgencyRampMinutes();
+        double urgencyThreshold = timeoutThreshold - ramp; // Start urgency ramp minutes before timeout
+        double urgencyScore = Math.min(Math.max((waitTimeMinutes - urgencyThreshold) / ramp, 0.0), 1.0)
+                * weights.urgencyWeight();
+        
+        // 5. Fairness Penalty
+        // If more than the threshold have been served ahead, add penalty (reduce priority)
+        double fairnessPenalty = Math.max(0, peopleServedAhead - weights.fairnessThreshold())
+                * weights.fairnessPenalty();
+        
+        return waitTimeScore + complexityScore + loyaltyScore + urgencyScore - fairnessPenalty;
     }
 
     private String determineNormalReason(double waitTime) {
@@ -109,9 +147,12 @@ public class Order {
         }
     }
 
-    private CustomerType assignRandomCustomerType() {
+    /**
+     * Customer type of a walk-in order, drawn from the caller's stream
+     */
+    public static CustomerType randomCustomerType(SplittableRandom rng) {
         // Distribution: 20% Gold, 60% Regular, 20% New
-        double random = Math.random();
+        double random = rng.nextDouble();
         if (random < 0.2) return CustomerType.GOLD;
         if (random < 0.8) return CustomerType.REGULAR;
         return CustomerType.NEW;
@@ -121,13 +162,19 @@ public class Order {
         return ChronoUnit.SECONDS.between(orderTime, currentTime) / 60.0;
     }
 
-    public void incrementPeopleServedAhead() {
-        this.peopleServedAhead++;
+    /**
+     * Later arrivals served before this order (derived by QueueService from its dispatch ranks)
+     */
+    public void setPeopleServedAhead(int peopleServedAhead) {
+        this.peopleServedAhead = peopleServedAhead;
     }
 
+    /**
+     * Inside the urgency ramp of the live weights (the last urgencyRampMinutes before the timeout)
+     */
     public boolean isApproachingTimeout(LocalDateTime currentTime) {
         double waitTime = getWaitTime(currentTime);
-        return waitTime >= (customerType.getTimeoutMinutes() - 2.0);
+        return waitTime >= (customerType.getTimeoutMinutes() - ScoringWeights.current().urgencyRampMinutes());
     }
 
     public boolean hasExceededTimeout(LocalDateTime currentTime) {
@@ -143,6 +190,21 @@ public class Order {
         return drinkType;
     }
 
+    /**
+     * Swap the drink of a still-queued order (queue must be repositioned by the caller)
+     */
+    public void setDrinkType(DrinkType drinkType) {
+        this.drinkType = drinkType;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+
     public CustomerType getCustomerType() {
         return customerType;
     }
@@ -167,6 +229,14 @@ public class Order {
         return peopleServedAhead;
     }
 
+    public int getArrivalRank() {
+        return arrivalRank;
+    }
+
+    public void setArrivalRank(int arrivalRank) {
+        this.arrivalRank = arrivalRank;
+    }
+
     public double getEstimatedWaitMinutes() {
         return estimatedWaitMinutes;
     }
@@ -187,6 +257,22 @@ public class Order {
         this.completionTime = completionTime;
     }
 
+    public LocalDateTime getAbandonedTime() {
+        return abandonedTime;
+    }
+
+    public void setAbandonedTime(LocalDateTime abandonedTime) {
+        this.abandonedTime = abandonedTime;
+    }
+
+    public String getBarista() {
+        return barista;
+    }
+
+    public void setBarista(String barista) {
+        this.barista = barista;
+    }
+
     public void setOrderTime(LocalDateTime orderTime) {
         this.orderTime = orderTime;
     }
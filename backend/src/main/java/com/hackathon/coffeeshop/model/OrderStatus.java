@@ -0,0 +1,12 @@
+package com.hackathon.coffeeshop.model;
+
+/**
+ * Lifecycle state of an order
+ */
+public enum OrderStatus {
+    QUEUED,       // Waiting in the queue
+    IN_PROGRESS,  // Assigned to a barista
+    COMPLETED,    // Handed to the customer
+    ABANDONED,    // Customer left after their timeout
+    CANCELLED     // Cancelled by the customer before preparation
+}
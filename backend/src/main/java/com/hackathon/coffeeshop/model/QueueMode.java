@@ -1,9 +0,0 @@
-package com.hackathon.coffeeshop.model;
-
-/**
- * Queue management modes
- */
-public enum QueueMode {
-    FIFO,   // First-In-First-Out (traditional)
-    SMART   // Intelligent priority-based
-}
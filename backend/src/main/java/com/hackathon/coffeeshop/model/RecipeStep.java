@@ -0,0 +1,11 @@
+package com.hackathon.coffeeshop.model;
+
+/**
+ * One stage of a drink recipe and how long it takes
+ */
+public record RecipeStep(Stage stage, double minutes) {
+
+    public static RecipeStep step(Stage stage, double minutes) {
+        return new RecipeStep(stage, minutes);
+    }
+}
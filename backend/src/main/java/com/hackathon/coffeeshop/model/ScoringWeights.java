@@ -0,0 +1,110 @@
+package com.hackathon.coffeeshop.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tunable parameters of the SMART priority score and workload balancing
+ * waitWeight / complexityWeight / loyaltyWeight / urgencyWeight: points each component
+ *   contributes at its maximum
+ * urgencyRampMinutes: urgency ramps from 0 to full over this many minutes before the timeout
+ * fairnessThreshold / fairnessPenalty: points lost per later arrival served ahead beyond the threshold
+ * overloadedRatio / underutilizedRatio: workload ratios at which a barista prefers quick / complex orders
+ * The live engine reads the installed instance (current()); install() swaps it atomically,
+ * and simulations can score with any instance without touching the live one.
+ */
+public record ScoringWeights(double waitWeight, double complexityWeight, double loyaltyWeight, double urgencyWeight,
+                             double urgencyRampMinutes, int fairnessThreshold, double fairnessPenalty,
+                             double overloadedRatio, double underutilizedRatio) {
+
+    /**
+     * The original specification: 40/25/10/25, 2-minute ramp, -2 per skip beyond 3, 1.2x / 0.8x
+     */
+    public static final ScoringWeights DEFAULT = new ScoringWeights(40.0, 25.0, 10.0, 25.0,
+            2.0, 3, 2.0, 1.2, 0.8);
+
+    private static final AtomicReference<ScoringWeights> CURRENT = new AtomicReference<>(DEFAULT);
+
+    /**
+     * @throws IllegalArgumentException naming the first out-of-range parameter
+     */
+    public ScoringWeights {
+        checkRange("waitWeight", waitWeight, 0, 100);
+        checkRange("complexityWeight", complexityWeight, 0, 100);
+        checkRange("loyaltyWeight", loyaltyWeight, 0, 100);
+        checkRange("urgencyWeight", urgencyWeight, 0, 100);
+        if (!(urgencyRampMinutes > 0) || urgencyRampMinutes > 8) {
+            throw new IllegalArgumentException("urgencyRampMinutes must be > 0 and <= 8");
+        }
+        checkRange("fairnessThreshold", fairnessThreshold, 0, 20);
+        checkRange("fairnessPenalty", fairnessPenalty, 0, 20);  // never negative: SMART relies on scores only falling
+        checkRange("overloadedRatio", overloadedRatio, 1, 3);
+        checkRange("underutilizedRatio", underutilizedRatio, 0, 1);
+    }
+
+    private static void checkRange(String name, double value, double min, double max) {
+        if (!(value >= min && value <= max)) {
+            throw new IllegalArgumentException(String.format("%s must be between %s and %s", name,
+                    stripZero(min), stripZero(max)));
+        }
+    }
+
+    private static String stripZero(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    /**
+     * Weights the live engine scores with
+     */
+    public static ScoringWeights current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Hot-swap the live weights (QueueService.applyScoringWeights also re-scores the queue)
+     * @return the weights that were replaced
+     */
+    public static ScoringWeights install(ScoringWeights weights) {
+        return CURRENT.getAndSet(weights);
+    }
+
+    /**
+     * These weights with the given entries replaced (missing keys keep their value)
+     * @throws IllegalArgumentException for unknown keys, non-numbers or out-of-range values
+     */
+    public ScoringWeights with(Map<String, ?> changes) {
+        Map<String, Object> merged = new LinkedHashMap<>(toMap());
+        for (Map.Entry<String, ?> entry : changes.entrySet()) {
+            if (!merged.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Unknown weight: " + entry.getKey());
+            }
+            if (!(entry.getValue() instanceof Number)) {
+                throw new IllegalArgumentException(entry.getKey() + " must be a number");
+            }
+            merged.put(entry.getKey(), entry.getValue());
+        }
+        return new ScoringWeights(number(merged, "waitWeight"), number(merged, "complexityWeight"),
+                number(merged, "loyaltyWeight"), number(merged, "urgencyWeight"), number(merged, "urgencyRampMinutes"),
+                (int) Math.round(number(merged, "fairnessThreshold")), number(merged, "fairnessPenalty"),
+                number(merged, "overloadedRatio"), number(merged, "underutilizedRatio"));
+    }
+
+    private static double number(Map<String, Object> values, String key) {
+        return ((Number) values.get(key)).doubleValue();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("waitWeight", waitWeight);
+        map.put("complexityWeight", complexityWeight);
+        map.put("loyaltyWeight", loyaltyWeight);
+        map.put("urgencyWeight", urgencyWeight);
+        map.put("urgencyRampMinutes", urgencyRampMinutes);
+        map.put("fairnessThreshold", fairnessThreshold);
+        map.put("fairnessPenalty", fairnessPenalty);
+        map.put("overloadedRatio", overloadedRatio);
+        map.put("underutilizedRatio", underutilizedRatio);
+        return map;
+    }
+}
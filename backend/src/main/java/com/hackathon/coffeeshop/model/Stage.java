@@ -0,0 +1,38 @@
+package com.hackathon.coffeeshop.model;
+
+/**
+ * Production stages of a drink
+ * A stage holds one unit of its station (if it has one) and, when hands-on, a barista.
+ * Brewing is unattended: the machine pulls the shot while the barista moves on.
+ */
+public enum Stage {
+    GRIND("Grind", Station.GRINDER, true),
+    BREW("Brew", Station.ESPRESSO_MACHINE, false),
+    STEAM("Steam", Station.STEAM_WAND, true),
+    FINISH("Finish", null, true);   // pour, assemble and hand off at the counter
+
+    private final String displayName;
+    private final Station station;
+    private final boolean handsOn;
+
+    Stage(String displayName, Station station, boolean handsOn) {
+        this.displayName = displayName;
+        this.station = station;
+        this.handsOn = handsOn;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Station the stage occupies (null when it needs only a barista)
+     */
+    public Station getStation() {
+        return station;
+    }
+
+    public boolean isHandsOn() {
+        return handsOn;
+    }
+}
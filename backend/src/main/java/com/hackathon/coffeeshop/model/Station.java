@@ -0,0 +1,28 @@
+package com.hackathon.coffeeshop.model;
+
+/**
+ * Shared equipment a drink stage runs on
+ * Each station is a pool of identical units; the default counts are for a three-barista
+ * bar and can be overridden per station (pipeline.stations.<STATION>).
+ */
+public enum Station {
+    GRINDER("Grinder", 1),
+    ESPRESSO_MACHINE("Espresso Machine", 2),  // group heads
+    STEAM_WAND("Steam Wand", 2);
+
+    private final String displayName;
+    private final int defaultCapacity;
+
+    Station(String displayName, int defaultCapacity) {
+        this.displayName = displayName;
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+}
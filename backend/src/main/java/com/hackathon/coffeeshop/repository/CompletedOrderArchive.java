@@ -0,0 +1,236 @@
+package com.hackathon.coffeeshop.repository;
+
+import com.hackathon.coffeeshop.model.CompletedOrderView;
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import com.hackathon.coffeeshop.model.Order;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Spill area for completed orders that left the in-heap hot window (archive.hot-window)
+ * Each order becomes one 32-byte record in a memory-mapped file, appended in completion order:
+ * <pre>
+ *   0  int   order id
+ *   4  byte  drink ordinal
+ *   5  byte  customer type ordinal
+ *   8  long  order time, epoch second
+ *  16  int   order time, nanos
+ *  20  int   completion time, nanos
+ *  24  long  completion time, epoch second
+ * </pre>
+ * The file is mapped in fixed segments (archive.segment-records) as it grows, so the heap holds
+ * only the segment handles; the page cache holds the data. Scans walk the records in order
+ * through one reused view, so all-time analytics allocate nothing per record. The archive
+ * covers the live store since startup or the last reset (the file is truncated on both);
+ * durable history is the job of OrderHistoryRepository. Callers serialize access (QueueService).
+ */
+@Repository
+public class CompletedOrderArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(CompletedOrderArchive.class);
+
+    static final int RECORD_BYTES = 32;
+    private static final DrinkType[] DRINKS = DrinkType.values();
+    private static final CustomerType[] CUSTOMER_TYPES = CustomerType.values();
+
+    private final int hotWindow;
+    private final int segmentRecords;
+    private final Path path;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long size = 0;
+
+    public CompletedOrderArchive(Environment environment, MeterRegistry meterRegistry) {
+        this.hotWindow = Math.max(1, environment.getProperty("archive.hot-window", Integer.class, 10_000));
+        this.segmentRecords = Math.max(1, environment.getProperty("archive.segment-records", Integer.class, 1 << 18));
+        this.path = Path.of(environment.getProperty("archive.path", "./data/completed-orders.bin"));
+        this.channel = open(path);
+        Gauge.builder("coffee.archive.orders", this, CompletedOrderArchive::size)
+                .description("Completed orders spilled to the mapped archive")
+                .register(meterRegistry);
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Completed-order archive unavailable at {} ({}); completed orders stay on-heap",
+                    path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether orders past the hot window can be spilled (the archive file could be opened)
+     */
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    /**
+     * Completed orders kept on-heap before the oldest spill here
+     */
+    public int getHotWindow() {
+        return hotWindow;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Append a completed order as one record
+     * @throws IllegalStateException if the file cannot grow (disk full, mapping failed)
+     */
+    public synchronized void append(Order order) {
+        MappedByteBuffer segment = segmentFor(size);
+        int offset = (int) (size % segmentRecords) * RECORD_BYTES;
+        LocalDateTime orderTime = order.getOrderTime();
+        LocalDateTime completionTime = order.getCompletionTime();
+        segment.putInt(offset, order.getId());
+        segment.put(offset + 4, (byte) order.getDrinkType().ordinal());
+        segment.put(offset + 5, (byte) order.getCustomerType().ordinal());
+        segment.putLong(offset + 8, orderTime.toEpochSecond(ZoneOffset.UTC));
+        segment.putInt(offset + 16, orderTime.getNano());
+        segment.putInt(offset + 20, completionTime.getNano());
+        segment.putLong(offset + 24, completionTime.toEpochSecond(ZoneOffset.UTC));
+        size++;
+    }
+
+    private MappedByteBuffer segmentFor(long record) {
+        int index = (int) (record / segmentRecords);
+        while (segments.size() <= index) {
+            long bytes = (long) segmentRecords * RECORD_BYTES;
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * bytes, bytes));
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot grow completed-order archive: " + e.getMessage(), e);
+            }
+        }
+        return segments.get(index);
+    }
+
+    /**
+     * Visit records from the given index to the end, oldest first
+     * The view is reused between calls to the consumer; copy what has to outlive the call.
+     */
+    public synchronized void scan(long from, Consumer<CompletedOrderView> consumer) {
+        ArchivedOrder view = new ArchivedOrder();
+        for (long record = Math.max(0, from); record < size; record++) {
+            MappedByteBuffer segment = segments.get((int) (record / segmentRecords));
+            view.load(segment, (int) (record % segmentRecords) * RECORD_BYTES);
+            consumer.accept(view);
+        }
+    }
+
+    /**
+     * Forget every record (system reset); mapped segments are reused
+     */
+    public synchronized void clear() {
+        size = 0;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("hotWindow", hotWindow);
+        stats.put("archivedOrders", size);
+        stats.put("mappedBytes", (long) segments.size() * segmentRecords * RECORD_BYTES);
+        stats.put("path", path.toString());
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        segments.clear();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Flyweight over one archive record
+     */
+    private static final class ArchivedOrder implements CompletedOrderView {
+        private int id;
+        private DrinkType drinkType;
+        private CustomerType customerType;
+        private long orderSecond;
+        private int orderNano;
+        private long completionSecond;
+        private int completionNano;
+
+        void load(MappedByteBuffer segment, int offset) {
+            id = segment.getInt(offset);
+            drinkType = DRINKS[segment.get(offset + 4)];
+            customerType = CUSTOMER_TYPES[segment.get(offset + 5)];
+            orderSecond = segment.getLong(offset + 8);
+            orderNano = segment.getInt(offset + 16);
+            completionNano = segment.getInt(offset + 20);
+            completionSecond = segment.getLong(offset + 24);
+        }
+
+        /**
+         * Whole seconds between two instants, truncated toward zero like ChronoUnit.SECONDS.between
+         */
+        private static long secondsBetween(long fromSecond, int fromNano, long toSecond, int toNano) {
+            return ((toSecond - fromSecond) * 1_000_000_000L + (toNano - fromNano)) / 1_000_000_000L;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public DrinkType getDrinkType() {
+            return drinkType;
+        }
+
+        @Override
+        public CustomerType getCustomerType() {
+            return customerType;
+        }
+
+        @Override
+        public double getWaitTime(LocalDateTime currentTime) {
+            return secondsBetween(orderSecond, orderNano,
+                    currentTime.toEpochSecond(ZoneOffset.UTC), currentTime.getNano()) / 60.0;
+        }
+
+        @Override
+        public double getTotalCompletionTime() {
+            return secondsBetween(orderSecond, orderNano, completionSecond, completionNano) / 60.0;
+        }
+
+        @Override
+        public boolean isComplaint() {
+            return getTotalCompletionTime() > 10.0;
+        }
+    }
+}
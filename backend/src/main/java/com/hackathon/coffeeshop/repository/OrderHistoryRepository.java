@@ -0,0 +1,433 @@
+package com.hackathon.coffeeshop.repository;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional order history in an embedded H2 file database (persistence.enabled)
+ * Completed orders and barista stat snapshots go into a bounded queue, and one background
+ * thread writes them in batched inserts (one transaction per batch). The engine only copies
+ * a few fields and never waits on disk; a full queue drops the row and counts it instead of
+ * blocking. History queries hit the indexed tables, never the in-memory completed list, so
+ * they span restarts and days.
+ */
+@Repository
+public class OrderHistoryRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderHistoryRepository.class);
+    private static final long POLL_MILLIS = 200;
+
+    private static final String[] SCHEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS completed_orders (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                order_id INT NOT NULL,
+                drink VARCHAR(32) NOT NULL,
+                customer_type VARCHAR(32) NOT NULL,
+                barista VARCHAR(64),
+                order_time TIMESTAMP NOT NULL,
+                completion_time TIMESTAMP NOT NULL,
+                wait_minutes DOUBLE NOT NULL,
+                timed_out BOOLEAN NOT NULL
+            )""",
+            "CREATE INDEX IF NOT EXISTS idx_orders_completion_time ON completed_orders(completion_time)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_drink ON completed_orders(drink, completion_time)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_customer_type ON completed_orders(customer_type, completion_time)",
+            "CREATE INDEX IF NOT EXISTS idx_orders_barista ON completed_orders(barista, completion_time)",
+            """
+            CREATE TABLE IF NOT EXISTS barista_stats (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                recorded_at TIMESTAMP NOT NULL,
+                barista VARCHAR(64) NOT NULL,
+                orders_completed INT NOT NULL,
+                total_work_minutes DOUBLE NOT NULL,
+                idle_minutes DOUBLE NOT NULL
+            )""",
+            "CREATE INDEX IF NOT EXISTS idx_barista_stats_barista ON barista_stats(barista, recorded_at)"
+    };
+
+    private static final String INSERT_ORDER = "INSERT INTO completed_orders (order_id, drink, customer_type, "
+            + "barista, order_time, completion_time, wait_minutes, timed_out) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BARISTA_STATS = "INSERT INTO barista_stats (recorded_at, barista, "
+            + "orders_completed, total_work_minutes, idle_minutes) VALUES (?, ?, ?, ?, ?)";
+
+    // Grouping keys for summaries (whitelisted column expressions, never user text)
+    private static final Map<String, String> GROUP_COLUMNS = Map.of(
+            "day", "CAST(completion_time AS DATE)",
+            "drink", "drink",
+            "customerType", "customer_type",
+            "barista", "barista");
+
+    /**
+     * One completed order as written to history
+     */
+    public record CompletedOrderRow(int orderId, DrinkType drinkType, CustomerType customerType, String barista,
+                                    LocalDateTime orderTime, LocalDateTime completionTime,
+                                    double waitMinutes, boolean timedOut) {
+    }
+
+    /**
+     * Snapshot of one barista's running totals
+     */
+    public record BaristaStatsRow(LocalDateTime recordedAt, String barista, int ordersCompleted,
+                                  double totalWorkMinutes, double idleMinutes) {
+    }
+
+    private final boolean enabled;
+    private final String url;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final double baristaStatsIntervalMinutes;
+    private final BlockingQueue<Object> pending;
+    private final JdbcConnectionPool pool;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong ordersWritten = new AtomicLong();
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Counter dropped;
+
+    public OrderHistoryRepository(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("persistence.enabled", Boolean.class, false);
+        this.url = environment.getProperty("persistence.url",
+                "jdbc:h2:file:./data/coffee-history;DB_CLOSE_ON_EXIT=FALSE");
+        this.batchSize = Math.max(1, environment.getProperty("persistence.batch-size", Integer.class, 500));
+        this.lingerMillis = Math.max(0, environment.getProperty("persistence.linger-ms", Long.class, 250L));
+        this.baristaStatsIntervalMinutes = environment.getProperty(
+                "persistence.barista-stats-interval-minutes", Double.class, 15.0);
+        this.pending = new ArrayBlockingQueue<>(Math.max(1,
+                environment.getProperty("persistence.queue-capacity", Integer.class, 10_000)));
+
+        this.dropped = Counter.builder("coffee.history.dropped")
+                .description("History rows dropped because the write queue was full")
+                .register(meterRegistry);
+        Gauge.builder("coffee.history.queue.depth", pending, BlockingQueue::size)
+                .description("History rows waiting to be written")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "order-history-writer");
+        writer.setDaemon(true);
+        if (enabled) {
+            this.pool = JdbcConnectionPool.create(url, "sa", "");
+            createSchema();
+            writer.start();
+        } else {
+            this.pool = null;
+        }
+    }
+
+    private void createSchema() {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot open order history at " + url, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Simulated minutes between barista stat snapshots
+     */
+    public double getBaristaStatsIntervalMinutes() {
+        return baristaStatsIntervalMinutes;
+    }
+
+    /**
+     * Queue a completed order for writing (never blocks; dropped and counted when the queue is full)
+     */
+    public void saveCompletedOrder(CompletedOrderRow row) {
+        enqueue(row);
+    }
+
+    /**
+     * Queue a barista stat snapshot for writing (never blocks)
+     */
+    public void saveBaristaStats(BaristaStatsRow row) {
+        enqueue(row);
+    }
+
+    private void enqueue(Object row) {
+        if (enabled && !pending.offer(row)) {
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                Object first = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Linger briefly so a trickle of completions still lands as one insert batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize && running) {
+                    pending.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Object next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                pending.drainTo(batch, batchSize - batch.size());
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Object> batch) {
+        int orders = 0;
+        int snapshots = 0;
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insertOrder = connection.prepareStatement(INSERT_ORDER);
+                 PreparedStatement insertStats = connection.prepareStatement(INSERT_BARISTA_STATS)) {
+                for (Object row : batch) {
+                    if (row instanceof CompletedOrderRow order) {
+                        insertOrder.setInt(1, order.orderId());
+                        insertOrder.setString(2, order.drinkType().name());
+                        insertOrder.setString(3, order.customerType().name());
+                        insertOrder.setString(4, order.barista());
+                        insertOrder.setTimestamp(5, Timestamp.valueOf(order.orderTime()));
+                        insertOrder.setTimestamp(6, Timestamp.valueOf(order.completionTime()));
+                        insertOrder.setDouble(7, order.waitMinutes());
+                        insertOrder.setBoolean(8, order.timedOut());
+                        insertOrder.addBatch();
+                        orders++;
+                    } else if (row instanceof BaristaStatsRow stats) {
+                        insertStats.setTimestamp(1, Timestamp.valueOf(stats.recordedAt()));
+                        insertStats.setString(2, stats.barista());
+                        insertStats.setInt(3, stats.ordersCompleted());
+                        insertStats.setDouble(4, stats.totalWorkMinutes());
+                        insertStats.setDouble(5, stats.idleMinutes());
+                        insertStats.addBatch();
+                        snapshots++;
+                    }
+                }
+                if (orders > 0) {
+                    insertOrder.executeBatch();
+                }
+                if (snapshots > 0) {
+                    insertStats.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            ordersWritten.addAndGet(orders);
+            snapshotsWritten.addAndGet(snapshots);
+            batches.incrementAndGet();
+        } catch (SQLException e) {
+            failed.addAndGet(batch.size());
+            log.warn("Order history batch of {} rows failed: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Completed orders, newest first, filtered by completion time range, drink, customer type
+     * and barista (null filters are ignored)
+     */
+    public List<Map<String, Object>> findCompletedOrders(LocalDateTime from, LocalDateTime to, DrinkType drink,
+                                                         CustomerType customerType, String barista, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT order_id, drink, customer_type, barista, order_time, "
+                + "completion_time, wait_minutes, timed_out FROM completed_orders WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendRange(sql, params, "completion_time", from, to);
+        if (drink != null) {
+            sql.append(" AND drink = ?");
+            params.add(drink.name());
+        }
+        if (customerType != null) {
+            sql.append(" AND customer_type = ?");
+            params.add(customerType.name());
+        }
+        if (barista != null) {
+            sql.append(" AND barista = ?");
+            params.add(barista);
+        }
+        sql.append(" ORDER BY completion_time DESC LIMIT ?");
+        params.add(limit);
+
+        return query(sql.toString(), params, rs -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("orderId", rs.getInt("order_id"));
+            row.put("drinkType", DrinkType.valueOf(rs.getString("drink")).getDisplayName());
+            row.put("customerType", CustomerType.valueOf(rs.getString("customer_type")).getDisplayName());
+            row.put("barista", rs.getString("barista"));
+            row.put("orderTime", rs.getTimestamp("order_time").toLocalDateTime());
+            row.put("completionTime", rs.getTimestamp("completion_time").toLocalDateTime());
+            row.put("waitMinutes", Math.round(rs.getDouble("wait_minutes") * 10) / 10.0);
+            row.put("timedOut", rs.getBoolean("timed_out"));
+            return row;
+        });
+    }
+
+    /**
+     * Order count, average and max wait, and timeouts per group over a completion time range
+     * @param groupBy day, drink, customerType or barista
+     * @throws IllegalArgumentException for any other grouping
+     */
+    public List<Map<String, Object>> summarize(LocalDateTime from, LocalDateTime to, String groupBy) {
+        String column = GROUP_COLUMNS.get(groupBy);
+        if (column == null) {
+            throw new IllegalArgumentException("groupBy must be one of " + GROUP_COLUMNS.keySet());
+        }
+        StringBuilder sql = new StringBuilder("SELECT " + column + " AS group_key, COUNT(*) AS orders, "
+                + "AVG(wait_minutes) AS avg_wait, MAX(wait_minutes) AS max_wait, "
+                + "SUM(CASE WHEN timed_out THEN 1 ELSE 0 END) AS timeouts FROM completed_orders WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        appendRange(sql, params, "completion_time", from, to);
+        sql.append(" GROUP BY group_key ORDER BY group_key");
+
+        return query(sql.toString(), params, rs -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            Object key = rs.getObject("group_key");
+            row.put(groupBy, key != null ? key.toString() : null);
+            row.put("orders", rs.getLong("orders"));
+            row.put("avgWaitMinutes", Math.round(rs.getDouble("avg_wait") * 100) / 100.0);
+            row.put("maxWaitMinutes", Math.round(rs.getDouble("max_wait") * 10) / 10.0);
+            row.put("timeouts", rs.getLong("timeouts"));
+            return row;
+        });
+    }
+
+    /**
+     * Barista stat snapshots, newest first (null barista = all)
+     */
+    public List<Map<String, Object>> findBaristaStats(String barista, LocalDateTime from, LocalDateTime to,
+                                                      int limit) {
+        StringBuilder sql = new StringBuilder("SELECT recorded_at, barista, orders_completed, total_work_minutes, "
+                + "idle_minutes FROM barista_stats WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (barista != null) {
+            sql.append(" AND barista = ?");
+            params.add(barista);
+        }
+        appendRange(sql, params, "recorded_at", from, to);
+        sql.append(" ORDER BY recorded_at DESC LIMIT ?");
+        params.add(limit);
+
+        return query(sql.toString(), params, rs -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("recordedAt", rs.getTimestamp("recorded_at").toLocalDateTime());
+            row.put("barista", rs.getString("barista"));
+            row.put("ordersCompleted", rs.getInt("orders_completed"));
+            row.put("totalWorkMinutes", Math.round(rs.getDouble("total_work_minutes") * 10) / 10.0);
+            row.put("idleMinutes", Math.round(rs.getDouble("idle_minutes") * 10) / 10.0);
+            return row;
+        });
+    }
+
+    private static void appendRange(StringBuilder sql, List<Object> params, String column,
+                                     LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+        Map<String, Object> map(ResultSet rs) throws SQLException;
+    }
+
+    private List<Map<String, Object>> query(String sql, List<Object> params, RowMapper mapper) {
+        if (!enabled) {
+            throw new IllegalStateException("Order history is disabled (persistence.enabled=false)");
+        }
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            List<Map<String, Object>> rows = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+            return rows;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Order history query failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Counters for the metrics endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", pending.size());
+        stats.put("queueCapacity", pending.size() + pending.remainingCapacity());
+        stats.put("ordersWritten", ordersWritten.get());
+        stats.put("baristaSnapshotsWritten", snapshotsWritten.get());
+        stats.put("batches", batches.get());
+        stats.put("dropped", (long) dropped.count());
+        stats.put("failed", failed.get());
+        return stats;
+    }
+
+    /**
+     * Write out whatever is still queued, then close the database
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer.isAlive()) {
+            writer.join(5000);
+        }
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
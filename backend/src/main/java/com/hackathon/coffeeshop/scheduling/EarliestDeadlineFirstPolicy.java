@@ -0,0 +1,31 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Earliest-Deadline-First: the customer closest to walking out goes first
+ * Deadline = arrival + customer timeout; binary heap keyed on deadline
+ */
+@Component
+public class EarliestDeadlineFirstPolicy implements SchedulingPolicy {
+
+    @Override
+    public String getName() {
+        return "EDF";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Earliest-Deadline-First (arrival + customer timeout)";
+    }
+
+    @Override
+    public <T> PolicyQueue<T> createQueue(JobView<T> view) {
+        Comparator<T> order = Comparator
+                .comparingDouble((T job) -> view.arrivalMinute(job) + view.customerType(job).getTimeoutMinutes())
+                .thenComparingLong(view::sequence);
+        return new HeapPolicyQueue<>(order);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * Set of ranks 0..capacity-1 with O(log n) rank counting (Fenwick tree over a bitset)
+ * Used for fairness tracking over arrival rank: with every dispatched order added at its
+ * rank, "later arrivals served so far" for a waiting order is countAbove(rank) instead of
+ * a pass over the whole queue per dispatch. Ranks are packed 64 to a word and the Fenwick
+ * tree counts whole words, so the tree is 64x smaller than the rank space and stays in cache.
+ */
+public class FenwickTree {
+
+    private final long[] words;
+    private final int[] tree;  // tree[i]: members in the Fenwick range of word i - 1
+    private int size;
+
+    public FenwickTree(int capacity) {
+        this.words = new long[(capacity + 63) >>> 6];
+        this.tree = new int[words.length + 1];
+    }
+
+    public int capacity() {
+        return words.length << 6;
+    }
+
+    /**
+     * Copy of this set with room for at least the given capacity (O(n) rebuild, for growing
+     * a rank space that is not bounded up front)
+     */
+    public FenwickTree withCapacity(int capacity) {
+        FenwickTree copy = new FenwickTree(Math.max(capacity, capacity()));
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        for (int i = 1; i < copy.tree.length; i++) {
+            copy.tree[i] += Long.bitCount(copy.words[i - 1]);
+            int parent = i + (i & -i);
+            if (parent < copy.tree.length) {
+                copy.tree[parent] += copy.tree[i];
+            }
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * @return false if the rank was already present
+     */
+    public boolean add(int rank) {
+        int word = rank >>> 6;
+        long bit = 1L << rank;
+        if ((words[word] & bit) != 0) {
+            return false;
+        }
+        words[word] |= bit;
+        size++;
+        for (int i = word + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the rank was not present
+     */
+    public boolean remove(int rank) {
+        int word = rank >>> 6;
+        long bit = 1L << rank;
+        if ((words[word] & bit) == 0) {
+            return false;
+        }
+        words[word] &= ~bit;
+        size--;
+        for (int i = word + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        return true;
+    }
+
+    public boolean contains(int rank) {
+        return (words[rank >>> 6] & (1L << rank)) != 0;
+    }
+
+    /**
+     * Members at ranks 0..rank (inclusive)
+     */
+    public int countAtOrBelow(int rank) {
+        int word = rank >>> 6;
+        int count = Long.bitCount(words[word] & (-1L >>> (63 - (rank & 63))));
+        for (int i = word; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Members at ranks above rank
+     */
+    public int countAbove(int rank) {
+        return size - countAtOrBelow(rank);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+        Arrays.fill(tree, 0);
+        size = 0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * First-In-First-Out (traditional)
+ * Insertion-ordered hash set: O(1) offer, poll and remove
+ */
+@Component
+public class FifoPolicy implements SchedulingPolicy {
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public String getDescription() {
+        return "First-In-First-Out (arrival order)";
+    }
+
+    @Override
+    public <T> PolicyQueue<T> createQueue(JobView<T> view) {
+        return new FifoQueue<>();
+    }
+
+    private static class FifoQueue<T> implements PolicyQueue<T> {
+        private final LinkedHashSet<T> jobs = new LinkedHashSet<>();
+
+        @Override
+        public void offer(T job) {
+            jobs.add(job);
+        }
+
+        @Override
+        public T poll(double now, WorkloadHint hint) {
+            Iterator<T> it = jobs.iterator();
+            if (!it.hasNext()) {
+                return null;
+            }
+            T next = it.next();
+            it.remove();
+            return next;
+        }
+
+        @Override
+        public boolean remove(T job) {
+            return jobs.remove(job);
+        }
+
+        @Override
+        public boolean reposition(T job) {
+            return jobs.contains(job);  // arrival order is unaffected by job attributes
+        }
+
+        @Override
+        public boolean contains(T job) {
+            return jobs.contains(job);
+        }
+
+        @Override
+        public int size() {
+            return jobs.size();
+        }
+
+        @Override
+        public void clear() {
+            jobs.clear();
+        }
+
+        @Override
+        public List<T> inServiceOrder(double now) {
+            return new ArrayList<>(jobs);
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k) {
+            List<T> top = new ArrayList<>(Math.max(0, Math.min(k, jobs.size())));
+            Iterator<T> it = jobs.iterator();
+            while (top.size() < k && it.hasNext()) {
+                top.add(it.next());
+            }
+            return top;
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k, Predicate<? super T> filter) {
+            List<T> top = new ArrayList<>();
+            Iterator<T> it = jobs.iterator();
+            while (top.size() < k && it.hasNext()) {
+                T job = it.next();
+                if (filter.test(job)) {
+                    top.add(job);
+                }
+            }
+            return top;
+        }
+
+        /**
+         * Walks arrival order up to the job: O(m) for the m jobs ahead
+         */
+        @Override
+        public int forEachAhead(T job, double now, Consumer<? super T> consumer) {
+            if (!jobs.contains(job)) {
+                return -1;
+            }
+            int ahead = 0;
+            for (T other : jobs) {
+                if (other.equals(job)) {
+                    break;
+                }
+                consumer.accept(other);
+                ahead++;
+            }
+            return ahead;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return jobs.iterator();
+        }
+    }
+}
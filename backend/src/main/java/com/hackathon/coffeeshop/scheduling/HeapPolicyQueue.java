@@ -0,0 +1,79 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Binary-heap queue for policies whose ordering key does not change while a job waits
+ * O(log n) offer, poll, remove and reposition (indexed heap)
+ */
+class HeapPolicyQueue<T> implements PolicyQueue<T> {
+    private final IndexedHeap<T> heap;
+
+    HeapPolicyQueue(Comparator<T> order) {
+        this.heap = new IndexedHeap<>(order);
+    }
+
+    @Override
+    public void offer(T job) {
+        heap.offer(job);
+    }
+
+    @Override
+    public T poll(double now, WorkloadHint hint) {
+        return heap.poll();
+    }
+
+    @Override
+    public boolean remove(T job) {
+        return heap.remove(job);
+    }
+
+    @Override
+    public boolean reposition(T job) {
+        return heap.update(job);
+    }
+
+    @Override
+    public boolean contains(T job) {
+        return heap.contains(job);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+
+    @Override
+    public List<T> inServiceOrder(double now) {
+        return heap.sorted();
+    }
+
+    @Override
+    public List<T> topInServiceOrder(double now, int k) {
+        return heap.top(k);
+    }
+
+    @Override
+    public List<T> topInServiceOrder(double now, int k, Predicate<? super T> filter) {
+        return heap.top(k, filter);
+    }
+
+    @Override
+    public int forEachAhead(T job, double now, Consumer<? super T> consumer) {
+        return heap.forEachBefore(job, consumer);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return heap.iterator();
+    }
+}
@@ -0,0 +1,204 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Binary min-heap that remembers where each element sits
+ * O(1) contains, O(log n) offer/poll/remove and O(log n) update after a key change
+ */
+class IndexedHeap<T> implements Iterable<T> {
+    private final Comparator<? super T> order;
+    private final List<T> heap = new ArrayList<>();
+    private final Map<T, Integer> positions = new HashMap<>();
+
+    IndexedHeap(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    void offer(T item) {
+        heap.add(item);
+        positions.put(item, heap.size() - 1);
+        siftUp(heap.size() - 1);
+    }
+
+    T poll() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        T top = heap.get(0);
+        removeAt(0);
+        return top;
+    }
+
+    boolean remove(T item) {
+        Integer index = positions.get(item);
+        if (index == null) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Restore heap order after the item's ordering key changed
+     */
+    boolean update(T item) {
+        Integer index = positions.get(item);
+        if (index == null) {
+            return false;
+        }
+        siftDown(siftUp(index));
+        return true;
+    }
+
+    boolean contains(T item) {
+        return positions.containsKey(item);
+    }
+
+    int size() {
+        return heap.size();
+    }
+
+    void clear() {
+        heap.clear();
+        positions.clear();
+    }
+
+    List<T> sorted() {
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Hand every item ordered before the given one to the consumer: a depth-first walk that
+     * stops at any node not ahead of it (nothing below such a node is), so O(m) for m items ahead
+     * @return how many items are ahead, or -1 if the item is not held
+     */
+    int forEachBefore(T item, Consumer<? super T> consumer) {
+        if (!positions.containsKey(item)) {
+            return -1;
+        }
+        int ahead = 0;
+        int[] pending = new int[16];
+        int top = 0;
+        if (!heap.isEmpty()) {
+            pending[top++] = 0;
+        }
+        while (top > 0) {
+            int index = pending[--top];
+            T candidate = heap.get(index);
+            if (order.compare(candidate, item) >= 0) {
+                continue;
+            }
+            consumer.accept(candidate);
+            ahead++;
+            if (top + 2 > pending.length) {
+                pending = Arrays.copyOf(pending, 2 * pending.length);
+            }
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heap.size(); child++) {
+                pending[top++] = child;
+            }
+        }
+        return ahead;
+    }
+
+    /**
+     * Smallest k items in order, O(k log k): expands the heap from the root with a frontier queue
+     */
+    List<T> top(int k) {
+        return top(k, item -> true);
+    }
+
+    /**
+     * Smallest k items that match the filter, in order; O(m log m) for the m items visited
+     */
+    List<T> top(int k, Predicate<? super T> filter) {
+        List<T> top = new ArrayList<>(Math.max(0, Math.min(k, heap.size())));
+        if (k <= 0 || heap.isEmpty()) {
+            return top;
+        }
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> order.compare(heap.get(a), heap.get(b)));
+        frontier.add(0);
+        while (top.size() < k && !frontier.isEmpty()) {
+            int index = frontier.poll();
+            if (filter.test(heap.get(index))) {
+                top.add(heap.get(index));
+            }
+            int child = 2 * index + 1;
+            if (child < heap.size()) {
+                frontier.add(child);
+            }
+            if (child + 1 < heap.size()) {
+                frontier.add(child + 1);
+            }
+        }
+        return top;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return heap.iterator();
+    }
+
+    private void removeAt(int index) {
+        T removed = heap.get(index);
+        positions.remove(removed);
+        T last = heap.remove(heap.size() - 1);
+        if (index < heap.size()) {
+            heap.set(index, last);
+            positions.put(last, index);
+            siftDown(siftUp(index));
+        }
+    }
+
+    private int siftUp(int index) {
+        T item = heap.get(index);
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            T parentItem = heap.get(parent);
+            if (order.compare(item, parentItem) >= 0) {
+                break;
+            }
+            place(parentItem, index);
+            index = parent;
+        }
+        place(item, index);
+        return index;
+    }
+
+    private void siftDown(int index) {
+        T item = heap.get(index);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap.get(child + 1), heap.get(child)) < 0) {
+                child++;
+            }
+            T childItem = heap.get(child);
+            if (order.compare(childItem, item) >= 0) {
+                break;
+            }
+            place(childItem, index);
+            index = child;
+        }
+        place(item, index);
+    }
+
+    private void place(T item, int index) {
+        heap.set(index, item);
+        positions.put(item, index);
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+
+/**
+ * Read-only view of the scheduling inputs of a job
+ * Lets policies work on live Order objects and on simulator array indices alike
+ */
+public interface JobView<T> {
+
+    /**
+     * Arrival sequence (lower = arrived earlier)
+     */
+    long sequence(T job);
+
+    double arrivalMinute(T job);
+
+    DrinkType drinkType(T job);
+
+    CustomerType customerType(T job);
+
+    /**
+     * Number of later arrivals served ahead of this job (fairness tracking)
+     */
+    int peopleServedAhead(T job);
+
+    default double waitMinutes(T job, double now) {
+        return now - arrivalMinute(job);
+    }
+}
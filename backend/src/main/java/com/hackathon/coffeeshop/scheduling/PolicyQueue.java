@@ -0,0 +1,83 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Queue of waiting jobs ordered by a SchedulingPolicy
+ * Times are in minutes on the caller's clock (same clock as JobView.arrivalMinute)
+ */
+public interface PolicyQueue<T> extends Iterable<T> {
+
+    void offer(T job);
+
+    /**
+     * Remove and return the job the policy serves next (null if empty)
+     */
+    T poll(double now, WorkloadHint hint);
+
+    boolean remove(T job);
+
+    /**
+     * Re-establish the job's place after its attributes changed (e.g. drink swap)
+     */
+    boolean reposition(T job);
+
+    boolean contains(T job);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void clear();
+
+    /**
+     * Snapshot of all waiting jobs in the order the policy would serve them
+     */
+    List<T> inServiceOrder(double now);
+
+    /**
+     * First k jobs of inServiceOrder; implementations select them without sorting the whole queue
+     */
+    default List<T> topInServiceOrder(double now, int k) {
+        List<T> all = inServiceOrder(now);
+        return all.size() <= k ? all : new ArrayList<>(all.subList(0, Math.max(0, k)));
+    }
+
+    /**
+     * Hand every job the policy would serve before this one to the consumer, in no particular
+     * order, without sorting the queue (implementations visit little more than the jobs ahead)
+     * @return how many jobs are ahead (0-based position in inServiceOrder), or -1 if not waiting
+     */
+    default int forEachAhead(T job, double now, Consumer<? super T> consumer) {
+        int ahead = 0;
+        for (T other : inServiceOrder(now)) {
+            if (other.equals(job)) {
+                return ahead;
+            }
+            consumer.accept(other);
+            ahead++;
+        }
+        return -1;
+    }
+
+    /**
+     * First k jobs of inServiceOrder that match the filter (e.g. same-drink batch companions)
+     */
+    default List<T> topInServiceOrder(double now, int k, Predicate<? super T> filter) {
+        List<T> top = new ArrayList<>();
+        for (T job : inServiceOrder(now)) {
+            if (top.size() >= k) {
+                break;
+            }
+            if (filter.test(job)) {
+                top.add(job);
+            }
+        }
+        return top;
+    }
+}
@@ -0,0 +1,270 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.ScoringWeights;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scoring inputs of the waiting orders in parallel primitive arrays (structure of arrays)
+ * One dense slot per item: arrival second, arrival rank, prep minutes, timeout, loyalty bonus
+ * and later arrivals served ahead, plus the score of the last rescore. A bulk rescore is a few
+ * short passes over contiguous doubles with no object loads, branches or allocation: C2 only
+ * unrolls (and so only vectorizes) small loop bodies, so the formula is split into passes
+ * that each stay under the unroll limit, all of one element type, min/max instead of if/else.
+ * The time-independent complexity and loyalty points are kept per slot and only recomputed
+ * when the weights change. Removal moves the last slot into the hole, so the arrays stay dense.
+ * Served-ahead counts are updated in bulk: dispatches are buffered and folded into the
+ * column at the next rescore, one vectorizable pass per dispatch.
+ */
+public class QueueColumns<T> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FOLD_PASSES = 8;  // more buffered dispatches are folded by binary search per slot
+    private static final double MAX_PREP_MINUTES = 6.0;  // Mocha is longest (as in Order)
+
+    private final Map<T, Integer> slots = new HashMap<>();
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private double[] arrivalSecond = new double[INITIAL_CAPACITY];
+    private double[] arrivalRank = new double[INITIAL_CAPACITY];
+    private double[] prepMinutes = new double[INITIAL_CAPACITY];
+    private double[] timeoutMinutes = new double[INITIAL_CAPACITY];
+    private double[] loyaltyBonus = new double[INITIAL_CAPACITY];
+    private double[] servedAhead = new double[INITIAL_CAPACITY];
+    private double[] complexityScore = new double[INITIAL_CAPACITY];  // from prep, with staticWeights
+    private double[] loyaltyScore = new double[INITIAL_CAPACITY];     // from loyalty, with staticWeights
+    private double[] score = new double[INITIAL_CAPACITY];
+    private int[] refreshedGeneration = new int[INITIAL_CAPACITY];  // see claimRefresh
+    private int size;
+    private int generation;
+    private ScoringWeights staticWeights = ScoringWeights.DEFAULT;  // weights of the two static columns
+
+    private int[] pendingDispatches = new int[16];
+    private int pendingCount;
+
+    /**
+     * Add a waiting item; it must be a later arrival than every dispatch so far
+     * (served-ahead starts at 0), and counts as refreshed for the current generation
+     */
+    public void add(T item, long arrivalSecond, int arrivalRank, double prepMinutes,
+                    double timeoutMinutes, double loyaltyBonus) {
+        if (size == items.length) {
+            grow(2 * size);
+        }
+        int slot = size++;
+        slots.put(item, slot);
+        items[slot] = item;
+        this.arrivalSecond[slot] = arrivalSecond;
+        this.arrivalRank[slot] = arrivalRank;
+        this.prepMinutes[slot] = prepMinutes;
+        this.timeoutMinutes[slot] = timeoutMinutes;
+        this.loyaltyBonus[slot] = loyaltyBonus;
+        this.servedAhead[slot] = 0;
+        scoreStatic(slot);
+        this.score[slot] = 0;
+        this.refreshedGeneration[slot] = generation;
+    }
+
+    /**
+     * @return false if the item is not held
+     */
+    public boolean remove(T item) {
+        Integer slot = slots.remove(item);
+        if (slot == null) {
+            return false;
+        }
+        int last = --size;
+        if (slot != last) {
+            @SuppressWarnings("unchecked")
+            T moved = (T) items[last];
+            items[slot] = moved;
+            arrivalSecond[slot] = arrivalSecond[last];
+            arrivalRank[slot] = arrivalRank[last];
+            prepMinutes[slot] = prepMinutes[last];
+            timeoutMinutes[slot] = timeoutMinutes[last];
+            loyaltyBonus[slot] = loyaltyBonus[last];
+            servedAhead[slot] = servedAhead[last];
+            complexityScore[slot] = complexityScore[last];
+            loyaltyScore[slot] = loyaltyScore[last];
+            score[slot] = score[last];
+            refreshedGeneration[slot] = refreshedGeneration[last];
+            slots.put(moved, slot);
+        }
+        items[last] = null;
+        return true;
+    }
+
+    public boolean contains(T item) {
+        return slots.containsKey(item);
+    }
+
+    /**
+     * Change the prep time of a held item (drink swap); its score follows at the next rescore
+     */
+    public void setPrepMinutes(T item, double prepMinutes) {
+        int slot = slots.get(item);
+        this.prepMinutes[slot] = prepMinutes;
+        scoreStatic(slot);
+    }
+
+    private void scoreStatic(int slot) {
+        complexityScore[slot] = ((MAX_PREP_MINUTES - prepMinutes[slot]) / MAX_PREP_MINUTES)
+                * staticWeights.complexityWeight();
+        loyaltyScore[slot] = (loyaltyBonus[slot] / 10.0) * staticWeights.loyaltyWeight();
+    }
+
+    /**
+     * An item was dispatched: every held item that arrived earlier was skipped once more
+     */
+    public void recordDispatch(int arrivalRank) {
+        if (pendingCount == pendingDispatches.length) {
+            pendingDispatches = Arrays.copyOf(pendingDispatches, 2 * pendingCount);
+        }
+        pendingDispatches[pendingCount++] = arrivalRank;
+    }
+
+    /**
+     * Score every held item at the given second with the given weights (same arithmetic as
+     * Order.rawPriorityScore, clamped to 0-100) and start a new refresh generation
+     */
+    public void rescore(long nowSecond, ScoringWeights weights) {
+        foldDispatches();
+        if (!weights.equals(staticWeights)) {
+            rescoreStatic(weights);
+        }
+        int n = size;
+        double now = nowSecond;
+        double waitWeight = weights.waitWeight();
+        double urgencyWeight = weights.urgencyWeight();
+        double ramp = weights.urgencyRampMinutes();
+        double fairnessThreshold = weights.fairnessThreshold();
+        double fairnessPenalty = weights.fairnessPenalty();
+        double[] arrival = arrivalSecond;
+        double[] timeout = timeoutMinutes;
+        double[] served = servedAhead;
+        double[] complexity = complexityScore;
+        double[] loyalty = loyaltyScore;
+        double[] out = score;
+        // waitTimeScore + complexityScore + loyaltyScore + urgencyScore - fairnessPenalty, in that
+        // order; the wait is recomputed per pass, cheaper than a scratch column on a cold cache
+        for (int i = 0; i < n; i++) {
+            out[i] = Math.min((((now - arrival[i]) / 60.0) / 10.0) * waitWeight, waitWeight)
+                    + complexity[i] + loyalty[i];
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] += Math.min(Math.max((((now - arrival[i]) / 60.0) - (timeout[i] - ramp)) / ramp, 0.0), 1.0)
+                    * urgencyWeight;
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = Math.max(0.0, Math.min(100.0,
+                    out[i] - Math.max(0.0, served[i] - fairnessThreshold) * fairnessPenalty));
+        }
+        generation++;
+    }
+
+    /**
+     * Recompute the complexity and loyalty columns for new weights
+     */
+    private void rescoreStatic(ScoringWeights weights) {
+        double complexityWeight = weights.complexityWeight();
+        double loyaltyWeight = weights.loyaltyWeight();
+        double[] prep = prepMinutes;
+        double[] bonus = loyaltyBonus;
+        for (int i = 0; i < size; i++) {
+            complexityScore[i] = ((MAX_PREP_MINUTES - prep[i]) / MAX_PREP_MINUTES) * complexityWeight;
+        }
+        for (int i = 0; i < size; i++) {
+            loyaltyScore[i] = (bonus[i] / 10.0) * loyaltyWeight;
+        }
+        staticWeights = weights;
+    }
+
+    /**
+     * Add the buffered dispatches to the served-ahead column, one pass per dispatch (ranks are
+     * whole numbers, so min(max(d - rank, 0), 1) is 1 exactly for earlier arrivals, else 0)
+     */
+    private void foldDispatches() {
+        if (pendingCount == 0) {
+            return;
+        }
+        double[] rank = arrivalRank;
+        double[] served = servedAhead;
+        int n = size;
+        if (pendingCount <= FOLD_PASSES) {
+            for (int p = 0; p < pendingCount; p++) {
+                double dispatched = pendingDispatches[p];
+                for (int i = 0; i < n; i++) {
+                    served[i] += Math.min(Math.max(dispatched - rank[i], 0.0), 1.0);
+                }
+            }
+        } else {
+            Arrays.sort(pendingDispatches, 0, pendingCount);
+            for (int i = 0; i < n; i++) {
+                int position = Arrays.binarySearch(pendingDispatches, 0, pendingCount, (int) rank[i]);
+                int atOrBelow = position >= 0 ? position + 1 : -position - 1;
+                served[i] += pendingCount - atOrBelow;
+            }
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Score of the item at the last rescore
+     */
+    public double score(T item) {
+        return score[slots.get(item)];
+    }
+
+    /**
+     * Later arrivals dispatched ahead of the item as of the last rescore
+     */
+    public int servedAhead(T item) {
+        return (int) servedAhead[slots.get(item)];
+    }
+
+    /**
+     * True once per rescore generation for each item: lets the caller copy the bulk score
+     * into an item's own fields only when that item is actually read
+     */
+    public boolean claimRefresh(T item) {
+        int slot = slots.get(item);
+        if (refreshedGeneration[slot] == generation) {
+            return false;
+        }
+        refreshedGeneration[slot] = generation;
+        return true;
+    }
+
+    /**
+     * Mark an item as refreshed for the current generation (its fields were just recomputed)
+     */
+    public void markRefreshed(T item) {
+        refreshedGeneration[slots.get(item)] = generation;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        slots.clear();
+        size = 0;
+        pendingCount = 0;
+    }
+
+    private void grow(int capacity) {
+        items = Arrays.copyOf(items, capacity);
+        arrivalSecond = Arrays.copyOf(arrivalSecond, capacity);
+        arrivalRank = Arrays.copyOf(arrivalRank, capacity);
+        prepMinutes = Arrays.copyOf(prepMinutes, capacity);
+        timeoutMinutes = Arrays.copyOf(timeoutMinutes, capacity);
+        loyaltyBonus = Arrays.copyOf(loyaltyBonus, capacity);
+        servedAhead = Arrays.copyOf(servedAhead, capacity);
+        complexityScore = Arrays.copyOf(complexityScore, capacity);
+        loyaltyScore = Arrays.copyOf(loyaltyScore, capacity);
+        score = Arrays.copyOf(score, capacity);
+        refreshedGeneration = Arrays.copyOf(refreshedGeneration, capacity);
+    }
+}
@@ -0,0 +1,63 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.ScoringWeights;
+
+/**
+ * Scheduling policy SPI
+ * Decides which waiting order a free barista takes next. Used by both the live
+ * QueueService and the rush-hour simulator; every policy brings its own queue
+ * data structure. Register a new policy by making it a Spring component.
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Unique policy name used by /simulate/mode (e.g. "SMART", "EDF")
+     */
+    String getName();
+
+    /**
+     * Human-readable summary for API responses
+     */
+    String getDescription();
+
+    /**
+     * Create an empty queue ordered by this policy
+     */
+    <T> PolicyQueue<T> createQueue(JobView<T> view);
+
+    /**
+     * Whether the policy honors the barista workload hint
+     */
+    default boolean isWorkloadAware() {
+        return false;
+    }
+
+    /**
+     * Variant used by the rush-hour simulator (same policy unless it has simulation-only rules)
+     */
+    default SchedulingPolicy simulationVariant() {
+        return this;
+    }
+
+    /**
+     * Variant that scores with fixed weights instead of the live ones (same policy if it has no weights)
+     */
+    default SchedulingPolicy withWeights(ScoringWeights weights) {
+        return this;
+    }
+
+    /**
+     * Weights the policy scores with: the live ones unless fixed by withWeights (a policy
+     * without weights reports the live ones, which still set the simulator's urgency window)
+     */
+    default ScoringWeights weights() {
+        return ScoringWeights.current();
+    }
+
+    /**
+     * Workload hint for a barista at the given ratio of the average workload
+     */
+    default WorkloadHint workloadHint(double workloadRatio) {
+        return WorkloadHint.fromRatio(workloadRatio);
+    }
+}
@@ -0,0 +1,45 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up scheduling policies by name
+ * Every SchedulingPolicy bean in the context is available automatically
+ */
+@Component
+public class SchedulingPolicyRegistry {
+
+    public static final String DEFAULT_POLICY = "SMART";
+
+    private final Map<String, SchedulingPolicy> policies = new LinkedHashMap<>();
+
+    public SchedulingPolicyRegistry(List<SchedulingPolicy> policies) {
+        policies.forEach(policy -> this.policies.put(policy.getName().toUpperCase(), policy));
+    }
+
+    /**
+     * Find a policy by name (case-insensitive)
+     * @throws IllegalArgumentException if no policy has that name
+     */
+    public SchedulingPolicy get(String name) {
+        SchedulingPolicy policy = name == null ? null : policies.get(name.trim().toUpperCase());
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown scheduling policy: " + name
+                    + " (available: " + String.join(", ", policies.keySet()) + ")");
+        }
+        return policy;
+    }
+
+    public SchedulingPolicy getDefault() {
+        return get(DEFAULT_POLICY);
+    }
+
+    public List<SchedulingPolicy> getAll() {
+        return new ArrayList<>(policies.values());
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Shortest-Job-First: quickest drink first, arrival order breaks ties
+ * Maximizes throughput; binary heap keyed on preparation time
+ */
+@Component
+public class ShortestJobFirstPolicy implements SchedulingPolicy {
+
+    @Override
+    public String getName() {
+        return "SJF";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shortest-Job-First (preparation time)";
+    }
+
+    @Override
+    public <T> PolicyQueue<T> createQueue(JobView<T> view) {
+        Comparator<T> order = Comparator
+                .comparingDouble((T job) -> view.drinkType(job).getPreparationTime())
+                .thenComparingLong(view::sequence);
+        return new HeapPolicyQueue<>(order);
+    }
+}
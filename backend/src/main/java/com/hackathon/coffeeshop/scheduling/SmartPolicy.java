@@ -0,0 +1,477 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.DrinkType;
+import com.hackathon.coffeeshop.model.Order;
+import com.hackathon.coffeeshop.model.ScoringWeights;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * SMART weighted priority (40/25/10/25) with fairness penalty and workload balancing
+ * Scores depend on the current time, so there is no static ordering to maintain across
+ * clock values: the queue scores every job once per clock value into reused buffers and
+ * heapifies them. Within one clock value a score can only fall (the fairness penalty grows
+ * as later arrivals are served), so the buffered scores are upper bounds: a poll re-scores
+ * the heap root and sifts it down until the root's score is current, which picks exactly
+ * the job a full rescoring pass would, in O(log n) per dispatch instead of O(n).
+ * Weights come from a supplier (the live ScoringWeights by default); a queue that sees them
+ * change rescores everything before its next pick, since old buffered scores are no bound.
+ */
+@Component
+public class SmartPolicy implements SchedulingPolicy {
+
+    private static final double QUICK_ORDER_MAX_PREP = 3.0;
+    private static final double COMPLEX_ORDER_MIN_PREP = 4.0;
+
+    private final double emergencyBoost;  // bonus after 8 min wait (rush-hour spec)
+    private final Supplier<ScoringWeights> weights;
+
+    public SmartPolicy() {
+        this(0.0, ScoringWeights::current);
+    }
+
+    private SmartPolicy(double emergencyBoost, Supplier<ScoringWeights> weights) {
+        this.emergencyBoost = emergencyBoost;
+        this.weights = weights;
+    }
+
+    @Override
+    public String getName() {
+        return "SMART";
+    }
+
+    @Override
+    public String getDescription() {
+        return "SMART Priority (40/25/10/25)";
+    }
+
+    @Override
+    public boolean isWorkloadAware() {
+        return true;
+    }
+
+    /**
+     * Rush-hour spec adds an emergency boost: +50 once a customer has waited over 8 minutes
+     */
+    @Override
+    public SchedulingPolicy simulationVariant() {
+        return new SmartPolicy(50.0, weights);
+    }
+
+    @Override
+    public SchedulingPolicy withWeights(ScoringWeights fixed) {
+        return new SmartPolicy(emergencyBoost, () -> fixed);
+    }
+
+    @Override
+    public ScoringWeights weights() {
+        return weights.get();
+    }
+
+    @Override
+    public WorkloadHint workloadHint(double workloadRatio) {
+        return WorkloadHint.fromRatio(workloadRatio, weights.get());
+    }
+
+    @Override
+    public <T> PolicyQueue<T> createQueue(JobView<T> view) {
+        return new SmartQueue<>(view, emergencyBoost, weights);
+    }
+
+    /**
+     * Priority score of a waiting job (0-100, or 0-150 with the emergency boost)
+     */
+    static <T> double score(JobView<T> view, T job, double now, double emergencyBoost, ScoringWeights weights) {
+        double waited = view.waitMinutes(job, now);
+        double raw = Order.rawPriorityScore(waited, view.drinkType(job), view.customerType(job),
+                view.peopleServedAhead(job), weights);
+        if (emergencyBoost > 0) {
+            return Math.max(0, Math.min(150, raw + (waited > 8.0 ? emergencyBoost : 0.0)));
+        }
+        return Math.max(0, Math.min(100, raw));
+    }
+
+    private static boolean isQuick(DrinkType drink) {
+        return drink.getPreparationTime() <= QUICK_ORDER_MAX_PREP;
+    }
+
+    private static boolean isComplex(DrinkType drink) {
+        return drink.getPreparationTime() >= COMPLEX_ORDER_MIN_PREP;
+    }
+
+    /**
+     * Jobs in an array with an index map (O(1) offer/remove/contains), plus a heap of score
+     * snapshots. Removed jobs stay in the snapshot until they reach the root or the next rescore;
+     * offers are scored and pushed directly, a reposition forces a rescore.
+     */
+    private static class SmartQueue<T> implements PolicyQueue<T> {
+        private final JobView<T> view;
+        private final double emergencyBoost;
+        private final Supplier<ScoringWeights> weightSource;
+        private ScoringWeights weights;  // what the snapshot was scored with
+        private final List<T> jobs = new ArrayList<>();
+        private final Map<T, Integer> positions = new HashMap<>();
+
+        // Snapshot buffers, reused across clock values
+        private T[] snapshot;
+        private double[] scores = new double[0];  // score when last evaluated (upper bound until the clock moves)
+        private long[] sequences = new long[0];
+        private int[] ranking = new int[0];       // max-heap of snapshot slots
+        private int snapshotSize;
+        private int rankingSize;
+        private double scoredAt = Double.NaN;
+        private boolean stale = true;
+
+        SmartQueue(JobView<T> view, double emergencyBoost, Supplier<ScoringWeights> weightSource) {
+            this.view = view;
+            this.emergencyBoost = emergencyBoost;
+            this.weightSource = weightSource;
+            this.weights = weightSource.get();
+        }
+
+        /**
+         * Pick up swapped weights; buffered scores of the old ones are no longer upper bounds
+         */
+        private void syncWeights() {
+            ScoringWeights latest = weightSource.get();
+            if (latest != weights) {
+                weights = latest;
+                stale = true;
+            }
+        }
+
+        @Override
+        public void offer(T job) {
+            syncWeights();
+            positions.put(job, jobs.size());
+            jobs.add(job);
+            if (snapshotSize >= 2 * jobs.size() + 16) {
+                stale = true;  // mostly removed jobs: rebuild instead of growing
+            } else if (!stale) {
+                push(job, scoredAt);
+            }
+        }
+
+        @Override
+        public T poll(double now, WorkloadHint hint) {
+            if (jobs.isEmpty()) {
+                return null;
+            }
+            syncWeights();
+            rescoreIfNeeded(now);
+            settleRoot(now);
+
+            T selected = snapshot[ranking[0]];
+            if (hint == WorkloadHint.OVERLOADED) {
+                selected = preferred(now, job -> isQuick(view.drinkType(job)), selected);  // prefer quick orders
+            } else if (hint == WorkloadHint.UNDERUTILIZED) {
+                selected = preferred(now, job -> isComplex(view.drinkType(job)), selected);  // can take complex orders
+            }
+
+            if (selected == snapshot[ranking[0]]) {
+                removeRoot();
+            }
+            remove(selected);
+            return selected;
+        }
+
+        private T preferred(double now, Predicate<? super T> kind, T fallback) {
+            List<T> best = walk(now, 1, kind);
+            return best.isEmpty() ? fallback : best.get(0);
+        }
+
+        @Override
+        public boolean remove(T job) {
+            Integer index = positions.remove(job);
+            if (index == null) {
+                return false;
+            }
+            T last = jobs.remove(jobs.size() - 1);
+            if (index < jobs.size()) {  // not the tail slot (equal boxed ids need not be identical)
+                jobs.set(index, last);
+                positions.put(last, index);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean reposition(T job) {
+            stale = true;  // its score may have gone up
+            return positions.containsKey(job);
+        }
+
+        @Override
+        public boolean contains(T job) {
+            return positions.containsKey(job);
+        }
+
+        @Override
+        public int size() {
+            return jobs.size();
+        }
+
+        @Override
+        public void clear() {
+            jobs.clear();
+            positions.clear();
+            snapshotSize = 0;
+            rankingSize = 0;
+            stale = true;
+        }
+
+        @Override
+        public List<T> inServiceOrder(double now) {
+            syncWeights();
+            Map<T, Double> scores = new HashMap<>();
+            for (T job : jobs) {
+                scores.put(job, score(view, job, now, emergencyBoost, weights));
+            }
+            List<T> sorted = new ArrayList<>(jobs);
+            sorted.sort(Comparator.comparingDouble((T job) -> scores.get(job)).reversed()
+                    .thenComparingLong(view::sequence));
+            return sorted;
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k) {
+            if (k >= jobs.size()) {
+                return inServiceOrder(now);
+            }
+            return topInServiceOrder(now, k, job -> true);
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k, Predicate<? super T> filter) {
+            if (k <= 0 || jobs.isEmpty()) {
+                return new ArrayList<>();
+            }
+            syncWeights();
+            rescoreIfNeeded(now);
+            return walk(now, k, filter);
+        }
+
+        /**
+         * Jobs ahead of the given one at the current score: a depth-first walk of the snapshot
+         * heap that stops at any node whose buffered bound is not ahead of the job (neither it
+         * nor anything below can be), so the cost follows the number of jobs ahead, not n
+         */
+        @Override
+        public int forEachAhead(T job, double now, Consumer<? super T> consumer) {
+            if (!positions.containsKey(job)) {
+                return -1;
+            }
+            syncWeights();
+            rescoreIfNeeded(now);
+            double target = score(view, job, now, emergencyBoost, weights);
+            long sequence = view.sequence(job);
+            Set<T> ahead = new HashSet<>();  // a job re-offered within one clock value has two slots
+            int[] pending = new int[16];
+            int top = 0;
+            if (rankingSize > 0) {
+                pending[top++] = 0;
+            }
+            while (top > 0) {
+                int index = pending[--top];
+                int slot = ranking[index];
+                if (!ahead(scores[slot], sequences[slot], target, sequence)) {
+                    continue;
+                }
+                T other = snapshot[slot];
+                if (positions.containsKey(other)
+                        && ahead(score(view, other, now, emergencyBoost, weights), sequences[slot], target, sequence)
+                        && ahead.add(other)) {
+                    consumer.accept(other);
+                }
+                if (top + 2 > pending.length) {
+                    pending = Arrays.copyOf(pending, 2 * pending.length);
+                }
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < rankingSize; child++) {
+                    pending[top++] = child;
+                }
+            }
+            return ahead.size();
+        }
+
+        /**
+         * Best k live jobs matching the filter, by current score
+         * Best-first search over the snapshot heap: visited jobs are re-scored into a candidate
+         * queue, and a candidate is emitted once it beats the bound of every unvisited subtree.
+         */
+        private List<T> walk(double now, int k, Predicate<? super T> filter) {
+            List<T> found = new ArrayList<>(Math.min(k, jobs.size()));
+            if (rankingSize == 0) {
+                return found;
+            }
+            Set<T> emitted = new HashSet<>();  // a job re-offered within one clock value has two slots
+            // Heap indices by buffered bound; candidates are {current score, sequence, snapshot slot}
+            PriorityQueue<Integer> frontier = new PriorityQueue<>(
+                    (a, b) -> ahead(scores[ranking[a]], sequences[ranking[a]],
+                            scores[ranking[b]], sequences[ranking[b]]) ? -1 : 1);
+            PriorityQueue<double[]> candidates = new PriorityQueue<>(
+                    (a, b) -> ahead(a[0], (long) a[1], b[0], (long) b[1]) ? -1 : 1);
+            frontier.add(0);
+            while (found.size() < k) {
+                if (!candidates.isEmpty()) {
+                    double[] best = candidates.peek();
+                    Integer next = frontier.peek();
+                    if (next == null || ahead(best[0], (long) best[1],
+                            scores[ranking[next]], sequences[ranking[next]])) {
+                        candidates.poll();
+                        T job = snapshot[(int) best[2]];
+                        if (emitted.add(job)) {
+                            found.add(job);
+                        }
+                        continue;
+                    }
+                }
+                Integer index = frontier.poll();
+                if (index == null) {
+                    break;
+                }
+                int slot = ranking[index];
+                T job = snapshot[slot];
+                if (positions.containsKey(job) && filter.test(job)) {
+                    candidates.add(new double[] {score(view, job, now, emergencyBoost, weights), sequences[slot], slot});
+                }
+                int child = 2 * index + 1;
+                if (child < rankingSize) {
+                    frontier.add(child);
+                }
+                if (child + 1 < rankingSize) {
+                    frontier.add(child + 1);
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Drop removed jobs from the root and re-score it until its buffered score is current
+         */
+        private void settleRoot(double now) {
+            while (rankingSize > 0) {
+                int slot = ranking[0];
+                T job = snapshot[slot];
+                if (!positions.containsKey(job)) {
+                    removeRoot();
+                    continue;
+                }
+                double current = score(view, job, now, emergencyBoost, weights);
+                if (current == scores[slot]) {
+                    return;
+                }
+                scores[slot] = current;
+                siftDown(0);
+            }
+        }
+
+        private void rescoreIfNeeded(double now) {
+            if (!stale && now == scoredAt) {
+                return;
+            }
+            snapshotSize = 0;
+            rankingSize = 0;
+            ensureCapacity(jobs.size());
+            for (T job : jobs) {
+                int slot = snapshotSize++;
+                snapshot[slot] = job;
+                scores[slot] = score(view, job, now, emergencyBoost, weights);
+                sequences[slot] = view.sequence(job);
+                ranking[rankingSize++] = slot;
+            }
+            for (int i = rankingSize / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+            scoredAt = now;
+            stale = false;
+        }
+
+        private void push(T job, double now) {
+            ensureCapacity(snapshotSize + 1);
+            int slot = snapshotSize++;
+            snapshot[slot] = job;
+            scores[slot] = score(view, job, now, emergencyBoost, weights);
+            sequences[slot] = view.sequence(job);
+            int index = rankingSize++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ahead(slot, ranking[parent])) {
+                    break;
+                }
+                ranking[index] = ranking[parent];
+                index = parent;
+            }
+            ranking[index] = slot;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void ensureCapacity(int needed) {
+            if (snapshot != null && snapshot.length >= needed) {
+                return;
+            }
+            int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, needed)) << 1);
+            T[] grown = (T[]) new Object[capacity];
+            if (snapshot != null) {
+                System.arraycopy(snapshot, 0, grown, 0, snapshotSize);
+            }
+            snapshot = grown;
+            scores = Arrays.copyOf(scores, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            ranking = Arrays.copyOf(ranking, capacity);
+        }
+
+        private void removeRoot() {
+            ranking[0] = ranking[--rankingSize];
+            if (rankingSize > 0) {
+                siftDown(0);
+            }
+        }
+
+        private void siftDown(int index) {
+            int slot = ranking[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= rankingSize) {
+                    break;
+                }
+                if (child + 1 < rankingSize && ahead(ranking[child + 1], ranking[child])) {
+                    child++;
+                }
+                if (!ahead(ranking[child], slot)) {
+                    break;
+                }
+                ranking[index] = ranking[child];
+                index = child;
+            }
+            ranking[index] = slot;
+        }
+
+        /**
+         * Snapshot slot a is served before slot b
+         */
+        private boolean ahead(int a, int b) {
+            return ahead(scores[a], sequences[a], scores[b], sequences[b]);
+        }
+
+        private static boolean ahead(double scoreA, long sequenceA, double scoreB, long sequenceB) {
+            return scoreA > scoreB || (scoreA == scoreB && sequenceA < sequenceB);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return jobs.iterator();
+        }
+    }
+}
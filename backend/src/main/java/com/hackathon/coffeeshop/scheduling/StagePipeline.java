@@ -0,0 +1,301 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.RecipeStep;
+import com.hackathon.coffeeshop.model.Station;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Stage-level production over capacity-limited station pools and a pool of workers
+ * Each job runs its recipe steps in order. A step holds one unit of its station (if any)
+ * and, when hands-on, one worker, so a barista can start the next drink while an espresso
+ * machine pulls the shot for the previous one. Step ends are events in time order: a
+ * finished step frees its units at its exact end time and the longest-waiting job that
+ * fits starts right then. Jobs hold nothing between steps, so they cannot deadlock.
+ * Times are minutes on the caller's clock.
+ */
+public class StagePipeline<T> {
+
+    private static final Station[] STATIONS = Station.values();
+
+    /**
+     * Callbacks for step starts and ends and finished jobs (worker is -1 for an unattended step)
+     */
+    public interface Listener<T> {
+        default void stepStarted(T job, int stepIndex, RecipeStep step, int worker, double at) {
+        }
+
+        default void stepFinished(T job, int stepIndex, RecipeStep step, int worker, double at) {
+        }
+
+        void completed(T job, double at);
+    }
+
+    private final class Job {
+        final T item;
+        final List<RecipeStep> steps;
+        int next;
+        double stepEnd = Double.NaN;  // end of the running step (NaN while waiting)
+
+        Job(T item, List<RecipeStep> steps) {
+            this.item = item;
+            this.steps = steps;
+        }
+    }
+
+    private final class Running {
+        final double end;
+        final long sequence;
+        final Job job;
+        final RecipeStep step;
+        final int worker;
+
+        Running(double end, long sequence, Job job, RecipeStep step, int worker) {
+            this.end = end;
+            this.sequence = sequence;
+            this.job = job;
+            this.step = step;
+            this.worker = worker;
+        }
+    }
+
+    private final Function<T, List<RecipeStep>> recipes;
+    private final int[] capacity = new int[STATIONS.length];
+    private final int[] inUse = new int[STATIONS.length];
+    private final double[] stationBusyMinutes = new double[STATIONS.length];
+    private final double[] workerBusyMinutes;
+    private final Deque<Integer> idleWorkers = new ArrayDeque<>();  // longest idle first
+    private final PriorityQueue<Running> running = new PriorityQueue<>(
+            Comparator.comparingDouble((Running r) -> r.end).thenComparingLong(r -> r.sequence));
+    private final List<Job> waiting = new ArrayList<>();  // ready for their next step, in the order they got ready
+    private final Map<T, Job> jobs = new HashMap<>();
+    private long sequence = 0;
+    private int inFlight = 0;
+    private int completed = 0;
+
+    /**
+     * @param capacities units per station (stations not listed get their default count, at least 1)
+     */
+    public StagePipeline(Map<Station, Integer> capacities, int workers, Function<T, List<RecipeStep>> recipes) {
+        this.recipes = recipes;
+        for (Station station : STATIONS) {
+            capacity[station.ordinal()] = Math.max(1,
+                    capacities.getOrDefault(station, station.getDefaultCapacity()));
+        }
+        this.workerBusyMinutes = new double[workers];
+        for (int worker = 0; worker < workers; worker++) {
+            idleWorkers.addLast(worker);
+        }
+    }
+
+    /**
+     * Whether another job can be admitted: an idle worker for every job already waiting
+     */
+    public boolean hasRoom() {
+        return idleWorkers.size() > waiting.size();
+    }
+
+    /**
+     * Admit a job at now; its first step starts at once if its station and a worker are free
+     */
+    public void admit(T item, double now, Listener<T> listener) {
+        Job job = new Job(item, recipes.apply(item));
+        jobs.put(item, job);
+        inFlight++;
+        if (job.steps.isEmpty()) {
+            finish(job, now, listener);
+        } else if (!tryStart(job, now, listener)) {
+            waiting.add(job);
+        }
+    }
+
+    /**
+     * Finish every step that ends by now, in time order, starting waiting steps as units free up
+     */
+    public void advanceTo(double now, Listener<T> listener) {
+        while (!running.isEmpty() && running.peek().end <= now) {
+            Running done = running.poll();
+            Station station = done.step.stage().getStation();
+            if (station != null) {
+                inUse[station.ordinal()]--;
+                stationBusyMinutes[station.ordinal()] += done.step.minutes();
+            }
+            if (done.worker >= 0) {
+                workerBusyMinutes[done.worker] += done.step.minutes();
+                idleWorkers.addLast(done.worker);
+            }
+
+            Job job = done.job;
+            job.stepEnd = Double.NaN;
+            listener.stepFinished(job.item, job.next, done.step, done.worker, done.end);
+            job.next++;
+            if (job.next == job.steps.size()) {
+                finish(job, done.end, listener);
+            } else {
+                waiting.add(job);
+            }
+            startWaiting(done.end, listener);
+        }
+    }
+
+    /**
+     * Run every job in flight to completion
+     */
+    public void drain(Listener<T> listener) {
+        advanceTo(Double.POSITIVE_INFINITY, listener);
+    }
+
+    /**
+     * Drop all jobs and statistics
+     * @return the jobs that were in flight
+     */
+    public List<T> clear() {
+        List<T> dropped = new ArrayList<>();
+        for (Running step : running) {
+            dropped.add(step.job.item);
+        }
+        for (Job job : waiting) {
+            dropped.add(job.item);
+        }
+        running.clear();
+        waiting.clear();
+        jobs.clear();
+        idleWorkers.clear();
+        for (int worker = 0; worker < workerBusyMinutes.length; worker++) {
+            idleWorkers.addLast(worker);
+        }
+        Arrays.fill(inUse, 0);
+        Arrays.fill(stationBusyMinutes, 0);
+        Arrays.fill(workerBusyMinutes, 0);
+        inFlight = 0;
+        completed = 0;
+        return dropped;
+    }
+
+    private void finish(Job job, double at, Listener<T> listener) {
+        jobs.remove(job.item);
+        inFlight--;
+        completed++;
+        listener.completed(job.item, at);
+    }
+
+    private void startWaiting(double at, Listener<T> listener) {
+        Iterator<Job> it = waiting.iterator();
+        while (it.hasNext()) {
+            if (tryStart(it.next(), at, listener)) {
+                it.remove();
+            }
+        }
+    }
+
+    private boolean tryStart(Job job, double at, Listener<T> listener) {
+        RecipeStep step = job.steps.get(job.next);
+        Station station = step.stage().getStation();
+        if (station != null && inUse[station.ordinal()] >= capacity[station.ordinal()]) {
+            return false;
+        }
+        boolean handsOn = step.stage().isHandsOn();
+        if (handsOn && idleWorkers.isEmpty()) {
+            return false;
+        }
+
+        if (station != null) {
+            inUse[station.ordinal()]++;
+        }
+        int worker = handsOn ? idleWorkers.pollFirst() : -1;
+        job.stepEnd = at + step.minutes();
+        running.add(new Running(job.stepEnd, sequence++, job, step, worker));
+        listener.stepStarted(job.item, job.next, step, worker, at);
+        return true;
+    }
+
+    public boolean contains(T item) {
+        return jobs.containsKey(item);
+    }
+
+    /**
+     * Minutes until the job is done if every remaining step started without waiting
+     * (0 if the job is not in flight)
+     */
+    public double remainingMinutes(T item, double now) {
+        Job job = jobs.get(item);
+        if (job == null) {
+            return 0.0;
+        }
+        double remaining = 0.0;
+        for (int i = job.next; i < job.steps.size(); i++) {
+            remaining += job.steps.get(i).minutes();
+        }
+        if (!Double.isNaN(job.stepEnd)) {
+            remaining -= job.steps.get(job.next).minutes() - Math.max(0.0, job.stepEnd - now);
+        }
+        return remaining;
+    }
+
+    /**
+     * remainingMinutes summed over every job in flight
+     */
+    public double totalRemainingMinutes(double now) {
+        double total = 0.0;
+        for (T item : jobs.keySet()) {
+            total += remainingMinutes(item, now);
+        }
+        return total;
+    }
+
+    public int capacity(Station station) {
+        return capacity[station.ordinal()];
+    }
+
+    public int inUse(Station station) {
+        return inUse[station.ordinal()];
+    }
+
+    /**
+     * Unit-minutes of finished steps on the station
+     */
+    public double busyMinutes(Station station) {
+        return stationBusyMinutes[station.ordinal()];
+    }
+
+    /**
+     * Share of the station's unit-minutes spent busy over the elapsed minutes
+     */
+    public double utilization(Station station, double elapsedMinutes) {
+        double available = capacity[station.ordinal()] * elapsedMinutes;
+        return available > 0 ? Math.min(1.0, stationBusyMinutes[station.ordinal()] / available) : 0.0;
+    }
+
+    /**
+     * Hands-on minutes of finished steps done by the worker
+     */
+    public double workerBusyMinutes(int worker) {
+        return workerBusyMinutes[worker];
+    }
+
+    public int workers() {
+        return workerBusyMinutes.length;
+    }
+
+    public int inFlight() {
+        return inFlight;
+    }
+
+    public int completed() {
+        return completed;
+    }
+
+    public boolean isEmpty() {
+        return inFlight == 0;
+    }
+}
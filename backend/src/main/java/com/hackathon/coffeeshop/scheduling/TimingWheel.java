@@ -0,0 +1,167 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (4 levels × 64 slots, 1 tick = 1 simulated second)
+ * Level L holds timers due within 64^(L+1) ticks; when a lower level wraps, the next
+ * slot of the level above is cascaded down. Schedule and cancel are O(1), and each
+ * timer is touched at most once per level, so expiry is O(1) amortized per timer
+ * instead of a scan over everything that is waiting.
+ */
+public class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * Handle of a scheduled timer (doubly linked into its slot for O(1) cancel)
+     */
+    public static final class Timer<T> {
+        private final T item;
+        private final long deadline;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isScheduled() {
+            return prev != null;
+        }
+    }
+
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.slots = new Timer[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timer<T> sentinel = new Timer<>(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                slots[level][slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedule an item to expire at deadlineTick (past deadlines expire on the next tick)
+     */
+    public Timer<T> schedule(T item, long deadlineTick) {
+        Timer<T> timer = new Timer<>(item, deadlineTick);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Cancel a pending timer; returns false if it already fired or was cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer == null || !timer.isScheduled()) {
+            return false;
+        }
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel tick by tick up to targetTick, handing every expired item to onExpire
+     */
+    public void advanceTo(long targetTick, Consumer<T> onExpire) {
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels whose lower levels just wrapped around
+            for (int level = 1; level < LEVELS; level++) {
+                long lowerBits = currentTick & ((1L << (SLOT_BITS * level)) - 1);
+                if (lowerBits != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            }
+
+            Timer<T> head = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                unlink(timer);
+                size--;
+                onExpire.accept(timer.item);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Move a higher-level slot down; runs before the level-0 slot of currentTick is drained,
+     * so timers due exactly now go straight into that slot and fire on time
+     */
+    private void cascade(int level, int slot) {
+        Timer<T> head = slots[level][slot];
+        while (head.next != head) {
+            Timer<T> timer = head.next;
+            unlink(timer);
+            if (timer.deadline <= currentTick) {
+                link(slots[0][(int) (currentTick & SLOT_MASK)], timer);
+            } else {
+                insert(timer);
+            }
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long deadline = Math.max(timer.deadline, currentTick + 1);
+        long delta = deadline - currentTick;
+        if (delta >= MAX_SPAN) {
+            deadline = currentTick + MAX_SPAN - 1;  // park in the top level, re-cascaded later
+            delta = MAX_SPAN - 1;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        link(slots[level][slot], timer);
+    }
+
+    private void link(Timer<T> head, Timer<T> timer) {
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
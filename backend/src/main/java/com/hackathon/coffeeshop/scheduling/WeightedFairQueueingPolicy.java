@@ -0,0 +1,169 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Weighted Fair Queueing across customer types (self-clocked variant)
+ * Each customer type is a flow; a job's virtual finish tag is
+ * max(virtual time, flow's last tag) + prep time / flow weight.
+ * Serving the smallest tag shares barista time 2:1:1 between Gold, Regular and New.
+ * Indexed heap of tags: O(log n) offer, poll, remove and reposition.
+ */
+@Component
+public class WeightedFairQueueingPolicy implements SchedulingPolicy {
+
+    private static final Map<CustomerType, Double> WEIGHTS = new EnumMap<>(Map.of(
+            CustomerType.GOLD, 2.0,
+            CustomerType.REGULAR, 1.0,
+            CustomerType.NEW, 1.0));
+
+    @Override
+    public String getName() {
+        return "WFQ";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Weighted Fair Queueing (Gold 2 : Regular 1 : New 1)";
+    }
+
+    @Override
+    public <T> PolicyQueue<T> createQueue(JobView<T> view) {
+        return new WfqQueue<>(view);
+    }
+
+    private static class WfqQueue<T> implements PolicyQueue<T> {
+        private final JobView<T> view;
+        private final Comparator<Tagged<T>> order = Comparator
+                .comparingDouble((Tagged<T> t) -> t.finish())
+                .thenComparingLong(Tagged::sequence);
+        private final IndexedHeap<Tagged<T>> heap = new IndexedHeap<>(order);
+        private final Map<T, Tagged<T>> tags = new HashMap<>();
+        private final Map<CustomerType, Double> lastFinish = new EnumMap<>(CustomerType.class);
+        private double virtualTime = 0.0;
+
+        WfqQueue(JobView<T> view) {
+            this.view = view;
+        }
+
+        @Override
+        public void offer(T job) {
+            CustomerType flow = view.customerType(job);
+            double start = Math.max(virtualTime, lastFinish.getOrDefault(flow, 0.0));
+            Tagged<T> tagged = tag(job, start);
+            lastFinish.put(flow, tagged.finish());
+            tags.put(job, tagged);
+            heap.offer(tagged);
+        }
+
+        private Tagged<T> tag(T job, double start) {
+            double weight = WEIGHTS.get(view.customerType(job));
+            double finish = start + view.drinkType(job).getPreparationTime() / weight;
+            return new Tagged<>(job, start, finish, view.sequence(job));
+        }
+
+        @Override
+        public T poll(double now, WorkloadHint hint) {
+            Tagged<T> next = heap.poll();
+            if (next == null) {
+                return null;
+            }
+            tags.remove(next.job());
+            virtualTime = next.finish();
+            return next.job();
+        }
+
+        @Override
+        public boolean remove(T job) {
+            Tagged<T> tagged = tags.remove(job);
+            return tagged != null && heap.remove(tagged);
+        }
+
+        /**
+         * Keep the job's virtual start tag, recompute its finish tag for the new prep time
+         */
+        @Override
+        public boolean reposition(T job) {
+            Tagged<T> old = tags.get(job);
+            if (old == null) {
+                return false;
+            }
+            heap.remove(old);
+            Tagged<T> retagged = tag(job, old.start());
+            tags.put(job, retagged);
+            heap.offer(retagged);
+            return true;
+        }
+
+        @Override
+        public boolean contains(T job) {
+            return tags.containsKey(job);
+        }
+
+        @Override
+        public int size() {
+            return heap.size();
+        }
+
+        @Override
+        public void clear() {
+            heap.clear();
+            tags.clear();
+            lastFinish.clear();
+            virtualTime = 0.0;
+        }
+
+        @Override
+        public List<T> inServiceOrder(double now) {
+            List<Tagged<T>> sorted = heap.sorted();
+            List<T> jobs = new ArrayList<>(sorted.size());
+            for (Tagged<T> tagged : sorted) {
+                jobs.add(tagged.job());
+            }
+            return jobs;
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k) {
+            return jobsOf(heap.top(k));
+        }
+
+        @Override
+        public List<T> topInServiceOrder(double now, int k, Predicate<? super T> filter) {
+            return jobsOf(heap.top(k, tagged -> filter.test(tagged.job())));
+        }
+
+        @Override
+        public int forEachAhead(T job, double now, Consumer<? super T> consumer) {
+            Tagged<T> tagged = tags.get(job);
+            return tagged == null ? -1 : heap.forEachBefore(tagged, ahead -> consumer.accept(ahead.job()));
+        }
+
+        private List<T> jobsOf(List<Tagged<T>> top) {
+            List<T> jobs = new ArrayList<>(top.size());
+            for (Tagged<T> tagged : top) {
+                jobs.add(tagged.job());
+            }
+            return jobs;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return tags.keySet().iterator();
+        }
+    }
+
+    private record Tagged<T>(T job, double start, double finish, long sequence) {
+    }
+}
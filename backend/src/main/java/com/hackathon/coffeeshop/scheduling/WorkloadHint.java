@@ -0,0 +1,26 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.ScoringWeights;
+
+/**
+ * Workload state of the barista asking for work
+ * Overloaded (>1.2x average) prefers quick orders, underutilized (<0.8x) takes complex ones
+ */
+public enum WorkloadHint {
+    BALANCED,
+    OVERLOADED,
+    UNDERUTILIZED;
+
+    public static WorkloadHint fromRatio(double workloadRatio) {
+        return fromRatio(workloadRatio, ScoringWeights.current());
+    }
+
+    /**
+     * Hint with the thresholds of the given weights (the defaults are 1.2x / 0.8x)
+     */
+    public static WorkloadHint fromRatio(double workloadRatio, ScoringWeights weights) {
+        if (workloadRatio > weights.overloadedRatio()) return OVERLOADED;
+        if (workloadRatio < weights.underutilizedRatio()) return UNDERUTILIZED;
+        return BALANCED;
+    }
+}
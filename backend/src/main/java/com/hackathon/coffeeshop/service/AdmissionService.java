@@ -0,0 +1,180 @@
+package com.hackathon.coffeeshop.service;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import com.hackathon.coffeeshop.model.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control in front of the queue (admission.enabled)
+ * Every arrival gets a predicted wait from the live ETA model: prep minutes still queued plus
+ * work already committed to the baristas, spread over the baristas, plus its own drink. When
+ * that exceeds the customer type's timeout (times admission.timeout-ratio), the type's policy
+ * applies (admission.policy.<TYPE>): accept, warn (accept and say so), divert (send to
+ * admission.divert.store) or reject. Past admission.max-queue waiting orders everyone is
+ * rejected, so the queue stays bounded under any overload. API orders are decided and queued
+ * in one step under the queue lock (admit); Poisson and rush-hour arrivals go through the
+ * queue's arrival gate, which is why the bean stays eager under lazy initialization (prod
+ * profile). Both run under the queue lock, so the barista backlog is BaristaService's
+ * maintained committed-minutes figure, never a walk over its state.
+ */
+@Service
+@Lazy(false)
+public class AdmissionService {
+
+    public enum Action {
+        ACCEPT, WARN, DIVERT, REJECT
+    }
+
+    /**
+     * Outcome for one arrival (divertTo is set for DIVERT only)
+     */
+    public record Decision(Action action, CustomerType customerType, double predictedWaitMinutes,
+                           double timeoutMinutes, String reason, String divertTo) {
+
+        public boolean admitted() {
+            return action == Action.ACCEPT || action == Action.WARN;
+        }
+    }
+
+    /**
+     * Decision for an API arrival and the order it queued (null unless admitted)
+     */
+    public record Admission(Decision decision, Order order) { }
+
+    private final QueueService queueService;
+    private final BaristaService baristaService;
+    private volatile boolean enabled;
+    private volatile int maxQueue;
+    private final double timeoutRatio;
+    private final String divertStore;
+    private final Map<CustomerType, Action> policies = new EnumMap<>(CustomerType.class);
+    private final Map<Action, Map<CustomerType, Counter>> decisions = new EnumMap<>(Action.class);
+
+    public AdmissionService(QueueService queueService, BaristaService baristaService, Environment environment,
+                            MeterRegistry meterRegistry) {
+        this.queueService = queueService;
+        this.baristaService = baristaService;
+        this.enabled = environment.getProperty("admission.enabled", Boolean.class, false);
+        this.maxQueue = Math.max(1, environment.getProperty("admission.max-queue", Integer.class, 200));
+        this.timeoutRatio = environment.getProperty("admission.timeout-ratio", Double.class, 1.0);
+        this.divertStore = environment.getProperty("admission.divert.store", "Coffee Shop (Second Street)");
+        policies.put(CustomerType.GOLD, Action.WARN);
+        policies.put(CustomerType.REGULAR, Action.DIVERT);
+        policies.put(CustomerType.NEW, Action.REJECT);
+        for (CustomerType type : CustomerType.values()) {
+            String configured = environment.getProperty("admission.policy." + type.name());
+            if (configured != null) {
+                policies.put(type, Action.valueOf(configured.trim().toUpperCase()));
+            }
+        }
+        for (Action action : Action.values()) {
+            Map<CustomerType, Counter> byType = new EnumMap<>(CustomerType.class);
+            for (CustomerType type : CustomerType.values()) {
+                byType.put(type, Counter.builder("coffee.admission.decisions")
+                        .tag("action", action.name())
+                        .tag("customerType", type.name())
+                        .description("Arrivals by admission decision")
+                        .register(meterRegistry));
+            }
+            decisions.put(action, byType);
+        }
+        queueService.setArrivalGate((drinkType, customerType) -> decide(drinkType, customerType).admitted());
+    }
+
+    /**
+     * Decide on an arrival and count the decision (everything is accepted while disabled)
+     */
+    public Decision decide(DrinkType drinkType, CustomerType customerType) {
+        Decision decision = evaluate(drinkType, customerType);
+        decisions.get(decision.action()).get(customerType).increment();
+        return decision;
+    }
+
+    /**
+     * Decide on an API arrival and queue it if admitted, as one queue operation
+     */
+    public Admission admit(DrinkType drinkType, CustomerType customerType) {
+        Decision[] decision = new Decision[1];
+        Order order = queueService.addOrder(drinkType, customerType, (drink, type) -> {
+            decision[0] = decide(drink, type);
+            return decision[0].admitted();
+        });
+        return new Admission(decision[0], order);
+    }
+
+    /**
+     * Predicted wait and the decision the configured policy gives for it, without counting it
+     */
+    public Decision evaluate(DrinkType drinkType, CustomerType customerType) {
+        double predicted = predictWait(drinkType);
+        double timeout = customerType.getTimeoutMinutes();
+        if (!enabled) {
+            return new Decision(Action.ACCEPT, customerType, predicted, timeout, null, null);
+        }
+        if (queueService.getQueueSize() >= maxQueue) {
+            return new Decision(Action.REJECT, customerType, predicted, timeout,
+                    String.format("Queue is full (%d orders waiting)", maxQueue), null);
+        }
+        if (predicted <= timeout * timeoutRatio) {
+            return new Decision(Action.ACCEPT, customerType, predicted, timeout, null, null);
+        }
+        Action action = policies.get(customerType);
+        String reason = String.format("Predicted wait %.1f min exceeds the %.0f min timeout for %s",
+                predicted, timeout, customerType.getDisplayName());
+        return new Decision(action, customerType, predicted, timeout, action == Action.ACCEPT ? null : reason,
+                action == Action.DIVERT ? divertStore : null);
+    }
+
+    /**
+     * Live ETA for a new order of the given drink served after everything already waiting
+     */
+    public double predictWait(DrinkType drinkType) {
+        int baristas = Math.max(1, baristaService.getAllBaristas().size());
+        double backlog = queueService.getQueuedPrepMinutes() + baristaService.getCommittedMinutes();
+        return backlog / baristas + drinkType.getPreparationTime();
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setMaxQueue(int maxQueue) {
+        this.maxQueue = Math.max(1, maxQueue);
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    /**
+     * Policies, limits and decision counts for the metrics endpoint
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxQueue", maxQueue);
+        stats.put("timeoutRatio", timeoutRatio);
+        Map<String, String> policyNames = new LinkedHashMap<>();
+        policies.forEach((type, action) -> policyNames.put(type.name(), action.name()));
+        stats.put("policies", policyNames);
+        stats.put("divertStore", divertStore);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        decisions.forEach((action, byType) -> counts.put(action.name(),
+                (long) byType.values().stream().mapToDouble(Counter::count).sum()));
+        stats.put("decisions", counts);
+        return stats;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hackathon.coffeeshop.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Version-keyed LRU cache for analytics results
+ * An entry is served for as long as the engine state version it was computed at is current;
+ * every add, assign, complete and reset bumps the version, so the next read recomputes.
+ * Entries are capped (analytics.cache.max-entries, least recently used evicted first) so
+ * parameterized queries such as per-window stats cannot grow the cache without bound.
+ * Results are handed out read-only because every caller shares the cached map.
+ */
+@Component
+public class AnalyticsCache {
+
+    private record Entry(long version, Map<String, Object> value) { }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AnalyticsCache(MeterRegistry meterRegistry,
+                          @Value("${analytics.cache.max-entries:64}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AnalyticsCache.this.maxEntries;
+            }
+        };
+        this.hits = Counter.builder("coffee.analytics.cache.requests").tag("result", "hit")
+                .description("Analytics reads served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("coffee.analytics.cache.requests").tag("result", "miss")
+                .description("Analytics reads that recomputed their result")
+                .register(meterRegistry);
+        Gauge.builder("coffee.analytics.cache.entries", this, AnalyticsCache::size)
+                .description("Cached analytics results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached result for key at the given state version, computing it on a miss
+     * The computation runs outside the lock; two racing misses both compute and the later
+     * version wins.
+     */
+    public Map<String, Object> get(String key, long version, Supplier<Map<String, Object>> compute) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version() == version) {
+                hits.increment();
+                return entry.value();
+            }
+        }
+        misses.increment();
+        Map<String, Object> value = Collections.unmodifiableMap(compute.get());
+        synchronized (this) {
+            Entry current = entries.get(key);
+            if (current == null || current.version() <= version) {
+                entries.put(key, new Entry(version, value));
+            }
+        }
+        return value;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -1,12 +1,27 @@
 package com.hackathon.coffeeshop.service;
 
+import com.hackathon.coffeeshop.dto.RushHourOrderDetails;
 import com.hackathon.coffeeshop.model.Barista;
+import com.hackathon.coffeeshop.model.CompletedOrderView;
 import com.hackathon.coffeeshop.model.CustomerType;
 import com.hackathon.coffeeshop.model.DrinkType;
 import com.hackathon.coffeeshop.model.Order;
+import com.hackathon.coffeeshop.model.RecipeStep;
+import com.hackathon.coffeeshop.model.Station;
+import com.hackathon.coffeeshop.scheduling.FenwickTree;
+import com.hackathon.coffeeshop.scheduling.JobView;
+import com.hackathon.coffeeshop.scheduling.PolicyQueue;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicy;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
+import com.hackathon.coffeeshop.scheduling.StagePipeline;
+import com.hackathon.coffeeshop.scheduling.WorkloadHint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 /**
  * Analytics Service for Detailed Statistics
@@ -14,40 +29,66 @@ import java.util.*;
  */
 @Service
 public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
     
     private final QueueService queueService;
     private final BaristaService baristaService;
-    private final Random random = new Random();
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final RandomService randomService;
+    private final AnalyticsCache cache;
+    
+    // Order details of recent rush-hour runs, for paging through a run after the fact
+    private static final int RECENT_RUNS = 8;
+    private static final double PASSES = 4;  // policy, batching, FIFO and pipeline runs per rush hour
+    private int lastRunId = 0;
+    private final Map<Integer, RushHourOrderDetails> recentRuns = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, RushHourOrderDetails> eldest) {
+            return size() > RECENT_RUNS;
+        }
+    };
 
-    public AnalyticsService(QueueService queueService, BaristaService baristaService) {
+    public AnalyticsService(QueueService queueService, BaristaService baristaService,
+                            SchedulingPolicyRegistry policyRegistry, RandomService randomService,
+                            AnalyticsCache cache) {
         this.queueService = queueService;
+        this.randomService = randomService;
+        this.cache = cache;
         this.baristaService = baristaService;
+        this.policyRegistry = policyRegistry;
     }
 
     /**
-     * Get comprehensive statistics
+     * Get comprehensive statistics (cached until the engine state changes)
      */
     public Map<String, Object> getDetailedStatistics() {
+        return cache.get("stats", queueService.getStateVersion(), this::computeDetailedStatistics);
+    }
+
+    private Map<String, Object> computeDetailedStatistics() {
         Map<String, Object> stats = new HashMap<>();
         
-        List<Order> completedOrders = queueService.getCompletedOrders();
+        // One pass over every completed order (archived ones through the mapped file)
+        CompletionTally completed = new CompletionTally();
+        queueService.forEachCompletedOrder(Integer.MAX_VALUE, completed);
         
         // Average order completion time (from order creation to completion)
-        double avgCompletionTime = calculateAverageCompletionTime(completedOrders);
+        double avgCompletionTime = completed.averageCompletionTime();
         stats.put("avgCompletionTime", Math.round(avgCompletionTime * 100) / 100.0);
         
         // Total complaints (orders that exceeded timeout)
-        int complaints = countComplaints(completedOrders);
+        int complaints = completed.complaints;
         stats.put("totalComplaints", complaints);
-        stats.put("complaintRate", completedOrders.isEmpty() ? 0 : 
-                Math.round((complaints * 100.0 / completedOrders.size()) * 10) / 10.0);
+        stats.put("complaintRate", completed.orders == 0 ? 0 : 
+                Math.round((complaints * 100.0 / completed.orders) * 10) / 10.0);
         
         // Per-barista workload
         Map<String, Double> baristaWorkload = getBaristaAverageWorkload();
         stats.put("baristaWorkload", baristaWorkload);
         
         // Total orders processed
-        stats.put("totalOrdersProcessed", completedOrders.size());
+        stats.put("totalOrdersProcessed", completed.orders);
         
         // Current queue size
         stats.put("currentQueueSize", queueService.getQueueSize());
@@ -56,27 +97,25 @@ public class AnalyticsService {
     }
 
     /**
-     * Calculate average time from order creation to completion
+     * Order count, time from creation to completion and complaints (over 10 minutes) of a scan
      */
-    private double calculateAverageCompletionTime(List<Order> orders) {
-        if (orders.isEmpty()) {
-            return 0.0;
+    private static final class CompletionTally implements Consumer<CompletedOrderView> {
+        int orders = 0;
+        int complaints = 0;
+        double totalCompletionTime = 0.0;
+
+        @Override
+        public void accept(CompletedOrderView order) {
+            orders++;
+            totalCompletionTime += order.getTotalCompletionTime();
+            if (order.isComplaint()) {
+                complaints++;
+            }
         }
-        
-        double totalTime = orders.stream()
-                .mapToDouble(Order::getTotalCompletionTime)
-                .sum();
-        
-        return totalTime / orders.size();
-    }
 
-    /**
-     * Count orders that exceeded 10-minute timeout (complaints)
-     */
-    private int countComplaints(List<Order> orders) {
-        return (int) orders.stream()
-                .filter(Order::isComplaint)
-                .count();
+        double averageCompletionTime() {
+            return orders > 0 ? totalCompletionTime / orders : 0.0;
+        }
     }
 
     /**
@@ -94,9 +133,13 @@ public class AnalyticsService {
     }
 
     /**
-     * Get per-barista detailed breakdown
+     * Get per-barista detailed breakdown (cached until the engine state changes)
      */
     public Map<String, Object> getBaristaWorkloadBreakdown() {
+        return cache.get("barista-breakdown", queueService.getStateVersion(), this::computeBaristaWorkloadBreakdown);
+    }
+
+    private Map<String, Object> computeBaristaWorkloadBreakdown() {
         Map<String, Object> breakdown = new HashMap<>();
         
         List<Barista> baristas = baristaService.getAllBaristas();
@@ -122,14 +165,15 @@ public class AnalyticsService {
 
     /**
      * Generate bulk orders for testing (with instant completion)
+     * Drinks, customer types and waits all come from the seed's own stream
      */
-    public int generateBulkOrders(int count) {
+    public int generateBulkOrders(int count, long seed) {
         DrinkType[] drinks = DrinkType.values();
-        Random random = new Random();
+        SplittableRandom random = randomService.stream(seed);
         
         for (int i = 0; i < count; i++) {
             DrinkType randomDrink = drinks[random.nextInt(drinks.length)];
-            Order order = queueService.addOrder(randomDrink);
+            Order order = queueService.addOrder(randomDrink, Order.randomCustomerType(random));
             
             // Instantly complete the order with realistic timing
             // Simulate total time: prep time + random wait (2-8 minutes)
@@ -150,25 +194,33 @@ public class AnalyticsService {
     }
 
     /**
-     * Get statistics based on last N completed orders
+     * Get statistics based on last 100 completed orders
      */
     public Map<String, Object> getLast100OrderStats() {
+        return getRecentOrderStats(100);
+    }
+
+    /**
+     * Get statistics based on the last N completed orders (one cache entry per window size)
+     */
+    public Map<String, Object> getRecentOrderStats(int window) {
+        return cache.get("window:" + window, queueService.getStateVersion(), () -> computeRecentOrderStats(window));
+    }
+
+    private Map<String, Object> computeRecentOrderStats(int window) {
         Map<String, Object> stats = new HashMap<>();
         
-        List<Order> completedOrders = queueService.getCompletedOrders();
-        
-        // Get last 100 orders (or fewer if not enough)
-        int size = Math.min(100, completedOrders.size());
-        List<Order> last100 = completedOrders.subList(
-                Math.max(0, completedOrders.size() - 100), 
-                completedOrders.size());
+        // Last N orders (or fewer if not enough); older ones may come from the archive
+        CompletionTally recent = new CompletionTally();
+        queueService.forEachCompletedOrder(window, recent);
+        int size = recent.orders;
         
-        // Average completion time for last 100
-        double avgCompletionTime = calculateAverageCompletionTime(last100);
+        // Average completion time for the window
+        double avgCompletionTime = recent.averageCompletionTime();
         stats.put("avgCompletionTime", Math.round(avgCompletionTime * 100) / 100.0);
         
-        // Complaints in last 100
-        int complaints = countComplaints(last100);
+        // Complaints in the window
+        int complaints = recent.complaints;
         stats.put("complaints", complaints);
         stats.put("complaintRate", size > 0 ? Math.round((complaints * 100.0 / size) * 10) / 10.0 : 0);
         
@@ -186,214 +238,72 @@ public class AnalyticsService {
      * Emergency: +50 boost at >8 min wait
      * Fairness: penalty if >3 people skipped ahead
      * Workload: overloaded (>1.2x) prefer short, underloaded (<0.8x) take complex
+     * (weights and thresholds are the live ScoringWeights; the figures above are the defaults)
      * Abandonment: Regular/Gold leave at 10 min, New customers leave at 8 min
      * Comparison: Also runs FIFO simulation to show algorithm improvement
+     * Any registered scheduling policy can replace SMART (same arrivals, same FIFO baseline)
      */
-    public Map<String, Object> simulateRushHour200Orders() {
-        Random rng = new Random();
-        DrinkType[] drinks = DrinkType.values();
-        int N = 100;
-
-        // ===== Phase 1: Generate arrival schedule (Poisson λ=1.4/min) =====
-        double[] arrivalMin = new double[N];
-        DrinkType[] orderDrink = new DrinkType[N];
-        CustomerType[] custType = new CustomerType[N];
-
-        double clock = 0;
-        for (int i = 0; i < N; i++) {
-            clock += -Math.log(1 - rng.nextDouble()) / 1.4; // Exponential inter-arrival
-            arrivalMin[i] = clock;
-            orderDrink[i] = drinks[rng.nextInt(drinks.length)];
-            custType[i] = getWeightedCustomerType(rng);
-        }
-
-        // ===== Phase 2: SMART Priority Simulation =====
-        double[] smartWait = new double[N];
-        double[] smartTotal = new double[N];
-        boolean[] smartServed = new boolean[N];
-        int[] smartBarista = new int[N];
-        Arrays.fill(smartBarista, -1);
-
-        double[] bFreeAt = {0, 0, 0};
-        double[] bWork = {0, 0, 0};
-        int[] bCount = {0, 0, 0};
-        int[] skipped = new int[N]; // fairness tracking
-
-        List<Integer> queue = new ArrayList<>();
-        int nextArr = 0;
-
-        // Time-step at 0.5 min (30 sec) — spec says recalculate every 30 seconds
-        for (double now = 0; now <= 300; now += 0.5) {
-            // 1. Add new arrivals
-            while (nextArr < N && arrivalMin[nextArr] <= now) {
-                queue.add(nextArr);
-                nextArr++;
-            }
-
-            // 2. Customer abandonment — customers leave at timeout threshold
-            Iterator<Integer> iter = queue.iterator();
-            while (iter.hasNext()) {
-                int idx = iter.next();
-                double waited = now - arrivalMin[idx];
-                if (waited >= custType[idx].getTimeoutMinutes()) {
-                    smartServed[idx] = false;
-                    smartWait[idx] = waited;
-                    smartTotal[idx] = waited;
-                    iter.remove();
-                }
-            }
-
-            if (queue.isEmpty()) {
-                if (nextArr >= N) break;
-                continue;
-            }
-
-            // 3. Calculate priority scores (exact spec formula)
-            double avgWork = (bWork[0] + bWork[1] + bWork[2]) / 3.0;
-            final double[] scores = new double[N];
-
-            for (int idx : queue) {
-                double waited = now - arrivalMin[idx];
-                double timeout = custType[idx].getTimeoutMinutes();
-                double prepTime = orderDrink[idx].getPreparationTime();
-
-                // Wait Time Component (40%) — scale 0-10 min → 0-40 points
-                double waitScore = Math.min((waited / 10.0) * 40.0, 40.0);
-
-                // Complexity Component (25%) — shorter orders = higher score for throughput
-                double complexScore = ((6.0 - prepTime) / 6.0) * 25.0;
-
-                // Loyalty Component (10%)
-                double loyaltyScore = (custType[idx].getLoyaltyBonus() / 10.0) * 10.0;
-
-                // Urgency Component (25%) — ramps up in last 2 min before timeout
-                double urgencyScore = 0;
-                double urgencyThreshold = timeout - 2.0;
-                if (waited >= timeout) {
-                    urgencyScore = 25.0;
-                } else if (waited >= urgencyThreshold) {
-                    urgencyScore = ((waited - urgencyThreshold) / 2.0) * 25.0;
-                }
-
-                // Emergency Boost: +50 if wait > 8 min (spec: "priority score +50")
-                double emergencyBoost = waited > 8.0 ? 50.0 : 0.0;
-
-                // Fairness Penalty: -2 per skip beyond 3 (spec: "penalty if >3 skipped")
-                double fairnessPenalty = skipped[idx] > 3 ? (skipped[idx] - 3) * 2.0 : 0;
-
-                scores[idx] = Math.max(0, Math.min(150,
-                        waitScore + complexScore + loyaltyScore + urgencyScore + emergencyBoost - fairnessPenalty));
-            }
-
-            // 4. Sort queue by priority score (highest first)
-            queue.sort((a, b) -> Double.compare(scores[b], scores[a]));
-
-            // 5. Assign orders to free baristas with workload balancing
-            for (int b = 0; b < 3; b++) {
-                if (bFreeAt[b] <= now && !queue.isEmpty()) {
-                    int selectedIdx;
-                    double workRatio = avgWork > 0 ? bWork[b] / avgWork : 1.0;
-
-                    if (workRatio > 1.2 && queue.size() > 1) {
-                        // Overloaded barista: prefer shortest order among top 3 candidates
-                        int candidates = Math.min(3, queue.size());
-                        int bestC = 0;
-                        for (int c = 1; c < candidates; c++) {
-                            if (orderDrink[queue.get(c)].getPreparationTime() <
-                                    orderDrink[queue.get(bestC)].getPreparationTime()) {
-                                bestC = c;
-                            }
-                        }
-                        selectedIdx = queue.remove(bestC);
-                    } else {
-                        // Normal or underloaded: take highest priority
-                        selectedIdx = queue.remove(0);
-                    }
-
-                    double prepTime = orderDrink[selectedIdx].getPreparationTime();
-                    double serviceStart = Math.max(bFreeAt[b], now);
-                    double serviceEnd = serviceStart + prepTime;
-
-                    smartServed[selectedIdx] = true;
-                    smartWait[selectedIdx] = serviceStart - arrivalMin[selectedIdx];
-                    smartTotal[selectedIdx] = serviceEnd - arrivalMin[selectedIdx];
-                    smartBarista[selectedIdx] = b;
-
-                    bFreeAt[b] = serviceEnd;
-                    bWork[b] += prepTime;
-                    bCount[b]++;
+    public Map<String, Object> simulateRushHour() {
+        return simulateRushHour(policyRegistry.getDefault());
+    }
 
-                    // Fairness: track skips — earlier arrivals still waiting got skipped
-                    for (int remain : queue) {
-                        if (arrivalMin[remain] < arrivalMin[selectedIdx]) {
-                            skipped[remain]++;
-                        }
-                    }
-                }
-            }
+    public Map<String, Object> simulateRushHour(SchedulingPolicy policy) {
+        return simulateRushHour(policy, randomService.nextSeed());
+    }
 
-            if (nextArr >= N && queue.isEmpty()) break;
-        }
+    public Map<String, Object> simulateRushHour(SchedulingPolicy policy, long seed) {
+        return simulateRushHour(SimulationParameters.defaults(seed), policy, SimulationListener.NONE);
+    }
 
-        // Mark any still-waiting as abandoned
-        for (int idx : queue) {
-            smartServed[idx] = false;
-            smartWait[idx] = 300 - arrivalMin[idx];
-            smartTotal[idx] = smartWait[idx];
-        }
+    /**
+     * Rush-hour simulation with explicit size, arrival rate, barista count, horizon and seed
+     * The same seed reproduces the same arrivals. Progress goes to the listener; the run stops
+     * with a CancellationException if the simulating thread is interrupted.
+     */
+    public Map<String, Object> simulateRushHour(SimulationParameters params, SchedulingPolicy policy,
+                                                SimulationListener listener) {
+        int N = params.orders();
+        int B = params.baristas();
+        double lambda = params.lambda();
+        double horizon = params.horizonMinutes();
+
+        // ===== Phase 1: Generate arrival schedule (Poisson λ/min) =====
+        ArrivalTrace trace = generateArrivals(params);
+        double[] arrivalMin = trace.arrivalMinutes();
+        DrinkType[] orderDrink = trace.drinks();
+        CustomerType[] custType = trace.customerTypes();
+
+        // ===== Phase 2: Selected policy simulation (SMART by default) =====
+        SchedulingPolicy simPolicy = policy.simulationVariant();
+        SimulationRun smartRun = runSimulation(new SimulationRun(N, B), arrivalMin, orderDrink, custType,
+                simPolicy, 1, null, horizon, listener, "policy", 0);
+        double[] smartWait = smartRun.wait;
+        double[] smartTotal = smartRun.total;
+        boolean[] smartServed = smartRun.served;
+        int[] smartBarista = smartRun.barista;
+        double[] bWork = smartRun.bWork;
+        int[] bCount = smartRun.bCount;
+        int[] skipped = smartRun.skipped;
+
+        // Same orders again with same-drink batching (up to K=4 per task); only totals are kept,
+        // so the FIFO pass reuses its buffers
+        SimulationRun scratchRun = runSimulation(new SimulationRun(N, B), arrivalMin, orderDrink, custType,
+                simPolicy, 4, null, horizon, listener, "batching", 1);
+        double batchWork = sum(scratchRun.bWork);
+        int batchServedCount = scratchRun.servedCount();
+        int batchComplaintCount = scratchRun.complaintCount();
+        double batchAvgWait = scratchRun.averageWait();
+        int batchesFormed = scratchRun.batches;
+        int batchedOrders = scratchRun.batchedOrders;
+        double batchSequentialPrep = scratchRun.sequentialPrepMinutes;
+        scratchRun.reset();
 
         // ===== Phase 3: FIFO Simulation (same orders, for comparison) =====
-        double[] fifoWait = new double[N];
-        double[] fifoTotal = new double[N];
-        boolean[] fifoServed = new boolean[N];
-        double[] fFreeAt = {0, 0, 0};
-
-        List<Integer> fifoQ = new ArrayList<>();
-        int fifoNext = 0;
-
-        for (double now = 0; now <= 300; now += 0.5) {
-            while (fifoNext < N && arrivalMin[fifoNext] <= now) {
-                fifoQ.add(fifoNext);
-                fifoNext++;
-            }
-
-            // Abandonment (same customer behavior)
-            Iterator<Integer> fi = fifoQ.iterator();
-            while (fi.hasNext()) {
-                int idx = fi.next();
-                double waited = now - arrivalMin[idx];
-                if (waited >= custType[idx].getTimeoutMinutes()) {
-                    fifoServed[idx] = false;
-                    fifoWait[idx] = waited;
-                    fifoTotal[idx] = waited;
-                    fi.remove();
-                }
-            }
-
-            // FIFO: serve in arrival order (no reordering)
-            for (int b = 0; b < 3; b++) {
-                if (fFreeAt[b] <= now && !fifoQ.isEmpty()) {
-                    int orderIdx = fifoQ.remove(0);
-                    double prepTime = orderDrink[orderIdx].getPreparationTime();
-                    double serviceStart = Math.max(fFreeAt[b], now);
-                    double serviceEnd = serviceStart + prepTime;
-
-                    fifoServed[orderIdx] = true;
-                    fifoWait[orderIdx] = serviceStart - arrivalMin[orderIdx];
-                    fifoTotal[orderIdx] = serviceEnd - arrivalMin[orderIdx];
-
-                    fFreeAt[b] = serviceEnd;
-                }
-            }
-
-            if (fifoNext >= N && fifoQ.isEmpty()) break;
-        }
-
-        for (int idx : fifoQ) {
-            fifoServed[idx] = false;
-            fifoWait[idx] = 300 - arrivalMin[idx];
-            fifoTotal[idx] = fifoWait[idx];
-        }
+        SimulationRun fifoRun = runSimulation(scratchRun, arrivalMin, orderDrink, custType,
+                policyRegistry.get("FIFO"), 1, null, horizon, listener, "fifo", 2);
+        double[] fifoWait = fifoRun.wait;
+        double[] fifoTotal = fifoRun.total;
+        boolean[] fifoServed = fifoRun.served;
 
         // ===== Phase 4: Calculate Statistics =====
         int smartServedCount = 0, smartAbandoned = 0, smartComplaintCount = 0;
@@ -438,6 +348,15 @@ public class AnalyticsService {
         double fifoAvgWait = fifoServedCount > 0 ? fifoTotalWait / fifoServedCount : 0;
         double fifoAvgTotal = fifoServedCount > 0 ? fifoTotalCompletion / fifoServedCount : 0;
 
+        // ===== Phase 5: Station pipeline (same orders and policy, stages over shared machines) =====
+        scratchRun.reset();
+        StagePipeline<Integer> stages = new StagePipeline<>(scaledStations(B), B,
+                idx -> orderDrink[idx].getRecipe());
+        SimulationRun pipelineRun = runSimulation(scratchRun, arrivalMin, orderDrink, custType,
+                simPolicy, 1, stages, horizon, listener, "pipeline", 3);
+        Map<String, Object> pipelineComparison = pipelineComparison(pipelineRun, stages, arrivalMin,
+                smartServedCount, sum(bWork));
+
         // Fairness violations
         int fairnessViolations = 0;
         for (int i = 0; i < N; i++) {
@@ -445,9 +364,12 @@ public class AnalyticsService {
         }
 
         // Workload balance (std dev)
-        double avgBarista = (bWork[0] + bWork[1] + bWork[2]) / 3.0;
-        double variance = (Math.pow(bWork[0] - avgBarista, 2) + Math.pow(bWork[1] - avgBarista, 2)
-                + Math.pow(bWork[2] - avgBarista, 2)) / 3.0;
+        double avgBarista = sum(bWork) / B;
+        double variance = 0;
+        for (double work : bWork) {
+            variance += Math.pow(work - avgBarista, 2);
+        }
+        variance /= B;
         double workloadStdDev = Math.sqrt(variance);
         double workloadBalance = avgBarista > 0 ? Math.max(0, 100 - (workloadStdDev / avgBarista * 100)) : 100;
 
@@ -458,6 +380,7 @@ public class AnalyticsService {
         stats.put("totalOrders", N);
         stats.put("ordersServed", smartServedCount);
         stats.put("ordersAbandoned", smartAbandoned);
+        stats.put("ordersBeyondHorizon", smartRun.beyondHorizon);
         stats.put("averageWaitTime", r2(smartAvgWait));
         stats.put("averageCompletionTime", r2(smartAvgTotal));
         stats.put("totalComplaints", smartComplaintCount);
@@ -481,8 +404,8 @@ public class AnalyticsService {
 
         // Barista workload
         List<Map<String, Object>> baristaStats = new ArrayList<>();
-        double totalWork = bWork[0] + bWork[1] + bWork[2];
-        for (int b = 0; b < 3; b++) {
+        double totalWork = sum(bWork);
+        for (int b = 0; b < B; b++) {
             Map<String, Object> bs = new LinkedHashMap<>();
             bs.put("name", "Barista " + (b + 1));
             bs.put("ordersCompleted", bCount[b]);
@@ -497,55 +420,546 @@ public class AnalyticsService {
         stats.put("fairnessViolations", r1(fairnessViolations * 100.0 / N));
         stats.put("fairnessJustified", 94.0); // spec: 94% justified by quick orders
 
+        // Same-drink batching comparison (same arrivals, SMART + batching)
+        Map<String, Object> batching = new LinkedHashMap<>();
+        batching.put("maxBatchSize", 4);
+        batching.put("ordersServed", batchServedCount);
+        batching.put("averageWaitTime", r2(batchAvgWait));
+        batching.put("totalComplaints", batchComplaintCount);
+        batching.put("complaintRate", r1(batchComplaintCount * 100.0 / N));
+        batching.put("batchesFormed", batchesFormed);
+        batching.put("batchedOrders", batchedOrders);
+        batching.put("prepMinutesSaved", r1(batchSequentialPrep - batchWork));
+        // Throughput gain: barista minutes per served order, unbatched SMART vs batched
+        double smartMinutesPerOrder = smartServedCount > 0 ? totalWork / smartServedCount : 0;
+        double batchMinutesPerOrder = batchServedCount > 0 ? batchWork / batchServedCount : 0;
+        batching.put("throughputGain", batchMinutesPerOrder > 0
+                ? r1((smartMinutesPerOrder / batchMinutesPerOrder - 1) * 100) : 0);
+        stats.put("batchingComparison", batching);
+        stats.put("pipelineComparison", pipelineComparison);
+
         // Meta
-        stats.put("rushHourDuration", "3 hours (7:00 AM - 10:00 AM)");
-        stats.put("peakArrivalRate", "1.4 customers/minute (Poisson)");
-        stats.put("algorithm", "SMART Priority (40/25/10/25)");
+        stats.put("rushHourDuration", params.equals(SimulationParameters.defaults(params.seed()))
+                ? "3 hours (7:00 AM - 10:00 AM)"
+                : String.format("%.0f min simulated, %d baristas", horizon, B));
+        stats.put("peakArrivalRate", String.format("%s customers/minute (Poisson)", lambda));
+        stats.put("seed", params.seed());
+        stats.put("parameters", params);
+        stats.put("algorithm", policy.getDescription());
+        stats.put("policy", policy.getName());
+
+        // Individual order details for drill-down (streamed row by row when serialized)
+        RushHourOrderDetails orderDetails = new RushHourOrderDetails(orderDrink, custType, arrivalMin,
+                smartWait, smartTotal, smartServed, smartBarista, skipped, B);
+        stats.put("runId", rememberRun(orderDetails));
+        stats.put("orderDetails", orderDetails);
+
+        log.debug("Rush hour simulation complete: {} avg wait {} min, complaints {}/{}; FIFO avg wait {} min, "
+                + "complaints {}/{}", policy.getName(), r2(smartAvgWait), smartComplaintCount, N,
+                r2(fifoAvgWait), fifoComplaintCount, N);
+
+        return stats;
+    }
+
+    /**
+     * Arrival schedule of a simulation: order i arrives at arrivalMinutes[i] (ascending)
+     */
+    public record ArrivalTrace(double[] arrivalMinutes, DrinkType[] drinks, CustomerType[] customerTypes) {
+
+        public int size() {
+            return arrivalMinutes.length;
+        }
+    }
+
+    /**
+     * Poisson arrivals of a rush-hour run (the same seed gives the same trace)
+     */
+    public ArrivalTrace generateArrivals(SimulationParameters params) {
+        SplittableRandom rng = randomService.stream(params.seed());
+        DrinkType[] drinks = DrinkType.values();
+        int N = params.orders();
+        double lambda = params.lambda();
+        double[] arrivalMin = new double[N];
+        DrinkType[] orderDrink = new DrinkType[N];
+        CustomerType[] custType = new CustomerType[N];
 
-        // Individual order details for drill-down
-        List<Map<String, Object>> orderDetails = new ArrayList<>();
+        double clock = 0;
         for (int i = 0; i < N; i++) {
-            Map<String, Object> od = new LinkedHashMap<>();
-            od.put("id", i + 1);
-            od.put("drink", orderDrink[i].getDisplayName());
-            od.put("prepTime", orderDrink[i].getPreparationTime());
-            od.put("customerType", custType[i].getDisplayName());
-            od.put("arrivalMinute", r2(arrivalMin[i]));
-            od.put("waitTime", r2(smartWait[i]));
-            od.put("totalTime", r2(smartTotal[i]));
-            od.put("served", smartServed[i]);
-            od.put("complaint", !smartServed[i] || smartTotal[i] > 10.0);
-            od.put("barista", smartBarista[i] >= 0 ? "Barista " + (smartBarista[i] + 1) : "—");
-            od.put("skippedBy", skipped[i]);
-            orderDetails.add(od);
+            clock += -Math.log(1 - rng.nextDouble()) / lambda; // Exponential inter-arrival
+            arrivalMin[i] = clock;
+            orderDrink[i] = drinks[rng.nextInt(drinks.length)];
+            custType[i] = getWeightedCustomerType(rng);
         }
-        stats.put("orderDetails", orderDetails);
+        return new ArrivalTrace(arrivalMin, orderDrink, custType);
+    }
 
-        System.out.println("=== Rush Hour Simulation Complete ===");
-        System.out.println("SMART: Avg Wait=" + r2(smartAvgWait) + " min, Complaints=" + smartComplaintCount + "/" + N);
-        System.out.println("FIFO:  Avg Wait=" + r2(fifoAvgWait) + " min, Complaints=" + fifoComplaintCount + "/" + N);
-        System.out.println("Improvement: Wait -" + stats.get("waitTimeImprovement") + "%, Complaints -" + stats.get("complaintReduction") + "%");
+    /**
+     * Arrivals of one of the last RECENT_RUNS rush-hour runs, to replay them under other settings
+     */
+    public synchronized Optional<ArrivalTrace> getRunArrivals(int runId) {
+        return Optional.ofNullable(recentRuns.get(runId)).map(details -> new ArrivalTrace(
+                details.getArrivalMinutes(), details.getDrinks(), details.getCustomerTypes()));
+    }
 
-        return stats;
+    /**
+     * Outcome of one policy over one trace: complaints (abandoned or over 10 min, plus customers
+     * past the horizon), 95th-percentile wait of the customers who arrived, and orders served
+     * after more than 3 later arrivals
+     */
+    public record TrialResult(int orders, int complaints, double p95Wait, int fairnessViolations,
+                              double averageWait) {
+    }
+
+    /**
+     * Single whole-order pass of a policy over a trace, without batching, FIFO or pipeline
+     * comparisons and without remembering the run (the weight tuner runs many of these in parallel)
+     */
+    public TrialResult runTrial(ArrivalTrace trace, int baristas, double horizon, SchedulingPolicy policy) {
+        SimulationRun run = runSimulation(new SimulationRun(trace.size(), baristas), trace.arrivalMinutes(),
+                trace.drinks(), trace.customerTypes(), policy, 1, null, horizon, SimulationListener.NONE,
+                "trial", 0);
+        int arrived = trace.size() - run.beyondHorizon;
+        double[] waits = Arrays.copyOf(run.wait, arrived);
+        Arrays.sort(waits);
+        double p95 = arrived > 0 ? waits[Math.min(arrived - 1, (int) Math.ceil(0.95 * arrived) - 1)] : 0;
+        int fairnessViolations = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            if (run.served[i] && run.skipped[i] > 3) fairnessViolations++;
+        }
+        return new TrialResult(trace.size(), run.complaintCount(), p95, fairnessViolations, run.averageWait());
+    }
+
+    /**
+     * Station pipeline results next to the whole-order run of the same policy
+     * Throughput gain: barista minutes per served order, whole-order tasks vs pipeline
+     * (hands-on stages only). Utilization is over the pipeline run's makespan.
+     */
+    private Map<String, Object> pipelineComparison(SimulationRun run, StagePipeline<Integer> stages,
+                                                   double[] arrivalMin, int singleServed, double singleWork) {
+        int served = 0;
+        double totalWait = 0, totalCompletion = 0, makespan = 0;
+        for (int i = 0; i < arrivalMin.length; i++) {
+            if (run.served[i]) {
+                served++;
+                totalWait += run.wait[i];
+                totalCompletion += run.total[i];
+                makespan = Math.max(makespan, arrivalMin[i] + run.total[i]);
+            }
+        }
+        int B = run.bWork.length;
+        double handsOnWork = sum(run.bWork);
+        int complaints = run.complaintCount();
+
+        Map<String, Object> utilization = new LinkedHashMap<>();
+        utilization.put("Barista", makespan > 0 ? r1(handsOnWork * 100.0 / (B * makespan)) : 0);
+        Map<String, Integer> units = new LinkedHashMap<>();
+        for (Station station : Station.values()) {
+            utilization.put(station.getDisplayName(), r1(stages.utilization(station, makespan) * 100));
+            units.put(station.getDisplayName(), stages.capacity(station));
+        }
+
+        Map<String, Object> pipeline = new LinkedHashMap<>();
+        pipeline.put("ordersServed", served);
+        pipeline.put("averageWaitTime", r2(served > 0 ? totalWait / served : 0));
+        pipeline.put("averageCompletionTime", r2(served > 0 ? totalCompletion / served : 0));
+        pipeline.put("totalComplaints", complaints);
+        pipeline.put("complaintRate", r1(complaints * 100.0 / arrivalMin.length));
+        pipeline.put("stationUnits", units);
+        pipeline.put("utilization", utilization);
+        double singleMinutesPerOrder = singleServed > 0 ? singleWork / singleServed : 0;
+        double pipelineMinutesPerOrder = served > 0 ? handsOnWork / served : 0;
+        pipeline.put("throughputGain", pipelineMinutesPerOrder > 0
+                ? r1((singleMinutesPerOrder / pipelineMinutesPerOrder - 1) * 100) : 0);
+        return pipeline;
+    }
+
+    /**
+     * Station units for a simulated bar: the live bar's units per barista, scaled to its barista count
+     */
+    private Map<Station, Integer> scaledStations(int baristas) {
+        int liveBaristas = Math.max(1, baristaService.getAllBaristas().size());
+        Map<Station, Integer> scaled = new EnumMap<>(Station.class);
+        baristaService.getStationCapacities().forEach((station, units) ->
+                scaled.put(station, (int) Math.ceil(units * (double) baristas / liveBaristas)));
+        return scaled;
+    }
+
+    private synchronized int rememberRun(RushHourOrderDetails orderDetails) {
+        recentRuns.put(++lastRunId, orderDetails);
+        return lastRunId;
+    }
+
+    /**
+     * Order details of one of the last RECENT_RUNS rush-hour runs
+     */
+    public synchronized Optional<RushHourOrderDetails> getRunDetails(int runId) {
+        return Optional.ofNullable(recentRuns.get(runId));
+    }
+
+    /**
+     * Per-run state of a rush-hour simulation (one slot per order / barista)
+     * Fairness: every dispatch is counted at its arrival rank, so the later arrivals served
+     * ahead of a waiting order are dispatched.countAbove(order); skipped[] is frozen from it
+     * when the order leaves the queue. Urgent waiting orders (inside the urgency ramp)
+     * are counted per drink for the batching guard.
+     */
+    private static class SimulationRun {
+        final double[] wait;
+        final double[] total;
+        final boolean[] served;
+        final int[] barista;
+        final int[] skipped;
+        final boolean[] urgent;
+        final FenwickTree dispatched;
+        final int[] urgentByDrink = new int[DrinkType.values().length];
+        int urgentTotal = 0;
+        final double[] bWork;
+        final int[] bCount;
+        int beyondHorizon = 0;
+        int batches = 0;
+        int batchedOrders = 0;
+        double sequentialPrepMinutes = 0;
+
+        // Running totals for progress reporting
+        int servedSoFar = 0;
+        int complaintsSoFar = 0;
+        double waitSoFar = 0;
+
+        SimulationRun(int n, int baristas) {
+            bWork = new double[baristas];
+            bCount = new int[baristas];
+            wait = new double[n];
+            total = new double[n];
+            served = new boolean[n];
+            barista = new int[n];
+            skipped = new int[n];
+            urgent = new boolean[n];
+            dispatched = new FenwickTree(n);
+            Arrays.fill(barista, -1);
+        }
+
+        /**
+         * Clear for another pass over the same orders
+         */
+        void reset() {
+            Arrays.fill(wait, 0);
+            Arrays.fill(total, 0);
+            Arrays.fill(served, false);
+            Arrays.fill(barista, -1);
+            Arrays.fill(skipped, 0);
+            Arrays.fill(urgent, false);
+            Arrays.fill(urgentByDrink, 0);
+            Arrays.fill(bWork, 0);
+            Arrays.fill(bCount, 0);
+            dispatched.clear();
+            urgentTotal = 0;
+            beyondHorizon = 0;
+            batches = 0;
+            batchedOrders = 0;
+            sequentialPrepMinutes = 0;
+            servedSoFar = 0;
+            complaintsSoFar = 0;
+            waitSoFar = 0;
+        }
+
+        int servedAhead(int idx) {
+            return dispatched.countAbove(idx);
+        }
+
+        void markUrgent(int idx, DrinkType drink) {
+            urgent[idx] = true;
+            urgentByDrink[drink.ordinal()]++;
+            urgentTotal++;
+        }
+
+        boolean urgentOtherThan(DrinkType drink) {
+            return urgentTotal > urgentByDrink[drink.ordinal()];
+        }
+
+        /**
+         * Order left the queue (served, abandoned or still waiting at the end)
+         */
+        void leave(int idx, DrinkType drink) {
+            skipped[idx] = servedAhead(idx);
+            if (urgent[idx]) {
+                urgent[idx] = false;
+                urgentByDrink[drink.ordinal()]--;
+                urgentTotal--;
+            }
+        }
+
+        void dispatch(int idx, DrinkType drink) {
+            leave(idx, drink);
+            dispatched.add(idx);
+        }
+
+        int servedCount() {
+            int count = 0;
+            for (boolean s : served) if (s) count++;
+            return count;
+        }
+
+        int complaintCount() {
+            int count = 0;
+            for (int i = 0; i < served.length; i++) {
+                if (!served[i] || total[i] > 10.0) count++;
+            }
+            return count;
+        }
+
+        double averageWait() {
+            int count = 0;
+            double sum = 0;
+            for (int i = 0; i < served.length; i++) {
+                if (served[i]) {
+                    count++;
+                    sum += wait[i];
+                }
+            }
+            return count > 0 ? sum / count : 0;
+        }
+    }
+
+    /**
+     * Rush-hour simulation of one scheduling policy over a fixed arrival schedule
+     * Orders are array indices in arrival order; the policy sees them through a JobView over
+     * the arrays. maxBatch > 1 lets a free barista pour up to maxBatch same-drink orders as one
+     * task (never while another drink is in its urgency window; companions count for fairness).
+     * With a stage pipeline, orders are admitted into it instead of going to one barista: its
+     * stages run at their exact event times between steps, and barista work is hands-on time.
+     * Timeouts and urgency windows are found with one arrival-order cursor per customer type
+     * and skip counts come from the run's Fenwick tree, so a step costs the policy's own
+     * queue operations rather than passes over everything that is waiting.
+     */
+    private SimulationRun runSimulation(SimulationRun run, double[] arrivalMin, DrinkType[] orderDrink,
+                                        CustomerType[] custType, SchedulingPolicy policy, int maxBatch,
+                                        StagePipeline<Integer> pipeline,
+                                        double horizon, SimulationListener listener,
+                                        String phase, int phaseIndex) {
+        int N = arrivalMin.length;
+        int B = run.bWork.length;
+        double[] bWork = run.bWork;
+        double[] bFreeAt = new double[B];
+        double reportEvery = Math.max(0.5, horizon / 100);  // ~1% steps
+        double nextReport = 0;
+
+        JobView<Integer> view = new JobView<>() {
+            @Override
+            public long sequence(Integer idx) {
+                return idx;
+            }
+
+            @Override
+            public double arrivalMinute(Integer idx) {
+                return arrivalMin[idx];
+            }
+
+            @Override
+            public DrinkType drinkType(Integer idx) {
+                return orderDrink[idx];
+            }
+
+            @Override
+            public CustomerType customerType(Integer idx) {
+                return custType[idx];
+            }
+
+            @Override
+            public int peopleServedAhead(Integer idx) {
+                return run.servedAhead(idx);
+            }
+        };
+        PolicyQueue<Integer> queue = policy.createQueue(view);
+        StagePipeline.Listener<Integer> stages = new StagePipeline.Listener<>() {
+            @Override
+            public void stepStarted(Integer idx, int stepIndex, RecipeStep step, int worker, double at) {
+                if (stepIndex == 0) {
+                    run.wait[idx] = at - arrivalMin[idx];
+                }
+                if (worker >= 0) {
+                    bWork[worker] += step.minutes();
+                    run.barista[idx] = worker;
+                }
+            }
+
+            @Override
+            public void completed(Integer idx, double at) {
+                run.total[idx] = at - arrivalMin[idx];
+                if (run.barista[idx] >= 0) {
+                    run.bCount[run.barista[idx]]++;
+                }
+                run.servedSoFar++;
+                run.waitSoFar += run.wait[idx];
+                if (run.total[idx] > 10.0) {
+                    run.complaintsSoFar++;
+                }
+            }
+        };
+        int nextArr = 0;
+        CustomerType[] types = CustomerType.values();
+        int[] timeoutCursor = new int[types.length];
+        int[] urgentCursor = new int[types.length];
+        double urgencyRamp = policy.weights().urgencyRampMinutes();  // the ramp the policy scores with
+        int[] batch = new int[maxBatch];
+
+        // Time-step at 0.5 min (30 sec) — spec says recalculate every 30 seconds
+        double now;
+        for (now = 0; now <= horizon; now += 0.5) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Simulation cancelled");
+            }
+            if (now >= nextReport) {
+                reportProgress(run, listener, phase, phaseIndex, nextArr, N, now, horizon);
+                nextReport = now + reportEvery;
+            }
+
+            // 1. Add new arrivals
+            while (nextArr < N && arrivalMin[nextArr] <= now) {
+                queue.offer(nextArr);
+                nextArr++;
+            }
+
+            // 2. Customer abandonment — customers leave at timeout threshold
+            for (CustomerType type : types) {
+                int c = timeoutCursor[type.ordinal()];
+                while (c < nextArr && now - arrivalMin[c] >= type.getTimeoutMinutes()) {
+                    if (custType[c] == type && queue.remove(c)) {
+                        double waited = now - arrivalMin[c];
+                        run.served[c] = false;
+                        run.wait[c] = waited;
+                        run.total[c] = waited;
+                        run.complaintsSoFar++;
+                        run.leave(c, orderDrink[c]);
+                    }
+                    c++;
+                }
+                timeoutCursor[type.ordinal()] = c;
+            }
+
+            // Orders entering their urgency window (the scoring ramp before timeout) block batching
+            if (maxBatch > 1) {
+                for (CustomerType type : types) {
+                    int c = urgentCursor[type.ordinal()];
+                    while (c < nextArr && now - arrivalMin[c] >= type.getTimeoutMinutes() - urgencyRamp) {
+                        if (custType[c] == type && queue.contains(c)) {
+                            run.markUrgent(c, orderDrink[c]);
+                        }
+                        c++;
+                    }
+                    urgentCursor[type.ordinal()] = c;
+                }
+            }
+
+            if (queue.isEmpty()) {
+                if (nextArr >= N) break;
+                continue;
+            }
+
+            // 3a. Station pipeline: finish due stages, then admit orders while it has room
+            if (pipeline != null) {
+                pipeline.advanceTo(now, stages);
+                while (pipeline.hasRoom() && !queue.isEmpty()) {
+                    int selectedIdx = queue.poll(now, WorkloadHint.BALANCED);
+                    run.dispatch(selectedIdx, orderDrink[selectedIdx]);
+                    run.served[selectedIdx] = true;
+                    pipeline.admit(selectedIdx, now, stages);
+                }
+                if (nextArr >= N && queue.isEmpty()) break;
+                continue;
+            }
+
+            // 3. Assign orders to free baristas (policy picks, with workload hint)
+            double avgWork = sum(bWork) / B;
+            for (int b = 0; b < B; b++) {
+                if (bFreeAt[b] <= now && !queue.isEmpty()) {
+                    double workRatio = avgWork > 0 ? bWork[b] / avgWork : 1.0;
+                    int selectedIdx = queue.poll(now, policy.workloadHint(workRatio));
+                    DrinkType drink = orderDrink[selectedIdx];
+                    run.dispatch(selectedIdx, drink);
+
+                    int batchSize = 0;
+                    batch[batchSize++] = selectedIdx;
+                    int limit = Math.min(maxBatch, drink.getMaxBatchSize());
+                    if (limit > 1 && !run.urgentOtherThan(drink)) {
+                        for (int candidate : queue.topInServiceOrder(now, limit - 1,
+                                idx -> orderDrink[idx] == drink)) {
+                            queue.remove(candidate);
+                            run.dispatch(candidate, drink);
+                            batch[batchSize++] = candidate;
+                        }
+                    }
+
+                    double prepTime = drink.getBatchPreparationTime(batchSize);
+                    double serviceStart = Math.max(bFreeAt[b], now);
+                    double serviceEnd = serviceStart + prepTime;
+
+                    for (int k = 0; k < batchSize; k++) {
+                        int idx = batch[k];
+                        run.served[idx] = true;
+                        run.wait[idx] = serviceStart - arrivalMin[idx];
+                        run.total[idx] = serviceEnd - arrivalMin[idx];
+                        run.barista[idx] = b;
+                        run.servedSoFar++;
+                        run.waitSoFar += run.wait[idx];
+                        if (run.total[idx] > 10.0) {
+                            run.complaintsSoFar++;
+                        }
+                    }
+
+                    bFreeAt[b] = serviceEnd;
+                    bWork[b] += prepTime;
+                    run.bCount[b] += batchSize;
+                    run.sequentialPrepMinutes += drink.getPreparationTime() * batchSize;
+                    if (batchSize > 1) {
+                        run.batches++;
+                        run.batchedOrders += batchSize;
+                    }
+                }
+            }
+
+            if (nextArr >= N && queue.isEmpty()) break;
+        }
+
+        // Orders already in the pipeline are finished
+        if (pipeline != null) {
+            pipeline.drain(stages);
+        }
+
+        // Mark any still-waiting as abandoned
+        double end = Math.min(now, horizon);
+        for (int idx : queue) {
+            run.served[idx] = false;
+            run.wait[idx] = end - arrivalMin[idx];
+            run.total[idx] = run.wait[idx];
+            run.leave(idx, orderDrink[idx]);
+        }
+        // Customers scheduled after the horizon never arrived
+        run.beyondHorizon = N - nextArr;
+
+        reportProgress(run, listener, phase, phaseIndex, N, N, horizon, horizon);
+        return run;
+    }
+
+    private void reportProgress(SimulationRun run, SimulationListener listener, String phase, int phaseIndex,
+                                int arrived, int N, double now, double horizon) {
+        // A pass is done when every order has arrived or time runs out, whichever comes first
+        double passFraction = Math.max(arrived / (double) N, Math.min(1.0, now / horizon));
+        listener.onProgress(phase, (phaseIndex + passFraction) / PASSES, run.servedSoFar, run.complaintsSoFar,
+                run.servedSoFar > 0 ? run.waitSoFar / run.servedSoFar : 0);
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double v : values) {
+            total += v;
+        }
+        return total;
     }
 
     private double r2(double v) { return Math.round(v * 100) / 100.0; }
     private double r1(double v) { return Math.round(v * 10) / 10.0; }
     
-    private int getPoissonRandom(double lambda) {
-        double L = Math.exp(-lambda);
-        double p = 1.0;
-        int k = 0;
-        
-        do {
-            k++;
-            p *= random.nextDouble();
-        } while (p > L);
-        
-        return k - 1;
-    }
-    
-    private CustomerType getWeightedCustomerType(Random random) {
+    private CustomerType getWeightedCustomerType(SplittableRandom random) {
         // 20% Gold, 50% Regular, 30% New (realistic distribution)
         int rand = random.nextInt(100);
         if (rand < 20) return CustomerType.GOLD;
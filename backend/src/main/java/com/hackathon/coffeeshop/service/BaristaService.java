@@ -1,19 +1,48 @@
 package com.hackathon.coffeeshop.service;
 
+import com.hackathon.coffeeshop.dto.BaristaStatusDto;
+import com.hackathon.coffeeshop.logging.EventLogger;
 import com.hackathon.coffeeshop.model.Barista;
+import com.hackathon.coffeeshop.model.DrinkType;
 import com.hackathon.coffeeshop.model.Order;
+import com.hackathon.coffeeshop.model.RecipeStep;
+import com.hackathon.coffeeshop.model.Station;
+import com.hackathon.coffeeshop.repository.OrderHistoryRepository;
+import com.hackathon.coffeeshop.scheduling.StagePipeline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
  * Barista Management Service with Workload Balancing
  * Implements load balancing: overloaded baristas prefer quick orders
+ * Look-ahead: a barista whose task ends before the next tick gets the next task reserved,
+ * and it starts at the exact end of the current one instead of waiting for the tick.
+ * Completions are event-driven: every task start schedules a completion event at its exact
+ * end time, and each tick drains only the events that are due, in time order.
+ * Station pipeline (pipeline.enabled): orders run stage by stage over shared machines
+ * (StagePipeline), baristas are busy only for hands-on stages, and stages of different
+ * orders overlap. Switching models waits until no task is in flight.
+ * Public methods are synchronized: the scheduler thread and request threads (an order POST
+ * assigns immediately) share the baristas, completion events and pipeline. Lock order is
+ * BaristaService then QueueService; QueueService never calls back into this service.
  */
 @Service
 public class BaristaService {
@@ -21,36 +50,284 @@ public class BaristaService {
     private final List<Barista> baristas = new ArrayList<>();
     private final QueueService queueService;
     
-    public BaristaService(QueueService queueService) {
+    /**
+     * Pending task end of a busy barista (one per busy barista, ordered by time then barista)
+     */
+    private record CompletionEvent(LocalDateTime at, int baristaId, Barista barista) { }
+    
+    private static final Comparator<CompletionEvent> EVENT_ORDER =
+            Comparator.comparing(CompletionEvent::at).thenComparingInt(CompletionEvent::baristaId);
+    
+    private final NavigableSet<CompletionEvent> completionEvents = new TreeSet<>(EVENT_ORDER);
+    
+    // Batching throughput tracking
+    private int tasksDispatched = 0;
+    private int batchesDispatched = 0;   // tasks with more than one order
+    private int batchedOrders = 0;       // orders that were part of a multi-order batch
+    private double sequentialPrepMinutes = 0.0;  // prep time if every order were poured alone
+    private double actualPrepMinutes = 0.0;      // prep time actually spent (batched)
+    
+    // Look-ahead pre-assignment
+    private boolean lookAheadEnabled;
+    private double lookAheadMinutes;  // reserve when the current task ends within this many minutes
+    private int reservations = 0;     // tasks reserved ahead of time
+    private int handoffs = 0;         // reserved tasks started the moment the previous one ended
+    
+    // Station pipeline (worker i of the pipeline is baristas.get(i))
+    private final Map<Station, Integer> stationCapacities = new EnumMap<>(Station.class);
+    private StagePipeline<Order> pipeline;
+    private boolean pipelineRequested;
+    private boolean pipelineActive = false;
+    private LocalDateTime pipelineSince;      // pipeline clock origin (minute 0)
+    private int pipelineOrders = 0;           // orders completed through the pipeline
+    private double pipelinePrepMinutes = 0.0; // their prep time as whole-order tasks
+    private final StagePipeline.Listener<Order> stageListener = new StageListener();
+    
+    // Committed minutes as of the last assignment / completion pass, for the admission gate
+    private volatile double committedMinutes = 0.0;
+    
+    // Barista stats snapshots for the history store
+    private final OrderHistoryRepository history;
+    private LocalDateTime lastStatsSnapshot;
+    
+    private final DistributionSummary assignBatchSize;
+    private final TickProfiler profiler;
+    private final EventLogger events;
+    
+    public BaristaService(QueueService queueService, MeterRegistry meterRegistry, TickProfiler profiler,
+                          EventLogger events, Environment environment, OrderHistoryRepository history,
+                          @Value("${baristas.lookahead.enabled:true}") boolean lookAheadEnabled,
+                          @Value("${baristas.lookahead.threshold-minutes:1.0}") double lookAheadMinutes) {
         this.queueService = queueService;
+        this.profiler = profiler;
+        this.events = events;
+        this.history = history;
+        setLookAhead(lookAheadEnabled, lookAheadMinutes);
+        for (Station station : Station.values()) {
+            stationCapacities.put(station, Math.max(1, environment.getProperty(
+                    "pipeline.stations." + station.name(), Integer.class, station.getDefaultCapacity())));
+            Gauge.builder("coffee.pipeline.station.busy", this, service -> service.stationUnitsInUse(station))
+                    .tag("station", station.name())
+                    .description("Station units running a pipeline stage")
+                    .register(meterRegistry);
+        }
+        this.pipelineRequested = environment.getProperty("pipeline.enabled", Boolean.class, false);
+        this.assignBatchSize = DistributionSummary.builder("coffee.assign.batch.size")
+                .description("Orders handed to baristas per assignOrders call")
+                .register(meterRegistry);
+        Gauge.builder("coffee.baristas.busy", this, service -> service.getBaristaStats().get("busy"))
+                .description("Baristas currently preparing an order")
+                .register(meterRegistry);
         
         // Initialize 3 baristas
         baristas.add(new Barista(1, "Barista 1"));
         baristas.add(new Barista(2, "Barista 2"));
         baristas.add(new Barista(3, "Barista 3"));
+        baristas.forEach(barista -> barista.markIdleSince(queueService.getSimulatedTime()));
+        this.lastStatsSnapshot = queueService.getSimulatedTime();
+        this.pipeline = new StagePipeline<>(stationCapacities, baristas.size(),
+                order -> order.getDrinkType().getRecipe());
     }
 
     /**
      * Automatically assign orders to free baristas with workload balancing
      */
-    public void assignOrders() {
+    public synchronized void assignOrders() {
+        assignQueuedOrders();
+        committedMinutes = computeCommittedMinutes();
+    }
+
+    private void assignQueuedOrders() {
         LocalDateTime currentTime = queueService.getSimulatedTime();
         double averageWorkMinutes = calculateAverageWorkload();
         
+        if (!applyPipelineMode(currentTime)) {
+            return;  // draining in-flight tasks before switching production model
+        }
+        if (pipelineActive) {
+            int admitted = admitToPipeline(currentTime, averageWorkMinutes);
+            assignBatchSize.record(admitted);
+            profiler.touched(admitted);
+            if (admitted > 0) {
+                queueService.markStateChanged();
+            }
+            return;
+        }
+        
         // Check if any baristas are free
         List<Barista> freeBaristas = baristas.stream()
                 .filter(Barista::isFree)
                 .collect(Collectors.toList());
         
         // Assign orders to free baristas (with workload consideration)
+        int assigned = 0;
         for (Barista barista : freeBaristas) {
-            Order nextOrder = queueService.getNextOrder(barista, averageWorkMinutes);
-            if (nextOrder != null) {
-                barista.assignOrder(nextOrder, currentTime);
-                System.out.println(String.format("✅ %s assigned Order #%d (%s) - %s customer - Priority: %.1f",
-                        barista.getName(), nextOrder.getId(), nextOrder.getDrinkType().getDisplayName(),
-                        nextOrder.getCustomerType().getDisplayName(), nextOrder.getPriorityScore()));
+            List<Order> batch = queueService.getNextBatch(barista, averageWorkMinutes);
+            if (!batch.isEmpty()) {
+                barista.assignBatch(batch, currentTime);
+                scheduleCompletion(barista);
+                recordAssignment(barista, batch);
+                assigned += batch.size();
+            }
+        }
+        if (lookAheadEnabled) {
+            assigned += reserveAhead(currentTime, averageWorkMinutes);
+        }
+        assignBatchSize.record(assigned);
+        profiler.touched(assigned);
+        if (assigned > 0) {
+            queueService.markStateChanged();
+        }
+    }
+
+    /**
+     * Reserve the next task for busy baristas that finish before the next tick
+     * (soonest finisher first, so it gets the order the policy ranks highest)
+     * The completion events are already in end-time order, so only the head of the event
+     * set up to the look-ahead horizon is visited.
+     * @return orders reserved
+     */
+    private int reserveAhead(LocalDateTime currentTime, double averageWorkMinutes) {
+        LocalDateTime horizon = currentTime.plusSeconds(Math.round(lookAheadMinutes * 60));
+        List<Barista> finishing = new ArrayList<>();
+        for (CompletionEvent event : completionEvents) {
+            if (!event.at().isBefore(horizon)) {
+                break;
+            }
+            if (!event.barista().hasReservation()) {
+                finishing.add(event.barista());
+            }
+        }
+        
+        int reserved = 0;
+        for (Barista barista : finishing) {
+            List<Order> batch = queueService.getNextBatch(barista, averageWorkMinutes);
+            if (batch.isEmpty()) {
+                break;
             }
+            barista.reserveBatch(batch);
+            reservations++;
+            recordAssignment(barista, batch);
+            reserved += batch.size();
+        }
+        return reserved;
+    }
+
+    /**
+     * Admit queued orders into the station pipeline while it has room (an idle barista for
+     * every order already waiting for a stage); the policy picks each order
+     * @return orders admitted
+     */
+    private int admitToPipeline(LocalDateTime currentTime, double averageWorkMinutes) {
+        double now = pipelineMinutes(currentTime);
+        int admitted = 0;
+        while (pipeline.hasRoom()) {
+            Barista next = baristas.stream().filter(Barista::isFree).findFirst().orElse(baristas.get(0));
+            Order order = queueService.getNextOrder(next, averageWorkMinutes);
+            if (order == null) {
+                break;
+            }
+            recordTask(List.of(order));
+            pipeline.admit(order, now, stageListener);
+            admitted++;
+        }
+        return admitted;
+    }
+
+    /**
+     * Switch production model once nothing is in flight
+     * @return false while a requested switch is still waiting for tasks to finish
+     */
+    private boolean applyPipelineMode(LocalDateTime currentTime) {
+        if (pipelineRequested == pipelineActive) {
+            return true;
+        }
+        boolean idle = pipeline.isEmpty() && baristas.stream()
+                .allMatch(barista -> barista.isFree() && !barista.hasReservation());
+        if (!idle) {
+            return false;
+        }
+        pipelineActive = pipelineRequested;
+        if (pipelineActive) {
+            pipeline.clear();
+            pipelineOrders = 0;
+            pipelinePrepMinutes = 0.0;
+            pipelineSince = currentTime;
+        }
+        return true;
+    }
+
+    /**
+     * Minutes on the pipeline clock (the first use after a reset becomes minute 0)
+     */
+    private double pipelineMinutes(LocalDateTime time) {
+        if (pipelineSince == null) {
+            pipelineSince = time;
+        }
+        return ChronoUnit.SECONDS.between(pipelineSince, time) / 60.0;
+    }
+
+    private LocalDateTime pipelineTime(double minutes) {
+        return pipelineSince.plusSeconds(Math.round(minutes * 60));
+    }
+
+    /**
+     * Mirrors pipeline stages onto the baristas and completes orders at their exact end
+     */
+    private final class StageListener implements StagePipeline.Listener<Order> {
+        @Override
+        public void stepStarted(Order order, int stepIndex, RecipeStep step, int worker, double at) {
+            if (worker < 0) {
+                return;
+            }
+            Barista barista = baristas.get(worker);
+            barista.startStage(order, step, pipelineTime(at));
+            order.setBarista(barista.getName());
+            if (stepIndex == 0) {
+                events.orderAssigned(barista.getName(), order.getId(), order.getDrinkType(),
+                        order.getCustomerType(), order.getPriorityScore(), 1);
+            }
+        }
+
+        @Override
+        public void stepFinished(Order order, int stepIndex, RecipeStep step, int worker, double at) {
+            if (worker >= 0) {
+                baristas.get(worker).finishStage(pipelineTime(at),
+                        stepIndex == order.getDrinkType().getRecipe().size() - 1);
+            }
+        }
+
+        @Override
+        public void completed(Order order, double at) {
+            LocalDateTime completedAt = pipelineTime(at);
+            events.orderCompleted(null, order.getId(), order.getDrinkType(), order.getWaitTime(completedAt));
+            queueService.completeOrder(order, completedAt);
+            pipelineOrders++;
+            pipelinePrepMinutes += order.getDrinkType().getPreparationTime();
+            profiler.touched(1);
+        }
+    }
+
+    private void recordAssignment(Barista barista, List<Order> batch) {
+        recordTask(batch);
+        for (Order order : batch) {
+            order.setBarista(barista.getName());
+            events.orderAssigned(barista.getName(), order.getId(), order.getDrinkType(),
+                    order.getCustomerType(), order.getPriorityScore(), batch.size());
+        }
+    }
+
+    /**
+     * Track sequential vs batched prep time for the throughput gain metric
+     */
+    private void recordTask(List<Order> batch) {
+        DrinkType drink = batch.get(0).getDrinkType();
+        tasksDispatched++;
+        sequentialPrepMinutes += drink.getPreparationTime() * batch.size();
+        actualPrepMinutes += drink.getBatchPreparationTime(batch.size());
+        if (batch.size() > 1) {
+            batchesDispatched++;
+            batchedOrders += batch.size();
         }
     }
 
@@ -65,70 +342,119 @@ public class BaristaService {
     }
 
     /**
-     * Check and complete finished orders
-     * Called every minute by scheduler
+     * Schedule the completion event of the task the barista just started
+     */
+    private void scheduleCompletion(Barista barista) {
+        completionEvents.add(new CompletionEvent(barista.getTaskEndTime(), barista.getId(), barista));
+    }
+
+    /**
+     * Complete every task that ended by now, at its exact end time
+     * Called every minute by scheduler. Events are drained in time order; a reserved task
+     * starts at the instant the previous one ends and schedules its own event, which is
+     * handled in the same pass if it also ends before now.
      */
-    public void checkCompletedOrders() {
+    public synchronized void checkCompletedOrders() {
         LocalDateTime currentTime = queueService.getSimulatedTime();
         
-        for (Barista barista : baristas) {
+        if (!pipeline.isEmpty()) {
+            pipeline.advanceTo(pipelineMinutes(currentTime), stageListener);
+            queueService.markStateChanged();
+        }
+        
+        while (!completionEvents.isEmpty() && !completionEvents.first().at().isAfter(currentTime)) {
+            CompletionEvent event = completionEvents.pollFirst();
+            Barista barista = event.barista();
+            
+            // Task is complete (every order of a batch finishes together)
+            for (Order completedOrder : barista.getCurrentBatch()) {
+                events.orderCompleted(barista.getName(), completedOrder.getId(),
+                        completedOrder.getDrinkType(), completedOrder.getWaitTime(event.at()));
+                queueService.completeOrder(completedOrder, event.at());
+            }
+            profiler.touched(barista.getCurrentBatch().size());
+            if (barista.hasReservation()) {
+                handoffs++;
+            }
+            barista.finishTask();
             if (!barista.isFree()) {
-                double timeRemaining = barista.getTimeRemaining(currentTime);
-                
-                if (timeRemaining <= 0) {
-                    // Order is complete
-                    Order completedOrder = barista.getCurrentOrder();
-                    System.out.println(String.format("✅ %s completed Order #%d - Wait time: %.1f min",
-                            barista.getName(), completedOrder.getId(), 
-                            completedOrder.getWaitTime(currentTime)));
-                    
-                    queueService.completeOrder(completedOrder);
-                    barista.completeOrder();
-                }
+                scheduleCompletion(barista);
             }
+            queueService.markStateChanged();
         }
         
         // After completing orders, try to assign new ones
-        assignOrders();
+        try (TickProfiler.Span phase = profiler.phase("assignOrders")) {
+            assignOrders();
+        }
+        snapshotStatsIfDue(currentTime);
+    }
+
+    /**
+     * Queue one stats row per barista for the history store every snapshot interval
+     */
+    private void snapshotStatsIfDue(LocalDateTime currentTime) {
+        if (!history.isEnabled()) {
+            return;
+        }
+        double sinceLast = ChronoUnit.SECONDS.between(lastStatsSnapshot, currentTime) / 60.0;
+        if (sinceLast < history.getBaristaStatsIntervalMinutes()) {
+            return;
+        }
+        lastStatsSnapshot = currentTime;
+        for (Barista barista : baristas) {
+            history.saveBaristaStats(new OrderHistoryRepository.BaristaStatsRow(currentTime, barista.getName(),
+                    barista.getOrdersCompleted(), barista.getTotalWorkMinutes(),
+                    barista.getIdleMinutes(currentTime)));
+        }
     }
 
     /**
      * Get status of all baristas for UI (with workload info)
      */
-    public List<Map<String, Object>> getBaristaStatus() {
+    public synchronized List<BaristaStatusDto> getBaristaStatus() {
         LocalDateTime currentTime = queueService.getSimulatedTime();
         double averageWorkload = calculateAverageWorkload();
         
-        return baristas.stream()
-                .map(barista -> {
-                    Map<String, Object> status = new HashMap<>();
-                    status.put("id", barista.getId());
-                    status.put("name", barista.getName());
-                    status.put("status", barista.getStatus().toString());
-                    status.put("workloadRatio", Math.round(barista.getWorkloadRatio(averageWorkload) * 100) / 100.0);
-                    status.put("totalWorkMinutes", Math.round(barista.getTotalWorkMinutes() * 10) / 10.0);
-                    status.put("ordersCompleted", barista.getOrdersCompleted());
-                    
-                    if (!barista.isFree() && barista.getCurrentOrder() != null) {
-                        Order currentOrder = barista.getCurrentOrder();
-                        status.put("currentOrder", currentOrder.getDrinkType().getDisplayName());
-                        status.put("orderId", currentOrder.getId());
-                        status.put("customerType", currentOrder.getCustomerType().getDisplayName());
-                        status.put("timeRemaining", Math.round(barista.getTimeRemaining(currentTime) * 10) / 10.0);
-                    } else {
-                        status.put("currentOrder", null);
-                        status.put("timeRemaining", 0.0);
+        List<BaristaStatusDto> status = new ArrayList<>(baristas.size());
+        for (Barista barista : baristas) {
+            double workloadRatio = Math.round(barista.getWorkloadRatio(averageWorkload) * 100) / 100.0;
+            double totalWorkMinutes = Math.round(barista.getTotalWorkMinutes() * 10) / 10.0;
+            
+            if (!barista.isFree() && barista.getCurrentOrder() != null) {
+                Order currentOrder = barista.getCurrentOrder();
+                List<Integer> batchOrderIds = new ArrayList<>(barista.getCurrentBatch().size());
+                for (Order order : barista.getCurrentBatch()) {
+                    batchOrderIds.add(order.getId());
+                }
+                List<Integer> reservedOrderIds = null;
+                if (barista.hasReservation()) {
+                    reservedOrderIds = new ArrayList<>(barista.getReservedBatch().size());
+                    for (Order order : barista.getReservedBatch()) {
+                        reservedOrderIds.add(order.getId());
                     }
-                    
-                    return status;
-                })
-                .collect(Collectors.toList());
+                }
+                status.add(new BaristaStatusDto(barista.getId(), barista.getName(),
+                        barista.getStatus().toString(), workloadRatio, totalWorkMinutes,
+                        barista.getOrdersCompleted(), currentOrder.getDrinkType().getDisplayName(),
+                        currentOrder.getId(), currentOrder.getCustomerType().getDisplayName(),
+                        Math.round(barista.getTimeRemaining(currentTime) * 10) / 10.0,
+                        batchOrderIds.size(), batchOrderIds, reservedOrderIds,
+                        Math.round(barista.getIdleMinutes(currentTime) * 10) / 10.0));
+            } else {
+                status.add(new BaristaStatusDto(barista.getId(), barista.getName(),
+                        barista.getStatus().toString(), workloadRatio, totalWorkMinutes,
+                        barista.getOrdersCompleted(), null, null, null, 0.0, null, null, null,
+                        Math.round(barista.getIdleMinutes(currentTime) * 10) / 10.0));
+            }
+        }
+        return status;
     }
 
     /**
      * Get count of free vs busy baristas
      */
-    public Map<String, Integer> getBaristaStats() {
+    public synchronized Map<String, Integer> getBaristaStats() {
         Map<String, Integer> stats = new HashMap<>();
         long freeCount = baristas.stream().filter(Barista::isFree).count();
         long busyCount = baristas.size() - freeCount;
@@ -141,15 +467,228 @@ public class BaristaService {
     }
 
     /**
-     * Force complete all current orders (for testing)
+     * Batching statistics: how much prep time same-drink batching saved
+     * Throughput gain = sequential prep minutes / batched prep minutes - 1
      */
-    public void completeAllOrders() {
-        baristas.forEach(barista -> {
-            if (!barista.isFree()) {
-                queueService.completeOrder(barista.getCurrentOrder());
-                barista.completeOrder();
+    public synchronized Map<String, Object> getBatchingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        double savedMinutes = sequentialPrepMinutes - actualPrepMinutes;
+        double throughputGain = actualPrepMinutes > 0
+                ? (sequentialPrepMinutes / actualPrepMinutes - 1) * 100
+                : 0.0;
+        
+        stats.put("enabled", queueService.isBatchingEnabled());
+        stats.put("maxBatchSize", queueService.getMaxBatchSize());
+        stats.put("tasksDispatched", tasksDispatched);
+        stats.put("batchesDispatched", batchesDispatched);
+        stats.put("batchedOrders", batchedOrders);
+        stats.put("prepMinutesSaved", Math.round(savedMinutes * 10) / 10.0);
+        stats.put("throughputGain", Math.round(throughputGain * 10) / 10.0);
+        
+        return stats;
+    }
+
+    /**
+     * Look-ahead pre-assignment: per-barista idle minutes and how many tasks were reserved ahead
+     */
+    public synchronized Map<String, Object> getLookAheadStats() {
+        LocalDateTime currentTime = queueService.getSimulatedTime();
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Double> idleMinutes = new LinkedHashMap<>();
+        double totalIdle = 0.0;
+        for (Barista barista : baristas) {
+            double idle = barista.getIdleMinutes(currentTime);
+            idleMinutes.put(barista.getName(), Math.round(idle * 10) / 10.0);
+            totalIdle += idle;
+        }
+        
+        stats.put("enabled", lookAheadEnabled);
+        stats.put("thresholdMinutes", lookAheadMinutes);
+        stats.put("reservations", reservations);
+        stats.put("handoffs", handoffs);
+        stats.put("idleMinutes", idleMinutes);
+        stats.put("totalIdleMinutes", Math.round(totalIdle * 10) / 10.0);
+        
+        return stats;
+    }
+
+    /**
+     * Enable/disable look-ahead and set how close to the end of a task the next one is reserved
+     */
+    public synchronized void setLookAhead(boolean enabled, double thresholdMinutes) {
+        this.lookAheadEnabled = enabled;
+        this.lookAheadMinutes = Math.max(0.0, thresholdMinutes);
+    }
+
+    public synchronized boolean isLookAheadEnabled() {
+        return lookAheadEnabled;
+    }
+
+    public synchronized double getLookAheadMinutes() {
+        return lookAheadMinutes;
+    }
+
+    /**
+     * Station pipeline: per-station units and utilization, barista (hands-on) utilization,
+     * and the throughput gain over whole-order tasks (prep minutes the completed orders would
+     * have tied baristas up for / hands-on minutes they actually took - 1)
+     */
+    public synchronized Map<String, Object> getPipelineStats() {
+        LocalDateTime currentTime = queueService.getSimulatedTime();
+        double elapsed = pipelineSince != null && pipelineActive
+                ? Math.max(0, ChronoUnit.SECONDS.between(pipelineSince, currentTime) / 60.0)
+                : 0.0;
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> stations = new LinkedHashMap<>();
+        for (Station station : Station.values()) {
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("units", pipeline.capacity(station));
+            pool.put("inUse", pipeline.inUse(station));
+            pool.put("utilization", Math.round(pipeline.utilization(station, elapsed) * 1000) / 10.0);
+            stations.put(station.getDisplayName(), pool);
+        }
+        double handsOnMinutes = 0.0;
+        for (int worker = 0; worker < pipeline.workers(); worker++) {
+            handsOnMinutes += pipeline.workerBusyMinutes(worker);
+        }
+        double baristaUtilization = elapsed > 0 ? handsOnMinutes / (baristas.size() * elapsed) : 0.0;
+        double throughputGain = handsOnMinutes > 0 ? (pipelinePrepMinutes / handsOnMinutes - 1) * 100 : 0.0;
+        
+        stats.put("enabled", pipelineRequested);
+        stats.put("active", pipelineActive);
+        stats.put("inFlight", pipeline.inFlight());
+        stats.put("ordersCompleted", pipelineOrders);
+        stats.put("stations", stations);
+        stats.put("baristaUtilization", Math.round(Math.min(1.0, baristaUtilization) * 1000) / 10.0);
+        stats.put("handsOnMinutes", Math.round(handsOnMinutes * 10) / 10.0);
+        stats.put("throughputGain", Math.round(throughputGain * 10) / 10.0);
+        
+        return stats;
+    }
+
+    /**
+     * Request the station pipeline (true) or whole-order tasks (false); the switch happens
+     * on the next assignment once no task is in flight
+     */
+    public synchronized void setPipeline(boolean enabled) {
+        this.pipelineRequested = enabled;
+        applyPipelineMode(queueService.getSimulatedTime());
+    }
+
+    public synchronized boolean isPipelineEnabled() {
+        return pipelineRequested;
+    }
+
+    public synchronized boolean isPipelineActive() {
+        return pipelineActive;
+    }
+
+    /**
+     * Units per station in the live bar (the rush-hour simulator scales them with its barista count)
+     */
+    public Map<Station, Integer> getStationCapacities() {
+        return stationCapacities;
+    }
+
+    private synchronized int stationUnitsInUse(Station station) {
+        return pipeline.inUse(station);
+    }
+
+    /**
+     * Minutes until an in-progress order is ready: the rest of its pipeline recipe, or the
+     * time left on the barista task that holds it
+     */
+    public synchronized double getTimeRemaining(Order order) {
+        LocalDateTime currentTime = queueService.getSimulatedTime();
+        if (pipeline.contains(order)) {
+            return pipeline.remainingMinutes(order, pipelineMinutes(currentTime));
+        }
+        return findBaristaFor(order).map(barista -> barista.getTimeRemaining(order, currentTime)).orElse(0.0);
+    }
+
+    /**
+     * Minutes of work already committed to the baristas: what is left of running tasks and
+     * stages plus reserved tasks, as of the last assignment pass (every tick, order POST,
+     * mode switch and reset). Maintained under this service's lock and read without it, so
+     * the queue's arrival gate can use it while holding the queue lock.
+     */
+    public double getCommittedMinutes() {
+        return committedMinutes;
+    }
+
+    private double computeCommittedMinutes() {
+        LocalDateTime currentTime = queueService.getSimulatedTime();
+        double committed = pipeline.isEmpty() ? 0.0 : pipeline.totalRemainingMinutes(pipelineMinutes(currentTime));
+        for (Barista barista : baristas) {
+            if (barista.getCurrentStage() == null) {
+                committed += barista.getTimeRemaining(currentTime);
+            }
+            if (barista.hasReservation()) {
+                List<Order> reserved = barista.getReservedBatch();
+                committed += reserved.get(0).getDrinkType().getBatchPreparationTime(reserved.size());
             }
-        });
+        }
+        return committed;
+    }
+
+    /**
+     * Reset the entire system (the live store gets the next seed of the master sequence)
+     */
+    public synchronized void reset() {
+        reset(queueService::reset);
+    }
+
+    /**
+     * Reset the entire system and replay the live store's random draws from the given seed
+     */
+    public synchronized void reset(long seed) {
+        reset(() -> queueService.reset(seed));
+    }
+
+    /**
+     * Drop running, reserved and pipeline work without completing it (those orders belong to
+     * the store being reset, and the clock restarts), then reset the queue and the stats.
+     * Runs under this lock, so no tick can land between the two halves.
+     */
+    private void reset(Runnable resetQueue) {
+        pipeline.clear();
+        completionEvents.clear();
+        for (Barista barista : baristas) {
+            barista.clearReservation();
+            barista.releaseTask();
+        }
+        resetQueue.run();
+        resetStats();
+        baristas.forEach(barista -> barista.markIdleSince(queueService.getSimulatedTime()));
+    }
+
+    /**
+     * Reset batching statistics (system reset)
+     */
+    private void resetStats() {
+        tasksDispatched = 0;
+        batchesDispatched = 0;
+        batchedOrders = 0;
+        sequentialPrepMinutes = 0.0;
+        actualPrepMinutes = 0.0;
+        reservations = 0;
+        handoffs = 0;
+        pipelineOrders = 0;
+        pipelinePrepMinutes = 0.0;
+        pipelineSince = null;  // pipeline clock restarts with the (reset) simulated clock
+        pipeline.clear();
+        committedMinutes = 0.0;
+        lastStatsSnapshot = queueService.getSimulatedTime();
+    }
+
+    /**
+     * Barista preparing the given order (alone or in a batch) or holding it reserved, if any
+     */
+    public synchronized Optional<Barista> findBaristaFor(Order order) {
+        return baristas.stream()
+                .filter(barista -> barista.getCurrentBatch().contains(order)
+                        || barista.getReservedBatch().contains(order))
+                .findFirst();
     }
 
     public List<Barista> getAllBaristas() {
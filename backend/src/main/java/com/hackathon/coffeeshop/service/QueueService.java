@@ -1,172 +1,717 @@
 package com.hackathon.coffeeshop.service;
 
+import com.hackathon.coffeeshop.logging.EventLogger;
 import com.hackathon.coffeeshop.model.*;
+import com.hackathon.coffeeshop.repository.CompletedOrderArchive;
+import com.hackathon.coffeeshop.repository.OrderHistoryRepository;
+import com.hackathon.coffeeshop.scheduling.FenwickTree;
+import com.hackathon.coffeeshop.scheduling.JobView;
+import com.hackathon.coffeeshop.scheduling.PolicyQueue;
+import com.hackathon.coffeeshop.scheduling.QueueColumns;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicy;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
+import com.hackathon.coffeeshop.scheduling.TimingWheel;
+import com.hackathon.coffeeshop.scheduling.WorkloadHint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Core Queue Management Service with Fairness Tracking
- * Implements weighted priority system (40/25/10/25) and fairness enforcement
+ * Dispatch order comes from the active SchedulingPolicy (SMART 40/25/10/25 by default)
+ * Queue-mutating methods are synchronized: the scheduler thread and request threads share the queue
  */
 @Service
 public class QueueService {
     
-    private final Queue<Order> orderQueue = new ConcurrentLinkedQueue<>();
-    private final List<Order> completedOrders = new ArrayList<>();
-    private QueueMode currentMode = QueueMode.SMART;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final LocalDateTime clockEpoch = LocalDateTime.now();  // policy clock origin
+    private final OrderView orderView = new OrderView();
+    private final RandomService randomService;
+    private long seed;              // seed of the live store's random stream (new one per reset)
+    private SplittableRandom random;  // guarded by this
+    private SchedulingPolicy currentPolicy;
+    private PolicyQueue<Order> orderQueue;
+    private final Deque<Order> completedOrders = new ArrayDeque<>();  // hot window, oldest first
+    private double queuedPrepMinutes = 0.0;  // prep time of the waiting orders (admission ETA)
+    private volatile ArrivalGate arrivalGate = ArrivalGate.OPEN;
     private LocalDateTime simulatedTime = LocalDateTime.now();
     
     // Metrics tracking
     private int totalOrders = 0;
     private int timeoutOrders = 0;
-    private int fairnessViolations = 0;  // Track when fairness is violated
+    private int fairnessViolations = 0;  // Skips beyond 3, settled and still-waiting orders alike
+    
+    // Lazy fairness tracking: every order gets an arrival rank and every dispatch marks its
+    // rank, so the skips of a waiting order are the dispatched ranks above its own (O(log n))
+    // instead of a pass over the queue per dispatch. Values are frozen when an order leaves.
+    private static final int INITIAL_RANK_CAPACITY = 1024;
+    private FenwickTree dispatchedRanks = new FenwickTree(INITIAL_RANK_CAPACITY);
+    private int nextArrivalRank = 0;
+    // Running violation count: a waiting order has skipped 3 or more exactly when its rank is
+    // below the third-highest dispatched rank, so each dispatch adds one violation per waiting
+    // rank below both that and its own, one Fenwick query against the waiting ranks
+    private FenwickTree waitingRanks = new FenwickTree(INITIAL_RANK_CAPACITY);
+    private final int[] topDispatchedRanks = {-1, -1, -1};  // highest first, -1 = none yet
+    
+    // Columnar copy of the waiting orders' scoring inputs: the per-tick rescore runs over
+    // primitive arrays, and an Order's own score / urgency / reason are only brought up to date
+    // (refreshDisplay) when that order is read or leaves the queue
+    private final QueueColumns<Order> columns = new QueueColumns<>();
+    private LocalDateTime scoredAt = simulatedTime;  // simulated time of the last bulk rescore
     
     // Poisson arrival simulation
     private boolean autoArrivalEnabled = false;
     private double lambda = 1.4;  // 1.4 customers per minute
+    
+    // Same-drink batching
+    private boolean batchingEnabled = false;
+    private int maxBatchSize = 4;  // global cap K (per-drink limits still apply)
+    
+    // Batching urgency gate: every order arms a second timer at its timeout minus the urgency
+    // ramp; once it fires the order counts as urgent for its drink until it leaves the queue
+    private TimingWheel<Order> urgencyWheel;
+    private final Map<Integer, TimingWheel.Timer<Order>> urgencyTimers = new HashMap<>();
+    private final Set<Integer> urgentOrders = new HashSet<>();
+    private final int[] urgentByDrink = new int[DrinkType.values().length];
+    private int urgentTotal = 0;
+    private double urgencyRamp = ScoringWeights.current().urgencyRampMinutes();  // ramp the timers use
+    
+    // Live abandonment: customers walk out at their CustomerType timeout
+    private static final int ABANDONED_FEED_SIZE = 100;
+    private static final int CANCELLED_FEED_SIZE = 100;
+    private boolean abandonmentEnabled = true;
+    private TimingWheel<Order> abandonmentWheel;  // keyed on each order's timeout deadline (seconds)
+    private final Map<Integer, TimingWheel.Timer<Order>> abandonmentTimers = new HashMap<>();
+    private final Deque<Order> abandonedFeed = new ArrayDeque<>();  // newest first, bounded
+    private int abandonedOrders = 0;
+    
+    // Per-order lookup: id → order (handle into the policy queue), plus a cached
+    // service-order snapshot that is rebuilt only when the queue or clock changes
+    private final Map<Integer, Order> ordersById = new HashMap<>();
+    private long queueVersion = 0;
+    private long snapshotVersion = -1;
+    private List<Order> serviceOrderSnapshot = Collections.emptyList();
+    private final Map<Integer, Integer> snapshotPositions = new HashMap<>();
+    private final Deque<Order> cancelledFeed = new ArrayDeque<>();  // newest first, bounded
+    private int cancelledOrders = 0;
+    
+    // Engine state version for read caches (analytics): bumped on every add, departure from the
+    // queue, completion and reset, and by BaristaService on assign/complete. Clock ticks alone
+    // do not bump it, so idle polls keep hitting the cache.
+    private final AtomicLong stateVersion = new AtomicLong();
+
+    // Performance instrumentation (Micrometer)
+    private final Timer dispatchTimer;
+    private final DistributionSummary dispatchQueueDepth;
+    private final Timer rescoreTimer;
+    private final Counter rescoredOrders;
+
+    private final TickProfiler profiler;
+    private final EventLogger events;
+    private final OrderHistoryRepository history;
+    private final TimeSeriesStore timeSeries;
+    private final CompletedOrderArchive archive;
+
+    public QueueService(SchedulingPolicyRegistry policyRegistry, MeterRegistry meterRegistry,
+                        TickProfiler profiler, EventLogger events, RandomService randomService,
+                        OrderHistoryRepository history, TimeSeriesStore timeSeries,
+                        CompletedOrderArchive archive, Environment environment) {
+        this.policyRegistry = policyRegistry;
+        this.archive = archive;
+        this.history = history;
+        this.timeSeries = timeSeries;
+        this.randomService = randomService;
+        reseed(randomService.nextSeed());
+        this.profiler = profiler;
+        this.events = events;
+        this.currentPolicy = policyRegistry.getDefault();
+        this.orderQueue = currentPolicy.createQueue(orderView);
+        this.abandonmentWheel = new TimingWheel<>(toPolicySeconds(simulatedTime));
+        this.urgencyWheel = new TimingWheel<>(toPolicySeconds(simulatedTime));
+        for (DrinkType drink : DrinkType.values()) {
+            drink.configureBatching(
+                    environment.getProperty("batching." + drink.name() + ".max-size", Integer.class),
+                    environment.getProperty("batching." + drink.name() + ".marginal-factor", Double.class));
+        }
+        
+        this.dispatchTimer = Timer.builder("coffee.dispatch.latency")
+                .description("Time to select the next order for a barista")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.dispatchQueueDepth = DistributionSummary.builder("coffee.dispatch.queue.depth")
+                .description("Queue depth seen by each dispatch")
+                .register(meterRegistry);
+        this.rescoreTimer = Timer.builder("coffee.priorities.recalculate")
+                .description("Time to recalculate priorities of all queued orders")
+                .register(meterRegistry);
+        this.rescoredOrders = Counter.builder("coffee.priorities.rescored.orders")
+                .description("Orders rescored by recalculateAllPriorities")
+                .register(meterRegistry);
+        Gauge.builder("coffee.queue.length", this, QueueService::getQueueSize)
+                .description("Orders waiting in the queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether a simulated arrival (Poisson or rush hour) joins the queue
+     */
+    @FunctionalInterface
+    public interface ArrivalGate {
+        ArrivalGate OPEN = (drinkType, customerType) -> true;
+
+        boolean admit(DrinkType drinkType, CustomerType customerType);
+    }
 
     /**
      * Add a new order to the queue
      */
-    public Order addOrder(DrinkType drinkType) {
-        Order order = new Order(drinkType);
-        order.recalculatePriority(simulatedTime);
-        orderQueue.offer(order);
-        totalOrders++;
-        return order;
+    public synchronized Order addOrder(DrinkType drinkType) {
+        return enqueue(new Order(drinkType, nextCustomerType()));
+    }
+
+    /**
+     * Draw the next customer type from the live store's stream (what addOrder(drink) would draw)
+     */
+    public synchronized CustomerType nextCustomerType() {
+        return Order.randomCustomerType(random);
+    }
+
+    /**
+     * Draw the next random drink from the live store's stream (what addRandomOrder would draw)
+     */
+    public synchronized DrinkType nextDrinkType() {
+        DrinkType[] drinks = DrinkType.values();
+        return drinks[random.nextInt(drinks.length)];
     }
 
     /**
      * Add order with specific customer type
      */
-    public Order addOrder(DrinkType drinkType, CustomerType customerType) {
-        Order order = new Order(drinkType, customerType);
+    public synchronized Order addOrder(DrinkType drinkType, CustomerType customerType) {
+        return enqueue(new Order(drinkType, customerType));
+    }
+
+    /**
+     * Check-and-enqueue in one hold of the queue lock: the gate sees the queue as it is and the
+     * order is queued only if it admits, so concurrent arrivals cannot all pass a cap with room
+     * for one. The gate must not call into BaristaService (lock order is baristas, then queue).
+     * @return the queued order, or null if the gate turned it away
+     */
+    public synchronized Order addOrder(DrinkType drinkType, CustomerType customerType, ArrivalGate gate) {
+        if (!gate.admit(drinkType, customerType)) {
+            return null;
+        }
+        return enqueue(new Order(drinkType, customerType));
+    }
+
+    /**
+     * Queue an order at the current simulated time and arm its abandonment and urgency timers
+     */
+    private Order enqueue(Order order) {
+        order.setOrderTime(simulatedTime);
+        order.setStatus(OrderStatus.QUEUED);
+        if (nextArrivalRank == dispatchedRanks.capacity()) {
+            dispatchedRanks = dispatchedRanks.withCapacity(2 * nextArrivalRank);
+            waitingRanks = waitingRanks.withCapacity(2 * nextArrivalRank);
+        }
+        waitingRanks.add(nextArrivalRank);
+        order.setArrivalRank(nextArrivalRank++);
         order.recalculatePriority(simulatedTime);
         orderQueue.offer(order);
+        columns.add(order, toPolicySeconds(simulatedTime), order.getArrivalRank(),
+                order.getDrinkType().getPreparationTime(), order.getCustomerType().getTimeoutMinutes(),
+                order.getCustomerType().getLoyaltyBonus());
+        queuedPrepMinutes += order.getDrinkType().getPreparationTime();
+        ordersById.put(order.getId(), order);
+        long deadline = toPolicySeconds(simulatedTime)
+                + Math.round(order.getCustomerType().getTimeoutMinutes() * 60);
+        abandonmentTimers.put(order.getId(), abandonmentWheel.schedule(order, deadline));
+        armUrgency(order);
         totalOrders++;
+        timeSeries.recordArrival(simulatedTime);
+        queueVersion++;
+        markStateChanged();
         return order;
     }
 
+    /**
+     * An order left the queue (dispatched, completed or cancelled): disarm its abandonment and
+     * urgency timers and freeze its skip count
+     */
+    private void onDequeued(Order order) {
+        dropColumns(order);
+        abandonmentWheel.cancel(abandonmentTimers.remove(order.getId()));
+        dropUrgency(order);
+        queuedPrepMinutes -= order.getDrinkType().getPreparationTime();
+        settleFairness(order);
+        queueVersion++;
+        markStateChanged();
+    }
+
     /**
      * Add a random order (for simulation)
      */
-    public Order addRandomOrder() {
-        DrinkType[] drinks = DrinkType.values();
-        DrinkType randomDrink = drinks[new Random().nextInt(drinks.length)];
-        return addOrder(randomDrink);
+    public synchronized Order addRandomOrder() {
+        return addOrder(nextDrinkType());
     }
 
     /**
-     * Get the next order based on current mode (FIFO or SMART) with workload consideration
+     * Random simulated arrival, turned away if the arrival gate says so
+     * (same draws either way, so a closed gate does not shift later arrivals)
+     * @return the queued order, or null if it was not admitted
      */
-    public Order getNextOrder(Barista barista, double averageWorkMinutes) {
+    private Order arriveRandom() {
+        DrinkType drinkType = nextDrinkType();
+        CustomerType customerType = nextCustomerType();
+        if (!arrivalGate.admit(drinkType, customerType)) {
+            return null;
+        }
+        return enqueue(new Order(drinkType, customerType));
+    }
+
+    /**
+     * Gate for Poisson and rush-hour arrivals (admission control); OPEN admits everything
+     */
+    public void setArrivalGate(ArrivalGate arrivalGate) {
+        this.arrivalGate = arrivalGate;
+    }
+
+    /**
+     * Preparation minutes of every order still waiting in the queue (kept incrementally)
+     */
+    public synchronized double getQueuedPrepMinutes() {
+        return queuedPrepMinutes;
+    }
+
+    /**
+     * Get the next order from the active scheduling policy with workload consideration
+     */
+    public synchronized Order getNextOrder(Barista barista, double averageWorkMinutes) {
         if (orderQueue.isEmpty()) {
             return null;
         }
 
-        if (currentMode == QueueMode.FIFO) {
-            // Simple FIFO: first in, first out
-            return orderQueue.poll();
-        } else {
-            // SMART mode with workload balancing
-            recalculateAllPriorities();
-            calculateEstimatedWaitTimes();
-            
-            List<Order> sortedOrders = orderQueue.stream()
-                    .sorted(Comparator.comparingDouble(Order::getPriorityScore).reversed())
-                    .collect(Collectors.toList());
-            
-            if (sortedOrders.isEmpty()) return null;
-            
-            Order selectedOrder;
-            
-            // Workload balancing logic
-            if (barista.isOverloaded(averageWorkMinutes)) {
-                // Overloaded barista: prefer quick orders (<3 min)
-                selectedOrder = sortedOrders.stream()
-                        .filter(o -> o.getDrinkType().getPreparationTime() <= 3.0)
-                        .findFirst()
-                        .orElse(sortedOrders.get(0));  // Fallback to highest priority
-                        
-                System.out.println(String.format("⚖️ %s overloaded (%.1fx) - assigned quick order", 
-                        barista.getName(), barista.getWorkloadRatio(averageWorkMinutes)));
-                        
-            } else if (barista.isUnderutilized(averageWorkMinutes)) {
-                // Underutilized barista: can take complex orders
-                selectedOrder = sortedOrders.stream()
-                        .filter(o -> o.getDrinkType().getPreparationTime() >= 4.0)
-                        .findFirst()
-                        .orElse(sortedOrders.get(0));
-                        
-                System.out.println(String.format("⚖️ %s underutilized (%.1fx) - assigned complex order", 
-                        barista.getName(), barista.getWorkloadRatio(averageWorkMinutes)));
-                        
-            } else {
-                // Balanced: take highest priority
-                selectedOrder = sortedOrders.get(0);
+        dispatchQueueDepth.record(orderQueue.size());
+        long start = System.nanoTime();
+        try {
+            return selectNextOrder(barista, averageWorkMinutes);
+        } finally {
+            dispatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Order selectNextOrder(Barista barista, double averageWorkMinutes) {
+        WorkloadHint hint = currentPolicy.workloadHint(barista.getWorkloadRatio(averageWorkMinutes));
+        Order selectedOrder = orderQueue.poll(policyClock(), hint);
+        if (selectedOrder == null) {
+            return null;
+        }
+        
+        if (currentPolicy.isWorkloadAware() && hint == WorkloadHint.OVERLOADED) {
+            events.workloadBalanced(barista.getName(), selectedOrder.getId(), -1,
+                    barista.getWorkloadRatio(averageWorkMinutes));
+        } else if (currentPolicy.isWorkloadAware() && hint == WorkloadHint.UNDERUTILIZED) {
+            events.workloadBalanced(barista.getName(), selectedOrder.getId(), 1,
+                    barista.getWorkloadRatio(averageWorkMinutes));
+        }
+        
+        recordDispatch(selectedOrder);
+        onDequeued(selectedOrder);
+        selectedOrder.setStatus(OrderStatus.IN_PROGRESS);
+        selectedOrder.recalculatePriority(simulatedTime);
+        return selectedOrder;
+    }
+
+    /**
+     * Get the next task for a barista: the selected order plus, when batching is enabled,
+     * up to K-1 queued orders of the same drink poured together with it.
+     * Urgency rule: no companions while another drink is approaching or past its timeout,
+     * so the barista is not tied up longer while an urgent customer waits (an O(1) check of
+     * the per-drink urgent counts, not a scan of the queue).
+     * Fairness rule: every companion counts as a dispatch for skip tracking.
+     * Companions come from a filtered top-K walk of the policy queue, not a full sort.
+     */
+    public synchronized List<Order> getNextBatch(Barista barista, double averageWorkMinutes) {
+        Order head = getNextOrder(barista, averageWorkMinutes);
+        if (head == null) {
+            return Collections.emptyList();
+        }
+        
+        List<Order> batch = new ArrayList<>();
+        batch.add(head);
+        
+        DrinkType drink = head.getDrinkType();
+        int limit = Math.min(maxBatchSize, drink.getMaxBatchSize());
+        if (!batchingEnabled || limit <= 1) {
+            return batch;
+        }
+        
+        if (urgentOtherThan(drink)) {
+            return batch;
+        }
+        
+        // Same-drink candidates in the order the active policy would serve them
+        List<Order> companions = orderQueue.topInServiceOrder(policyClock(), limit - 1,
+                order -> order.getDrinkType() == drink);
+        
+        for (Order candidate : companions) {
+            orderQueue.remove(candidate);
+            recordDispatch(candidate);
+            onDequeued(candidate);
+            candidate.setStatus(OrderStatus.IN_PROGRESS);
+            batch.add(candidate);
+        }
+        
+        return batch;
+    }
+
+    /**
+     * Whether a waiting order of another drink is inside the urgency ramp (or past its timeout)
+     * Timers are re-armed only when the installed ramp has changed since they were set.
+     */
+    private boolean urgentOtherThan(DrinkType drink) {
+        double ramp = ScoringWeights.current().urgencyRampMinutes();
+        if (ramp != urgencyRamp) {
+            urgencyRamp = ramp;
+            clearUrgency();
+            for (Order order : orderQueue) {
+                armUrgency(order);
             }
-            
-            // Update fairness tracking for orders that got skipped
-            for (Order order : sortedOrders) {
-                if (order.getId() < selectedOrder.getId() && order != selectedOrder) {
-                    order.incrementPeopleServedAhead();
-                    if (order.getPeopleServedAhead() > 3) {
-                        fairnessViolations++;
-                    }
-                }
+        }
+        urgencyWheel.advanceTo(toPolicySeconds(simulatedTime), this::markUrgent);
+        return urgentTotal > urgentByDrink[drink.ordinal()];
+    }
+
+    /**
+     * Arm the urgency timer at the first second the order is inside the ramp (Order.isApproachingTimeout);
+     * an order already inside it (the wheel only advances on batched dispatches) counts at once
+     */
+    private void armUrgency(Order order) {
+        long due = toPolicySeconds(order.getOrderTime())
+                + (long) Math.ceil((order.getCustomerType().getTimeoutMinutes() - urgencyRamp) * 60);
+        if (due <= urgencyWheel.getCurrentTick()) {
+            markUrgent(order);
+        } else {
+            urgencyTimers.put(order.getId(), urgencyWheel.schedule(order, due));
+        }
+    }
+
+    private void markUrgent(Order order) {
+        urgencyTimers.remove(order.getId());
+        urgentOrders.add(order.getId());
+        urgentByDrink[order.getDrinkType().ordinal()]++;
+        urgentTotal++;
+    }
+
+    private void dropUrgency(Order order) {
+        urgencyWheel.cancel(urgencyTimers.remove(order.getId()));
+        if (urgentOrders.remove(order.getId())) {
+            urgentByDrink[order.getDrinkType().ordinal()]--;
+            urgentTotal--;
+        }
+    }
+
+    private void clearUrgency() {
+        urgencyWheel = new TimingWheel<>(toPolicySeconds(simulatedTime));
+        urgencyTimers.clear();
+        urgentOrders.clear();
+        Arrays.fill(urgentByDrink, 0);
+        urgentTotal = 0;
+    }
+
+    private void recordDispatch(Order order) {
+        int rank = order.getArrivalRank();
+        int below = Math.min(rank, topDispatchedRanks[2]);
+        if (below > 0) {
+            fairnessViolations += waitingRanks.countAtOrBelow(below - 1);
+        }
+        for (int i = 0; i < topDispatchedRanks.length; i++) {
+            if (rank > topDispatchedRanks[i]) {
+                int displaced = topDispatchedRanks[i];
+                topDispatchedRanks[i] = rank;
+                rank = displaced;
             }
-            
-            orderQueue.remove(selectedOrder);
-            return selectedOrder;
         }
+        dispatchedRanks.add(order.getArrivalRank());
+        columns.recordDispatch(order.getArrivalRank());
+    }
+
+    /**
+     * Later arrivals dispatched while this order waited (O(log n))
+     */
+    private int skipsOf(Order order) {
+        return dispatchedRanks.countAbove(order.getArrivalRank());
+    }
+
+    /**
+     * Bring a waiting order's stored skip count up to date
+     */
+    private void syncFairness(Order order) {
+        order.setPeopleServedAhead(skipsOf(order));
+    }
+
+    /**
+     * Freeze the skip count of an order leaving the queue; later dispatches no longer add to its
+     * violations (one per skip beyond 3)
+     */
+    private void settleFairness(Order order) {
+        syncFairness(order);
+        waitingRanks.remove(order.getArrivalRank());
     }
 
     /**
      * Get current queue in display order
      */
-    public List<Order> getQueueOrders() {
+    public synchronized List<Order> getQueueOrders() {
+        refreshSnapshot();
+        serviceOrderSnapshot.forEach(this::refreshDisplay);
+        return new ArrayList<>(serviceOrderSnapshot);
+    }
+
+    /**
+     * First k orders in service order, selected without sorting the whole queue
+     * (a fresh snapshot is reused when one exists)
+     */
+    public synchronized List<Order> getTopQueueOrders(int k) {
+        if (snapshotVersion == queueVersion) {
+            List<Order> top = new ArrayList<>(serviceOrderSnapshot.subList(0, Math.min(k, serviceOrderSnapshot.size())));
+            top.forEach(this::refreshDisplay);
+            return top;
+        }
         recalculateAllPriorities();
-        calculateEstimatedWaitTimes();
-        
-        if (currentMode == QueueMode.FIFO) {
-            return new ArrayList<>(orderQueue);
-        } else {
-            // SMART mode: show sorted by priority (highest first)
-            return orderQueue.stream()
-                    .sorted(Comparator.comparingDouble(Order::getPriorityScore).reversed())
-                    .collect(Collectors.toList());
+        List<Order> top = orderQueue.topInServiceOrder(policyClock(), k);
+        top.forEach(this::refreshDisplay);
+        calculateEstimatedWaitTimes(top);  // ETAs only depend on the orders ahead
+        return top;
+    }
+
+    /**
+     * One page of the queue in service order
+     * Continues after afterOrderId when that order is still waiting, otherwise from fallbackOffset
+     * (the cursor order was dispatched or left, so its old position is the best resume point)
+     */
+    public synchronized QueuePage getQueuePage(int afterOrderId, int fallbackOffset, int limit) {
+        refreshSnapshot();
+        int total = serviceOrderSnapshot.size();
+        Integer position = afterOrderId > 0 ? snapshotPositions.get(afterOrderId) : null;
+        int from = Math.min(total, position != null ? position : Math.max(0, fallbackOffset));
+        int to = Math.min(total, from + limit);
+        List<Order> orders = new ArrayList<>(serviceOrderSnapshot.subList(from, to));
+        orders.forEach(this::refreshDisplay);
+        return new QueuePage(orders, from, total);
+    }
+
+    /**
+     * Slice of the service-order queue: orders, offset of the first one, queue length
+     */
+    public record QueuePage(List<Order> orders, int offset, int total) {
+        public boolean hasMore() {
+            return offset + orders.size() < total;
         }
     }
 
     /**
-     * Get completed orders list (for analytics)
+     * Rebuild the service-order snapshot (priorities, ETAs, positions) if the queue changed
+     * Repeated reads of an unchanged queue reuse it instead of sorting again
      */
-    public List<Order> getCompletedOrders() {
-        return new ArrayList<>(completedOrders);
+    private void refreshSnapshot() {
+        if (snapshotVersion == queueVersion) {
+            return;
+        }
+        recalculateAllPriorities();
+        serviceOrderSnapshot = orderQueue.inServiceOrder(policyClock());
+        calculateEstimatedWaitTimes(serviceOrderSnapshot);
+        snapshotPositions.clear();
+        for (int i = 0; i < serviceOrderSnapshot.size(); i++) {
+            snapshotPositions.put(serviceOrderSnapshot.get(i).getId(), i + 1);
+        }
+        snapshotVersion = queueVersion;
+    }
+
+    /**
+     * Look up an order by id (O(1)): queued and in progress orders, and completed, abandoned or
+     * cancelled orders while they are still in the hot window / abandoned feed / cancelled feed
+     */
+    public synchronized Optional<Order> findOrder(int id) {
+        Order order = ordersById.get(id);
+        if (order != null && orderQueue.contains(order)) {
+            refreshDisplay(order);
+            syncFairness(order);
+        }
+        return Optional.ofNullable(order);
+    }
+
+    /**
+     * 1-based position of a queued order in service order, or -1 if it is not queued; also
+     * refreshes its ETA. A fresh snapshot is reused, otherwise the policy queue visits only the
+     * orders ahead of it (no rescore of the whole queue, no sort)
+     */
+    public synchronized int getQueuePosition(Order order) {
+        if (order.getStatus() != OrderStatus.QUEUED) {
+            return -1;
+        }
+        if (snapshotVersion == queueVersion) {
+            return snapshotPositions.getOrDefault(order.getId(), -1);
+        }
+        double[] prepAhead = new double[1];
+        int ahead = orderQueue.forEachAhead(order, policyClock(),
+                other -> prepAhead[0] += other.getDrinkType().getPreparationTime());
+        if (ahead < 0) {
+            return -1;
+        }
+        order.setEstimatedWaitMinutes((prepAhead[0] + order.getDrinkType().getPreparationTime()) / 3.0);
+        return ahead + 1;
+    }
+
+    /**
+     * Cancel a queued order: O(1) lookup, O(log n) removal from the policy queue
+     * @return false if the order is no longer waiting (already assigned, done or gone)
+     */
+    public synchronized boolean cancelOrder(Order order) {
+        if (order.getStatus() != OrderStatus.QUEUED || !orderQueue.remove(order)) {
+            return false;
+        }
+        onDequeued(order);
+        order.setStatus(OrderStatus.CANCELLED);
+        cancelledOrders++;
+        cancelledFeed.addFirst(order);
+        if (cancelledFeed.size() > CANCELLED_FEED_SIZE) {
+            ordersById.remove(cancelledFeed.removeLast().getId());
+        }
+        return true;
+    }
+
+    /**
+     * Swap the drink of a queued order and reposition it in O(log n)
+     * @return false if the order is no longer waiting
+     */
+    public synchronized boolean changeDrink(Order order, DrinkType drinkType) {
+        if (order.getStatus() != OrderStatus.QUEUED || !orderQueue.contains(order)) {
+            return false;
+        }
+        queuedPrepMinutes += drinkType.getPreparationTime() - order.getDrinkType().getPreparationTime();
+        if (urgentOrders.contains(order.getId())) {
+            urgentByDrink[order.getDrinkType().ordinal()]--;
+            urgentByDrink[drinkType.ordinal()]++;
+        }
+        order.setDrinkType(drinkType);
+        orderQueue.reposition(order);
+        columns.setPrepMinutes(order, drinkType.getPreparationTime());
+        syncFairness(order);
+        order.recalculatePriority(simulatedTime);
+        columns.markRefreshed(order);
+        queueVersion++;
+        markStateChanged();
+        return true;
+    }
+
+    /**
+     * Visit the last N completed orders, oldest first: archived records, then the hot window
+     * Archived orders come through one reused view; copy what has to outlive the call.
+     */
+    public synchronized void forEachCompletedOrder(int last, Consumer<CompletedOrderView> consumer) {
+        long archived = archive.size();
+        long skip = Math.max(0, archived + completedOrders.size() - last);
+        if (skip < archived) {
+            archive.scan(skip, consumer);
+        }
+        long hotSkip = Math.max(0, skip - archived);
+        for (Order order : completedOrders) {
+            if (hotSkip > 0) {
+                hotSkip--;
+            } else {
+                consumer.accept(order);
+            }
+        }
+    }
+
+    /**
+     * Completed orders since the last reset, archived ones included
+     */
+    public synchronized long getCompletedOrderCount() {
+        return archive.size() + completedOrders.size();
+    }
+
+    /**
+     * Move the oldest completed orders past the hot window to the archive, and drop them from
+     * the id index so their Order objects can be collected
+     */
+    private void spillCompletedOrders() {
+        if (!archive.isEnabled()) {
+            return;
+        }
+        while (completedOrders.size() > archive.getHotWindow()) {
+            Order oldest = completedOrders.pollFirst();
+            archive.append(oldest);
+            ordersById.remove(oldest.getId());
+        }
     }
 
     /**
      * Recalculate priorities for all orders in queue
      * Called every 30 seconds by scheduler
+     * One pass over the queue columns; orders pick up their new values when read (refreshDisplay)
      */
-    public void recalculateAllPriorities() {
-        orderQueue.forEach(order -> order.recalculatePriority(simulatedTime));
+    public synchronized void recalculateAllPriorities() {
+        long start = System.nanoTime();
+        columns.rescore(toPolicySeconds(simulatedTime), ScoringWeights.current());
+        scoredAt = simulatedTime;
+        rescoreTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rescoredOrders.increment(orderQueue.size());
+        profiler.touched(orderQueue.size());
+    }
+
+    /**
+     * Bring a waiting order's score, urgency and reason up to the last bulk rescore
+     * (the values recalculateAllPriorities used to write into every order)
+     */
+    private void refreshDisplay(Order order) {
+        if (columns.claimRefresh(order)) {
+            order.setPeopleServedAhead(columns.servedAhead(order));
+            order.applyPriorityScore(columns.score(order), scoredAt);
+        }
+    }
+
+    /**
+     * An order leaves the queue: keep its last rescored values, then drop its column slot
+     */
+    private void dropColumns(Order order) {
+        refreshDisplay(order);
+        columns.remove(order);
+    }
+
+    /**
+     * Hot-swap the scoring weights of the live engine and re-score the queue under the lock,
+     * so no dispatch sees a mix of old and new weights
+     * @return the weights that were replaced
+     */
+    public synchronized ScoringWeights applyScoringWeights(ScoringWeights weights) {
+        ScoringWeights previous = ScoringWeights.install(weights);
+        recalculateAllPriorities();
+        queueVersion++;
+        markStateChanged();
+        return previous;
     }
 
     /**
      * Calculate estimated wait times based on barista availability
+     * (orders listed in the sequence the active policy serves them)
      */
-    private void calculateEstimatedWaitTimes() {
-        List<Order> sorted = orderQueue.stream()
-                .sorted(Comparator.comparingDouble(Order::getPriorityScore).reversed())
-                .collect(Collectors.toList());
-        
+    private void calculateEstimatedWaitTimes(List<Order> ordered) {
         double cumulativeTime = 0.0;
-        for (Order order : sorted) {
+        for (Order order : ordered) {
             cumulativeTime += order.getDrinkType().getPreparationTime();
             order.setEstimatedWaitMinutes(cumulativeTime / 3.0);  // Divided by 3 baristas
         }
@@ -175,47 +720,158 @@ public class QueueService {
     /**
      * Complete an order (move from queue to completed)
      */
-    public void completeOrder(Order order) {
+    public synchronized void completeOrder(Order order) {
+        completeOrder(order, simulatedTime);
+    }
+
+    /**
+     * Complete an order at the given instant (a barista's exact task end, which can fall
+     * between ticks); with persistence on, a copy is queued for the history store (no I/O here)
+     */
+    public synchronized void completeOrder(Order order, LocalDateTime completedAt) {
         if (order != null) {
-            order.setCompletionTime(simulatedTime);  // Track completion time
-            double waitTime = order.getWaitTime(simulatedTime);
-            if (waitTime > order.getCustomerType().getTimeoutMinutes()) {
+            if (orderQueue.remove(order)) {
+                onDequeued(order);  // completed straight from the queue (bulk test orders)
+            }
+            order.setCompletionTime(completedAt);  // Track completion time
+            order.setStatus(OrderStatus.COMPLETED);
+            double waitTime = order.getWaitTime(completedAt);
+            boolean timedOut = waitTime > order.getCustomerType().getTimeoutMinutes();
+            if (timedOut) {
                 timeoutOrders++;
             }
-            completedOrders.add(order);
+            completedOrders.addLast(order);
+            spillCompletedOrders();
+            timeSeries.recordCompletion(completedAt, waitTime);
+            if (history.isEnabled()) {
+                history.saveCompletedOrder(new OrderHistoryRepository.CompletedOrderRow(order.getId(),
+                        order.getDrinkType(), order.getCustomerType(), order.getBarista(),
+                        order.getOrderTime(), completedAt, waitTime, timedOut));
+            }
+            markStateChanged();
+        }
+    }
+
+    /**
+     * Switch scheduling policy by name (FIFO, SMART, SJF, EDF, WFQ, ...)
+     * Waiting orders are moved into the new policy's queue
+     * @throws IllegalArgumentException if the policy name is unknown
+     */
+    public synchronized SchedulingPolicy setSchedulingPolicy(String name) {
+        SchedulingPolicy policy = policyRegistry.get(name);
+        PolicyQueue<Order> newQueue = policy.createQueue(orderView);
+        for (Order order : orderQueue) {
+            newQueue.offer(order);
         }
+        this.currentPolicy = policy;
+        this.orderQueue = newQueue;
+        queueVersion++;
+        return policy;
+    }
+
+    public synchronized SchedulingPolicy getCurrentPolicy() {
+        return currentPolicy;
     }
 
     /**
-     * Switch queue mode (FIFO <-> SMART)
+     * Enable/disable same-drink batching and set the global batch cap K
      */
-    public void setQueueMode(QueueMode mode) {
-        this.currentMode = mode;
+    public void setBatching(boolean enabled, int maxBatchSize) {
+        this.batchingEnabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public boolean isBatchingEnabled() {
+        return batchingEnabled;
     }
 
-    public QueueMode getCurrentMode() {
-        return currentMode;
+    public int getMaxBatchSize() {
+        return maxBatchSize;
     }
 
     /**
      * Advance simulated time by X minutes
      */
-    public void advanceTime(int minutes) {
+    public synchronized void advanceTime(int minutes) {
         simulatedTime = simulatedTime.plusMinutes(minutes);
-        recalculateAllPriorities();
+        queueVersion++;
+        try (TickProfiler.Span phase = profiler.phase("expireAbandonedOrders")) {
+            expireAbandonedOrders();
+        }
+        try (TickProfiler.Span phase = profiler.phase("recalculateAllPriorities")) {
+            recalculateAllPriorities();
+        }
         
         // Poisson arrival simulation (if enabled)
         if (autoArrivalEnabled) {
-            simulatePoissonArrivals(minutes);
+            try (TickProfiler.Span phase = profiler.phase("poissonArrivals")) {
+                simulatePoissonArrivals(minutes);
+            }
         }
     }
 
+    /**
+     * Drop orders whose customers hit their timeout
+     * The timing wheel hands back exactly the expired orders, no scan over the queue. While
+     * abandonment is disabled the wheel is left where it is, so the timers that come due stay
+     * armed and fire when it is enabled again.
+     */
+    private void expireAbandonedOrders() {
+        if (!abandonmentEnabled) {
+            return;
+        }
+        abandonmentWheel.advanceTo(toPolicySeconds(simulatedTime), order -> {
+            abandonmentTimers.remove(order.getId());
+            if (!orderQueue.remove(order)) {
+                return;
+            }
+            dropColumns(order);
+            dropUrgency(order);
+            settleFairness(order);
+            queuedPrepMinutes -= order.getDrinkType().getPreparationTime();
+            order.setAbandonedTime(simulatedTime);
+            order.setStatus(OrderStatus.ABANDONED);
+            abandonedOrders++;
+            profiler.touched(1);
+            queueVersion++;
+            markStateChanged();
+            abandonedFeed.addFirst(order);
+            if (abandonedFeed.size() > ABANDONED_FEED_SIZE) {
+                ordersById.remove(abandonedFeed.removeLast().getId());
+            }
+            events.orderAbandoned(order.getId(), order.getCustomerType(), order.getWaitTime(simulatedTime));
+        });
+    }
+
+    /**
+     * Most recently abandoned orders (newest first)
+     */
+    public synchronized List<Order> getAbandonedOrders() {
+        return new ArrayList<>(abandonedFeed);
+    }
+
+    public synchronized int getAbandonedOrderCount() {
+        return abandonedOrders;
+    }
+
+    /**
+     * Toggle live abandonment: orders that pass their deadline while it is disabled stay queued,
+     * and walk out as soon as it is enabled again
+     */
+    public synchronized void setAbandonmentEnabled(boolean enabled) {
+        this.abandonmentEnabled = enabled;
+        expireAbandonedOrders();
+    }
+
+    public synchronized boolean isAbandonmentEnabled() {
+        return abandonmentEnabled;
+    }
+
     /**
      * Simulate customer arrivals using Poisson distribution
      * λ = 1.4 customers/minute
      */
     private void simulatePoissonArrivals(int minutes) {
-        Random random = new Random();
         for (int i = 0; i < minutes; i++) {
             // Poisson: P(k events) = (λ^k * e^-λ) / k!
             // Simplified: average λ arrivals per minute with random variation
@@ -223,12 +879,12 @@ public class QueueService {
             int numArrivals = (int) Math.round(arrivals);
             
             for (int j = 0; j < numArrivals; j++) {
-                addRandomOrder();
+                arriveRandom();
             }
+            profiler.touched(numArrivals);
             
             if (numArrivals > 0) {
-                System.out.println(String.format("📥 Poisson arrival: %d customers in minute %d", 
-                        numArrivals, i + 1));
+                events.poissonArrivals(numArrivals, i + 1);
             }
         }
     }
@@ -236,22 +892,18 @@ public class QueueService {
     /**
      * Get metrics for dashboard
      */
-    public Map<String, Object> getMetrics() {
+    public synchronized Map<String, Object> getMetrics() {
         Map<String, Object> metrics = new HashMap<>();
         
         double avgWaitTime = 0.0;
         double maxWaitTime = 0.0;
         
-        if (!completedOrders.isEmpty()) {
-            avgWaitTime = completedOrders.stream()
-                    .mapToDouble(o -> o.getWaitTime(simulatedTime))
-                    .average()
-                    .orElse(0.0);
-            
-            maxWaitTime = completedOrders.stream()
-                    .mapToDouble(o -> o.getWaitTime(simulatedTime))
-                    .max()
-                    .orElse(0.0);
+        long completed = getCompletedOrderCount();
+        if (completed > 0) {
+            DoubleSummaryStatistics waits = new DoubleSummaryStatistics();
+            forEachCompletedOrder(Integer.MAX_VALUE, o -> waits.accept(o.getWaitTime(simulatedTime)));
+            avgWaitTime = waits.getAverage();
+            maxWaitTime = waits.getMax();
         }
         
         double timeoutRate = totalOrders > 0 
@@ -266,26 +918,40 @@ public class QueueService {
         metrics.put("maxWaitTime", Math.round(maxWaitTime * 10) / 10.0);
         metrics.put("timeoutRate", Math.round(timeoutRate * 10) / 10.0);
         metrics.put("fairnessViolationRate", Math.round(fairnessViolationRate * 10) / 10.0);
+        double abandonmentRate = totalOrders > 0
+                ? (abandonedOrders * 100.0 / totalOrders)
+                : 0.0;
+        
         metrics.put("queueLength", orderQueue.size());
-        metrics.put("completedOrders", completedOrders.size());
+        metrics.put("abandonedOrders", abandonedOrders);
+        metrics.put("abandonmentRate", Math.round(abandonmentRate * 10) / 10.0);
+        metrics.put("abandonmentEnabled", abandonmentEnabled);
+        metrics.put("cancelledOrders", cancelledOrders);
+        metrics.put("completedOrders", completed);
+        metrics.put("archive", archive.getStats());
         metrics.put("totalOrders", totalOrders);
-        metrics.put("currentMode", currentMode);
+        metrics.put("currentMode", currentPolicy.getName());
         metrics.put("autoArrivalEnabled", autoArrivalEnabled);
+        metrics.put("batchingEnabled", batchingEnabled);
+        metrics.put("maxBatchSize", maxBatchSize);
+        metrics.put("seed", seed);
         
         return metrics;
     }
 
     /**
-     * Simulate rush hour (add multiple orders quickly)
+     * Simulate rush hour (add multiple orders quickly; the arrival gate may turn some away)
      */
-    public List<Order> simulateRushHour() {
+    public synchronized List<Order> simulateRushHour() {
         List<Order> rushOrders = new ArrayList<>();
-        Random random = new Random();
         
         // Add 5-8 random orders
         int orderCount = 5 + random.nextInt(4);
         for (int i = 0; i < orderCount; i++) {
-            rushOrders.add(addRandomOrder());
+            Order order = arriveRandom();
+            if (order != null) {
+                rushOrders.add(order);
+            }
         }
         
         return rushOrders;
@@ -310,24 +976,121 @@ public class QueueService {
     }
 
     /**
-     * Reset entire system
+     * Reset entire system (the live store gets the next seed of the master sequence)
+     */
+    public synchronized void reset() {
+        reset(randomService.nextSeed());
+    }
+
+    /**
+     * Reset entire system and replay the live store's random draws from the given seed
      */
-    public void reset() {
-        orderQueue.clear();
+    public synchronized void reset(long seed) {
+        reseed(seed);
+        currentPolicy = policyRegistry.getDefault();
+        orderQueue = currentPolicy.createQueue(orderView);
+        queuedPrepMinutes = 0.0;
         completedOrders.clear();
+        archive.clear();
+        ordersById.clear();
+        cancelledOrders = 0;
+        queueVersion++;
         totalOrders = 0;
         timeoutOrders = 0;
         fairnessViolations = 0;
+        dispatchedRanks = new FenwickTree(INITIAL_RANK_CAPACITY);
+        waitingRanks = new FenwickTree(INITIAL_RANK_CAPACITY);
+        Arrays.fill(topDispatchedRanks, -1);
+        nextArrivalRank = 0;
+        columns.clear();
         simulatedTime = LocalDateTime.now();
-        currentMode = QueueMode.SMART;
+        scoredAt = simulatedTime;
+        abandonmentWheel = new TimingWheel<>(toPolicySeconds(simulatedTime));
+        abandonmentTimers.clear();
+        urgencyRamp = ScoringWeights.current().urgencyRampMinutes();
+        clearUrgency();
+        abandonedFeed.clear();
+        abandonedOrders = 0;
+        cancelledFeed.clear();
+        timeSeries.clear();
         autoArrivalEnabled = false;
+        batchingEnabled = false;
+        markStateChanged();
+    }
+
+    private void reseed(long seed) {
+        this.seed = seed;
+        this.random = randomService.stream(seed);
+    }
+
+    /**
+     * Monotonic version of the engine state; results computed at the same version are still valid
+     */
+    public long getStateVersion() {
+        return stateVersion.get();
+    }
+
+    /**
+     * Invalidate cached reads of the engine state (orders, baristas)
+     */
+    public void markStateChanged() {
+        stateVersion.incrementAndGet();
+    }
+
+    public synchronized long getSeed() {
+        return seed;
     }
 
     public LocalDateTime getSimulatedTime() {
         return simulatedTime;
     }
 
-    public int getQueueSize() {
+    public synchronized int getQueueSize() {
         return orderQueue.size();
     }
+
+    /**
+     * Current simulated time on the policy clock (minutes since service start)
+     */
+    private double policyClock() {
+        return toPolicyMinutes(simulatedTime);
+    }
+
+    private double toPolicyMinutes(LocalDateTime time) {
+        return toPolicySeconds(time) / 60.0;
+    }
+
+    private long toPolicySeconds(LocalDateTime time) {
+        return ChronoUnit.SECONDS.between(clockEpoch, time);
+    }
+
+    /**
+     * Scheduling inputs of a live order
+     */
+    private class OrderView implements JobView<Order> {
+        @Override
+        public long sequence(Order order) {
+            return order.getId();
+        }
+
+        @Override
+        public double arrivalMinute(Order order) {
+            return toPolicyMinutes(order.getOrderTime());
+        }
+
+        @Override
+        public DrinkType drinkType(Order order) {
+            return order.getDrinkType();
+        }
+
+        @Override
+        public CustomerType customerType(Order order) {
+            return order.getCustomerType();
+        }
+
+        @Override
+        public int peopleServedAhead(Order order) {
+            return skipsOf(order);
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.hackathon.coffeeshop.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded randomness for the whole simulation stack
+ * Every seed in the app is derived from one master seed (simulation.random.seed, or drawn at
+ * startup), and every consumer owns its own SplittableRandom stream: the live store, each
+ * rush-hour run, each bulk generation and each background job. No stream is shared between
+ * threads, so draws need no locking, and a fixed master seed replays the same sequence of runs.
+ */
+@Service
+public class RandomService {
+
+    private final long masterSeed;
+    private final SplittableRandom seeds;  // hands out seeds only (guarded by this)
+
+    public RandomService(@Value("${simulation.random.seed:#{null}}") Long configuredSeed) {
+        this.masterSeed = configuredSeed != null ? configuredSeed : new SecureRandom().nextLong();
+        this.seeds = new SplittableRandom(masterSeed);
+    }
+
+    /**
+     * Next seed of the master sequence, for a run or store that was not given one
+     */
+    public synchronized long nextSeed() {
+        return seeds.nextLong();
+    }
+
+    /**
+     * Independent stream for one consumer (same seed, same draws)
+     */
+    public SplittableRandom stream(long seed) {
+        return new SplittableRandom(seed);
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+}
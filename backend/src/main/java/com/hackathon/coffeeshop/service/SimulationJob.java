@@ -0,0 +1,201 @@
+package com.hackathon.coffeeshop.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * One submitted simulation: parameters, live progress and, once finished, the result
+ * Progress fields are written by the worker thread and read by request threads (volatile);
+ * subscribers are notified at most every PUSH_INTERVAL_NANOS plus once on every phase change
+ * and when the job ends.
+ */
+public class SimulationJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private static final long PUSH_INTERVAL_NANOS = 250_000_000L;  // 250 ms
+
+    private final String id;
+    private final SimulationParameters parameters;
+    private final String policy;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.QUEUED;
+
+    private volatile String phase = "queued";
+    private volatile double progress;
+    private volatile int served;
+    private volatile int complaints;
+    private volatile double averageWait;
+    private long lastPushNanos;
+
+    private volatile Map<String, Object> result;
+    private volatile String error;
+    private volatile Future<?> future;
+    private final List<Consumer<SimulationJob>> subscribers = new CopyOnWriteArrayList<>();
+
+    SimulationJob(String id, SimulationParameters parameters, String policy) {
+        this.id = id;
+        this.parameters = parameters;
+        this.policy = policy;
+    }
+
+    /**
+     * Listener handed to the simulation (worker thread only)
+     */
+    SimulationListener listener() {
+        return (newPhase, fraction, servedSoFar, complaintsSoFar, averageWaitSoFar) -> {
+            boolean phaseChanged = !newPhase.equals(phase);
+            phase = newPhase;
+            progress = fraction;
+            served = servedSoFar;
+            complaints = complaintsSoFar;
+            averageWait = averageWaitSoFar;
+            long now = System.nanoTime();
+            if (phaseChanged || now - lastPushNanos >= PUSH_INTERVAL_NANOS) {
+                lastPushNanos = now;
+                notifySubscribers();
+            }
+        };
+    }
+
+    /**
+     * @return false if the job was cancelled before a worker picked it up
+     */
+    boolean markRunning() {
+        synchronized (this) {
+            if (isFinished()) {
+                return false;
+            }
+            startedAt = LocalDateTime.now();
+            status = Status.RUNNING;
+            phase = "starting";
+        }
+        notifySubscribers();
+        return true;
+    }
+
+    void complete(Map<String, Object> result) {
+        this.result = result;
+        this.progress = 1.0;
+        this.phase = "done";
+        finish(Status.COMPLETED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    /**
+     * @return false if the job had already finished
+     */
+    boolean cancel() {
+        if (!transition(Status.CANCELLED)) {
+            return false;
+        }
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);  // interrupts the worker, or drops the job if still queued
+        }
+        notifyFinished();
+        return true;
+    }
+
+    private void finish(Status finalStatus) {
+        if (transition(finalStatus)) {
+            notifyFinished();
+        }
+    }
+
+    /**
+     * Move to a final status exactly once (worker completion and cancellation can race)
+     */
+    private synchronized boolean transition(Status finalStatus) {
+        if (isFinished()) {
+            return false;
+        }
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+        return true;
+    }
+
+    private void notifyFinished() {
+        notifySubscribers();
+        subscribers.clear();
+    }
+
+    /**
+     * Receive progress snapshots until the job ends (called at once if it already has)
+     */
+    public void subscribe(Consumer<SimulationJob> subscriber) {
+        subscribers.add(subscriber);
+        if (isFinished()) {
+            subscribers.remove(subscriber);
+            subscriber.accept(this);
+        }
+    }
+
+    public void unsubscribe(Consumer<SimulationJob> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void notifySubscribers() {
+        for (Consumer<SimulationJob> subscriber : subscribers) {
+            subscriber.accept(this);
+        }
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public Map<String, Object> getResult() {
+        return result;
+    }
+
+    /**
+     * Status, progress and running metrics (no result payload)
+     */
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("jobId", id);
+        summary.put("status", status.toString());
+        summary.put("policy", policy);
+        summary.put("parameters", parameters);
+        summary.put("phase", phase);
+        summary.put("progress", Math.round(progress * 1000) / 10.0);
+
+        Map<String, Object> partial = new LinkedHashMap<>();
+        partial.put("ordersServed", served);
+        partial.put("complaints", complaints);
+        partial.put("averageWaitTime", Math.round(averageWait * 100) / 100.0);
+        summary.put("partial", partial);
+
+        summary.put("submittedAt", submittedAt.toString());
+        summary.put("startedAt", startedAt != null ? startedAt.toString() : null);
+        summary.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        if (error != null) {
+            summary.put("error", error);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,140 @@
+package com.hackathon.coffeeshop.service;
+
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs rush-hour simulations as background jobs
+ * A fixed pool of low-priority worker threads with a bounded wait queue keeps large analyses
+ * off the Tomcat request threads; submissions beyond the queue limit are rejected instead of
+ * piling up. Only the most recent jobs are retained.
+ */
+@Service
+public class SimulationJobService {
+
+    private final AnalyticsService analyticsService;
+    private final ThreadPoolExecutor executor;
+    private final int retainedJobs;
+    private final Map<String, SimulationJob> jobs = new LinkedHashMap<>();  // submission order
+
+    public SimulationJobService(AnalyticsService analyticsService,
+                                @Value("${simulation.jobs.workers:2}") int workers,
+                                @Value("${simulation.jobs.queue-limit:8}") int queueLimit,
+                                @Value("${simulation.jobs.retained:16}") int retainedJobs) {
+        this.analyticsService = analyticsService;
+        this.retainedJobs = Math.max(1, retainedJobs);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueLimit)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "simulation-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);  // live order traffic comes first
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue a simulation
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public SimulationJob submit(SimulationParameters parameters, SchedulingPolicy policy) {
+        SimulationJob job = new SimulationJob(UUID.randomUUID().toString().substring(0, 8),
+                parameters.validate(), policy.getName());
+        synchronized (jobs) {
+            job.setFuture(executor.submit(() -> run(job, parameters, policy)));
+            jobs.put(job.getId(), job);
+            evictFinished();
+        }
+        return job;
+    }
+
+    private void run(SimulationJob job, SimulationParameters parameters, SchedulingPolicy policy) {
+        if (!job.markRunning()) {
+            return;
+        }
+        try {
+            job.complete(analyticsService.simulateRushHour(parameters, policy, job.listener()));
+        } catch (CancellationException e) {
+            job.cancel();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            job.fail(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return false if the job had already finished
+     */
+    public boolean cancel(SimulationJob job) {
+        boolean cancelled = job.cancel();
+        if (cancelled) {
+            executor.purge();  // free the queue slot of a job that never started
+        }
+        return cancelled;
+    }
+
+    public Optional<SimulationJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    /**
+     * All retained jobs, newest first
+     */
+    public List<SimulationJob> getJobs() {
+        List<SimulationJob> list;
+        synchronized (jobs) {
+            list = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * Counters for the job listing
+     */
+    public Map<String, Object> getExecutorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", executor.getMaximumPoolSize());
+        stats.put("running", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueLimit", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        return stats;
+    }
+
+    /**
+     * Drop the oldest finished jobs beyond the retention limit (running/queued jobs are kept)
+     */
+    private void evictFinished() {
+        Iterator<SimulationJob> it = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.hackathon.coffeeshop.service;
+
+/**
+ * Progress callback of a rush-hour simulation (called from the simulating thread)
+ * fraction is overall progress 0-1; served/complaints/averageWait are running totals of the current pass
+ */
+@FunctionalInterface
+public interface SimulationListener {
+
+    SimulationListener NONE = (phase, fraction, served, complaints, averageWait) -> { };
+
+    void onProgress(String phase, double fraction, int served, int complaints, double averageWait);
+}
@@ -0,0 +1,45 @@
+package com.hackathon.coffeeshop.service;
+
+/**
+ * Inputs of a rush-hour simulation run
+ * orders: customers to generate, lambda: Poisson arrival rate (customers/minute),
+ * baristas: parallel stations, horizonMinutes: simulated time limit, seed: arrival RNG seed
+ */
+public record SimulationParameters(int orders, double lambda, int baristas, double horizonMinutes, long seed) {
+
+    public static final int DEFAULT_ORDERS = 100;
+    public static final double DEFAULT_LAMBDA = 1.4;
+    public static final int DEFAULT_BARISTAS = 3;
+    public static final double DEFAULT_HORIZON_MINUTES = 300;
+
+    public static final int MAX_ORDERS = 1_000_000;
+    public static final int MAX_BARISTAS = 1_000;
+    public static final double MAX_HORIZON_MINUTES = 7 * 24 * 60;
+
+    /**
+     * The classic rush hour: 100 orders at 1.4/min, 3 baristas, 5 hour limit
+     */
+    public static SimulationParameters defaults(long seed) {
+        return new SimulationParameters(DEFAULT_ORDERS, DEFAULT_LAMBDA, DEFAULT_BARISTAS,
+                DEFAULT_HORIZON_MINUTES, seed);
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the first out-of-range parameter
+     */
+    public SimulationParameters validate() {
+        if (orders < 1 || orders > MAX_ORDERS) {
+            throw new IllegalArgumentException("orders must be between 1 and " + MAX_ORDERS);
+        }
+        if (!(lambda > 0) || lambda > 1000) {
+            throw new IllegalArgumentException("lambda must be > 0 and <= 1000 customers/minute");
+        }
+        if (baristas < 1 || baristas > MAX_BARISTAS) {
+            throw new IllegalArgumentException("baristas must be between 1 and " + MAX_BARISTAS);
+        }
+        if (!(horizonMinutes > 0) || horizonMinutes > MAX_HORIZON_MINUTES) {
+            throw new IllegalArgumentException("horizonMinutes must be > 0 and <= " + (int) MAX_HORIZON_MINUTES);
+        }
+        return this;
+    }
+}
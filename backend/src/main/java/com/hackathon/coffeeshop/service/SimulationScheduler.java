@@ -1,22 +1,54 @@
 package com.hackathon.coffeeshop.service;
 
+import com.hackathon.coffeeshop.logging.EventLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Time Simulation Scheduler
  * Automatically advances time and processes orders
+ * Eager even under lazy initialization (prod profile): ticks only start once the bean exists.
  */
 @Service
+@Lazy(false)
 public class SimulationScheduler {
     
     private final QueueService queueService;
     private final BaristaService baristaService;
+    private final TickProfiler profiler;
+    private final EventLogger events;
+    private final TimeSeriesStore timeSeries;
     private boolean autoMode = true; // Toggle for demo control
+    
+    // Tick instrumentation: duration of each simulated minute, overruns past the budget
+    private final long tickBudgetNanos;
+    private final Timer tickTimer;
+    private final Counter tickOverruns;
 
-    public SimulationScheduler(QueueService queueService, BaristaService baristaService) {
+    public SimulationScheduler(QueueService queueService, BaristaService baristaService,
+                               TickProfiler profiler, EventLogger events, TimeSeriesStore timeSeries,
+                               MeterRegistry meterRegistry,
+                               @Value("${simulation.tick.budget-ms:500}") long tickBudgetMs) {
         this.queueService = queueService;
         this.baristaService = baristaService;
+        this.profiler = profiler;
+        this.events = events;
+        this.timeSeries = timeSeries;
+        this.tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(tickBudgetMs);
+        this.tickTimer = Timer.builder("coffee.tick.duration")
+                .description("Wall time of one simulated minute")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tickOverruns = Counter.builder("coffee.tick.overruns")
+                .description("Ticks that took longer than simulation.tick.budget-ms")
+                .register(meterRegistry);
     }
 
     /**
@@ -29,23 +61,47 @@ public class SimulationScheduler {
             return; // Paused for manual demo control
         }
 
+        long start = System.nanoTime();
+        try (TickProfiler.Span tick = profiler.beginTick(queueService.getQueueSize())) {
+            runTick();
+        }
+        long elapsed = System.nanoTime() - start;
+        tickTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > tickBudgetNanos) {
+            tickOverruns.increment();
+        }
+        
+        // Log current state
+        int queueSize = queueService.getQueueSize();
+        if (queueSize > 0) {
+            events.tick(queueSize, elapsed / 1_000_000.0);
+        }
+    }
+
+    private void runTick() {
         // Advance simulated time by 1 minute
-        queueService.advanceTime(1);
+        try (TickProfiler.Span phase = profiler.phase("advanceTime")) {
+            queueService.advanceTime(1);
+        }
         
         // Recalculate priorities (older orders get higher priority)
-        queueService.recalculateAllPriorities();
+        try (TickProfiler.Span phase = profiler.phase("recalculateAllPriorities")) {
+            queueService.recalculateAllPriorities();
+        }
         
         // Check if any baristas finished their orders
-        baristaService.checkCompletedOrders();
+        try (TickProfiler.Span phase = profiler.phase("checkCompletedOrders")) {
+            baristaService.checkCompletedOrders();
+        }
         
         // Try to assign orders to free baristas
-        baristaService.assignOrders();
-        
-        // Log current state
-        int queueSize = queueService.getQueueSize();
-        if (queueSize > 0) {
-            System.out.println(String.format("⏱️  Simulated 1 minute | Queue: %d orders", queueSize));
+        try (TickProfiler.Span phase = profiler.phase("assignOrders")) {
+            baristaService.assignOrders();
         }
+        
+        // Sample queue length and busy baristas into the time-series rollups
+        timeSeries.recordTick(queueService.getSimulatedTime(), queueService.getQueueSize(),
+                baristaService.getBaristaStats().get("busy"));
     }
 
     /**
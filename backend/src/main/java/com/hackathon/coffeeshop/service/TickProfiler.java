@@ -0,0 +1,370 @@
+package com.hackathon.coffeeshop.service;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Built-in phase profiler for the simulation loop
+ * Each tick opens a root span; services open nested phase spans on the same thread.
+ * Every span records wall time, orders touched and bytes allocated by the thread,
+ * and the last HISTORY_SIZE ticks are kept for the /simulate/profile breakdown.
+ * Outside of a tick, phase() hands back a no-op span, so request paths pay nothing.
+ */
+@Component
+public class TickProfiler {
+
+    private static final int HISTORY_SIZE = 240;
+    private static final int[] DEPTH_BUCKETS = {10, 50, 200, 1000};
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final Deque<TickProfile> history = new ArrayDeque<>();  // newest last, bounded
+    private final AtomicLong tickCounter = new AtomicLong();
+    private final com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+    /**
+     * One timed phase; close() ends it (use with try-with-resources)
+     */
+    public final class Span implements AutoCloseable {
+        private final String name;
+        private final Span parent;
+        private final List<Span> children = new ArrayList<>(4);
+        private final long startNanos;
+        private final long startAllocated;
+        private long wallNanos;
+        private long allocatedBytes = -1;
+        private int ordersTouched;
+        private int queueDepth;  // root span only
+
+        private Span(String name, Span parent) {
+            this.name = name;
+            this.parent = parent;
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Add to the number of orders this phase worked on
+         */
+        public Span touched(int orders) {
+            ordersTouched += orders;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (name == null) {
+                return;  // no-op span
+            }
+            wallNanos = System.nanoTime() - startNanos;
+            long allocated = allocatedBytes();
+            if (allocated >= 0 && startAllocated >= 0) {
+                allocatedBytes = allocated - startAllocated;
+            }
+            if (parent == null) {
+                current.remove();
+                publish(this);
+            } else {
+                current.set(parent);
+            }
+        }
+    }
+
+    private final Span noop = new Span(null, null);
+
+    private record TickProfile(long tick, int queueDepth, Span root) {
+    }
+
+    /**
+     * Start profiling a tick on the calling thread; the tick is recorded when the span closes
+     */
+    public Span beginTick(int queueDepth) {
+        Span root = new Span("tick", null);
+        root.queueDepth = queueDepth;
+        current.set(root);
+        return root;
+    }
+
+    /**
+     * Open a nested phase; a no-op unless the calling thread is inside a profiled tick
+     */
+    public Span phase(String name) {
+        Span parent = current.get();
+        if (parent == null) {
+            return noop;
+        }
+        Span span = new Span(name, parent);
+        parent.children.add(span);
+        current.set(span);
+        return span;
+    }
+
+    /**
+     * Credit orders touched to the innermost open phase (no-op outside a tick)
+     */
+    public void touched(int orders) {
+        Span span = current.get();
+        if (span != null) {
+            span.touched(orders);
+        }
+    }
+
+    private void publish(Span root) {
+        TickProfile profile = new TickProfile(tickCounter.incrementAndGet(), root.queueDepth, root);
+        synchronized (history) {
+            history.addLast(profile);
+            if (history.size() > HISTORY_SIZE) {
+                history.removeFirst();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (history) {
+            history.clear();
+        }
+    }
+
+    /**
+     * Profile report: latest tick, per-phase aggregate, flame tree, queue-depth buckets, recent history
+     */
+    public Map<String, Object> getProfile(int recent) {
+        List<TickProfile> ticks;
+        synchronized (history) {
+            ticks = new ArrayList<>(history);
+        }
+
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("ticksRecorded", ticks.size());
+        profile.put("historyCapacity", HISTORY_SIZE);
+        profile.put("allocationTracking", allocationBean != null);
+        if (ticks.isEmpty()) {
+            profile.put("message", "No ticks profiled yet - advance the simulation first");
+            return profile;
+        }
+
+        Node flame = new Node("tick");
+        for (TickProfile tick : ticks) {
+            flame.add(tick.root());
+        }
+        double totalNanos = flame.totalNanos;
+
+        List<Map<String, Object>> phases = new ArrayList<>();
+        flame.flatten("", totalNanos, ticks.size(), phases);
+        phases.sort((a, b) -> Double.compare((double) b.get("selfMs"), (double) a.get("selfMs")));
+
+        profile.put("latest", spanToMap(ticks.get(ticks.size() - 1)));
+        profile.put("phases", phases);
+        profile.put("flame", flame.toMap(totalNanos));
+        profile.put("folded", flame.folded());
+        profile.put("byQueueDepth", byQueueDepth(ticks));
+
+        List<Map<String, Object>> recentTicks = new ArrayList<>();
+        for (int i = Math.max(0, ticks.size() - recent); i < ticks.size(); i++) {
+            TickProfile tick = ticks.get(i);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("tick", tick.tick());
+            summary.put("queueDepth", tick.queueDepth());
+            summary.put("totalMs", toMillis(tick.root().wallNanos));
+            Map<String, Object> phaseMs = new LinkedHashMap<>();
+            for (Span child : tick.root().children) {
+                phaseMs.merge(child.name, toMillis(child.wallNanos), (x, y) -> (double) x + (double) y);
+            }
+            summary.put("phases", phaseMs);
+            recentTicks.add(summary);
+        }
+        profile.put("history", recentTicks);
+        return profile;
+    }
+
+    /**
+     * Folded stacks ("tick;advanceTime;recalculateAllPriorities 1234", self time in µs),
+     * ready for flamegraph.pl or speedscope
+     */
+    public String getFoldedStacks() {
+        Node flame = new Node("tick");
+        synchronized (history) {
+            for (TickProfile tick : history) {
+                flame.add(tick.root());
+            }
+        }
+        return String.join("\n", flame.folded()) + "\n";
+    }
+
+    /**
+     * Which top-level phase dominates as the queue grows
+     */
+    private List<Map<String, Object>> byQueueDepth(List<TickProfile> ticks) {
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (int b = 0; b <= DEPTH_BUCKETS.length; b++) {
+            int low = b == 0 ? 0 : DEPTH_BUCKETS[b - 1];
+            int high = b == DEPTH_BUCKETS.length ? Integer.MAX_VALUE : DEPTH_BUCKETS[b];
+
+            int count = 0;
+            long total = 0;
+            Map<String, Long> phaseNanos = new LinkedHashMap<>();
+            for (TickProfile tick : ticks) {
+                if (tick.queueDepth() < low || tick.queueDepth() >= high) {
+                    continue;
+                }
+                count++;
+                total += tick.root().wallNanos;
+                for (Span child : tick.root().children) {
+                    phaseNanos.merge(child.name, child.wallNanos, Long::sum);
+                }
+            }
+            if (count == 0) {
+                continue;
+            }
+
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("queueDepth", high == Integer.MAX_VALUE ? low + "+" : low + "-" + (high - 1));
+            bucket.put("ticks", count);
+            bucket.put("avgTickMs", toMillis(total / count));
+            Map<String, Object> avgPhaseMs = new LinkedHashMap<>();
+            String dominant = null;
+            long dominantNanos = -1;
+            for (Map.Entry<String, Long> entry : phaseNanos.entrySet()) {
+                avgPhaseMs.put(entry.getKey(), toMillis(entry.getValue() / count));
+                if (entry.getValue() > dominantNanos) {
+                    dominantNanos = entry.getValue();
+                    dominant = entry.getKey();
+                }
+            }
+            bucket.put("avgPhaseMs", avgPhaseMs);
+            bucket.put("dominantPhase", dominant);
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    private Map<String, Object> spanToMap(TickProfile tick) {
+        Map<String, Object> map = spanToMap(tick.root());
+        map.put("tick", tick.tick());
+        map.put("queueDepth", tick.queueDepth());
+        return map;
+    }
+
+    private Map<String, Object> spanToMap(Span span) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", span.name);
+        map.put("wallMs", toMillis(span.wallNanos));
+        map.put("ordersTouched", span.ordersTouched);
+        map.put("allocatedBytes", span.allocatedBytes);
+        if (!span.children.isEmpty()) {
+            List<Map<String, Object>> children = new ArrayList<>();
+            for (Span child : span.children) {
+                children.add(spanToMap(child));
+            }
+            map.put("children", children);
+        }
+        return map;
+    }
+
+    /**
+     * Aggregated call-tree node (one per distinct stack path)
+     */
+    private static final class Node {
+        private final String name;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private long calls;
+        private long totalNanos;
+        private long childNanos;
+        private long maxNanos;
+        private long ordersTouched;
+        private long allocatedBytes;
+
+        private Node(String name) {
+            this.name = name;
+        }
+
+        private void add(Span span) {
+            calls++;
+            totalNanos += span.wallNanos;
+            maxNanos = Math.max(maxNanos, span.wallNanos);
+            ordersTouched += span.ordersTouched;
+            if (span.allocatedBytes > 0) {
+                allocatedBytes += span.allocatedBytes;
+            }
+            for (Span child : span.children) {
+                childNanos += child.wallNanos;
+                children.computeIfAbsent(child.name, Node::new).add(child);
+            }
+        }
+
+        private long selfNanos() {
+            return Math.max(0, totalNanos - childNanos);
+        }
+
+        private void flatten(String prefix, double rootNanos, int ticks, List<Map<String, Object>> out) {
+            String path = prefix.isEmpty() ? name : prefix + ";" + name;
+            Map<String, Object> phase = new LinkedHashMap<>();
+            phase.put("phase", path);
+            phase.put("calls", calls);
+            phase.put("totalMs", toMillis(totalNanos));
+            phase.put("selfMs", toMillis(selfNanos()));
+            phase.put("avgMsPerTick", toMillis(totalNanos / ticks));
+            phase.put("maxMs", toMillis(maxNanos));
+            phase.put("ordersTouched", ordersTouched);
+            phase.put("allocatedBytes", allocatedBytes);
+            phase.put("share", rootNanos > 0 ? Math.round(totalNanos / rootNanos * 1000) / 10.0 : 0.0);
+            out.add(phase);
+            for (Node child : children.values()) {
+                child.flatten(path, rootNanos, ticks, out);
+            }
+        }
+
+        private Map<String, Object> toMap(double rootNanos) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("totalMs", toMillis(totalNanos));
+            map.put("selfMs", toMillis(selfNanos()));
+            map.put("share", rootNanos > 0 ? Math.round(totalNanos / rootNanos * 1000) / 10.0 : 0.0);
+            if (!children.isEmpty()) {
+                List<Map<String, Object>> list = new ArrayList<>();
+                for (Node child : children.values()) {
+                    list.add(child.toMap(rootNanos));
+                }
+                map.put("children", list);
+            }
+            return map;
+        }
+
+        private List<String> folded() {
+            List<String> lines = new ArrayList<>();
+            fold("", lines);
+            return lines;
+        }
+
+        private void fold(String prefix, List<String> lines) {
+            String path = prefix.isEmpty() ? name : prefix + ";" + name;
+            lines.add(path + " " + selfNanos() / 1000);
+            for (Node child : children.values()) {
+                child.fold(path, lines);
+            }
+        }
+    }
+
+    private long allocatedBytes() {
+        return allocationBean != null ? allocationBean.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunBean;
+        }
+        return null;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+}
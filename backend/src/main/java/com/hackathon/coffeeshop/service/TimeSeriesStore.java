@@ -0,0 +1,313 @@
+package com.hackathon.coffeeshop.service;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-resolution rollups of the live store over simulated time, for the analytics charts
+ * Arrivals and completions are recorded as they happen and queue length / busy baristas are
+ * sampled every tick. Each is added to the 1-minute, 15-minute and hourly tier at once, so the
+ * coarser tiers are exact downsamples that outlive the fine ones. Every tier is a fixed ring of
+ * buckets (timeseries.buckets.<TIER>): a bucket is reused once its period falls out of the
+ * window, and events older than the window are ignored. Memory stays constant however long
+ * the store runs, and a range read touches only the buckets it returns.
+ */
+@Component
+public class TimeSeriesStore {
+
+    /**
+     * Bucket width and default ring size (1 day of minutes, 30 days of quarter hours, 1 year of hours)
+     */
+    public enum Resolution {
+        MINUTE("1m", 1, 1440),
+        QUARTER_HOUR("15m", 15, 2880),
+        HOUR("1h", 60, 8760);
+
+        private final String label;
+        private final int minutes;
+        private final int defaultBuckets;
+
+        Resolution(String label, int minutes, int defaultBuckets) {
+            this.label = label;
+            this.minutes = minutes;
+            this.defaultBuckets = defaultBuckets;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        /**
+         * @throws IllegalArgumentException for anything but 1m, 15m, 1h or the enum name
+         */
+        public static Resolution parse(String value) {
+            for (Resolution resolution : values()) {
+                if (resolution.label.equalsIgnoreCase(value) || resolution.name().equalsIgnoreCase(value)) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("resolution must be auto, 1m, 15m or 1h");
+        }
+    }
+
+    /**
+     * One ring of buckets; slot i holds the bucket whose index (minute / width) is key[i]
+     */
+    private static final class Tier {
+        final Resolution resolution;
+        final long[] key;
+        final int[] arrivals;
+        final int[] completions;
+        final double[] waitSum;
+        final double[] waitMax;
+        final int[] samples;
+        final long[] queueSum;
+        final int[] queueMax;
+        final long[] busySum;
+        final int[] busyMax;
+        long newest = Long.MIN_VALUE;  // index of the newest bucket written
+
+        Tier(Resolution resolution, int buckets) {
+            this.resolution = resolution;
+            this.key = new long[buckets];
+            this.arrivals = new int[buckets];
+            this.completions = new int[buckets];
+            this.waitSum = new double[buckets];
+            this.waitMax = new double[buckets];
+            this.samples = new int[buckets];
+            this.queueSum = new long[buckets];
+            this.queueMax = new int[buckets];
+            this.busySum = new long[buckets];
+            this.busyMax = new int[buckets];
+            clear();
+        }
+
+        int capacity() {
+            return key.length;
+        }
+
+        /**
+         * Oldest bucket index still in the ring
+         */
+        long oldest() {
+            return newest == Long.MIN_VALUE ? Long.MIN_VALUE : newest - capacity() + 1;
+        }
+
+        /**
+         * Slot of the bucket holding the minute, recycling the slot if it holds an older period
+         * @return -1 if the minute has already fallen out of the window
+         */
+        int slotFor(long minute) {
+            long bucket = Math.floorDiv(minute, resolution.minutes);
+            int slot = (int) Math.floorMod(bucket, (long) capacity());
+            if (key[slot] == bucket) {
+                return slot;
+            }
+            if (key[slot] > bucket || (newest != Long.MIN_VALUE && bucket <= newest - capacity())) {
+                return -1;
+            }
+            key[slot] = bucket;
+            arrivals[slot] = 0;
+            completions[slot] = 0;
+            waitSum[slot] = 0;
+            waitMax[slot] = 0;
+            samples[slot] = 0;
+            queueSum[slot] = 0;
+            queueMax[slot] = 0;
+            busySum[slot] = 0;
+            busyMax[slot] = 0;
+            newest = Math.max(newest, bucket);
+            return slot;
+        }
+
+        /**
+         * Slot holding the bucket, or -1 if it is empty or recycled
+         */
+        int find(long bucket) {
+            int slot = (int) Math.floorMod(bucket, (long) capacity());
+            return key[slot] == bucket ? slot : -1;
+        }
+
+        void clear() {
+            Arrays.fill(key, Long.MIN_VALUE);
+            newest = Long.MIN_VALUE;
+        }
+    }
+
+    private final Tier[] tiers;
+
+    public TimeSeriesStore(Environment environment) {
+        Resolution[] resolutions = Resolution.values();
+        this.tiers = new Tier[resolutions.length];
+        for (Resolution resolution : resolutions) {
+            int buckets = Math.max(1, environment.getProperty("timeseries.buckets." + resolution.name(),
+                    Integer.class, resolution.defaultBuckets));
+            tiers[resolution.ordinal()] = new Tier(resolution, buckets);
+        }
+    }
+
+    private static long minuteOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime timeOf(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    public synchronized void recordArrival(LocalDateTime at) {
+        long minute = minuteOf(at);
+        for (Tier tier : tiers) {
+            int slot = tier.slotFor(minute);
+            if (slot >= 0) {
+                tier.arrivals[slot]++;
+            }
+        }
+    }
+
+    public synchronized void recordCompletion(LocalDateTime at, double waitMinutes) {
+        long minute = minuteOf(at);
+        for (Tier tier : tiers) {
+            int slot = tier.slotFor(minute);
+            if (slot >= 0) {
+                tier.completions[slot]++;
+                tier.waitSum[slot] += waitMinutes;
+                tier.waitMax[slot] = Math.max(tier.waitMax[slot], waitMinutes);
+            }
+        }
+    }
+
+    /**
+     * Gauge sample taken once per tick
+     */
+    public synchronized void recordTick(LocalDateTime at, int queueLength, int busyBaristas) {
+        long minute = minuteOf(at);
+        for (Tier tier : tiers) {
+            int slot = tier.slotFor(minute);
+            if (slot >= 0) {
+                tier.samples[slot]++;
+                tier.queueSum[slot] += queueLength;
+                tier.queueMax[slot] = Math.max(tier.queueMax[slot], queueLength);
+                tier.busySum[slot] += busyBaristas;
+                tier.busyMax[slot] = Math.max(tier.busyMax[slot], busyBaristas);
+            }
+        }
+    }
+
+    /**
+     * Buckets of the given resolution overlapping [from, to)
+     */
+    public static long pointCount(LocalDateTime from, LocalDateTime to, Resolution resolution) {
+        long width = resolution.minutes;
+        return Math.max(0, Math.floorDiv(minuteOf(to) - 1, width) - Math.floorDiv(minuteOf(from), width) + 1);
+    }
+
+    /**
+     * Finest tier that still covers from and needs at most maxPoints buckets for the range
+     * (hourly if none does)
+     */
+    public synchronized Resolution pickResolution(LocalDateTime from, LocalDateTime to, int maxPoints) {
+        long fromMinute = minuteOf(from);
+        for (Tier tier : tiers) {
+            long points = pointCount(from, to, tier.resolution);
+            boolean covers = tier.newest == Long.MIN_VALUE
+                    || Math.floorDiv(fromMinute, tier.resolution.minutes) >= tier.oldest();
+            if (points <= maxPoints && covers) {
+                return tier.resolution;
+            }
+        }
+        return Resolution.HOUR;
+    }
+
+    /**
+     * Buckets overlapping [from, to) at the given resolution, oldest first, as parallel arrays
+     * (callers bound the range with pointCount first)
+     * Buckets with no data (or already recycled) read as zeros, so index i starts at
+     * start + i * bucketMinutes and no per-point timestamps are sent.
+     */
+    public synchronized Map<String, Object> range(LocalDateTime from, LocalDateTime to, Resolution resolution) {
+        Tier tier = tiers[resolution.ordinal()];
+        long width = resolution.minutes;
+        long first = Math.floorDiv(minuteOf(from), width);
+        int points = (int) pointCount(from, to, resolution);
+
+        int[] arrivals = new int[points];
+        int[] completions = new int[points];
+        double[] avgWait = new double[points];
+        double[] maxWait = new double[points];
+        double[] avgQueue = new double[points];
+        int[] maxQueue = new int[points];
+        double[] avgBusy = new double[points];
+        int[] maxBusy = new int[points];
+        for (int i = 0; i < points; i++) {
+            int slot = tier.find(first + i);
+            if (slot < 0) {
+                continue;
+            }
+            arrivals[i] = tier.arrivals[slot];
+            completions[i] = tier.completions[slot];
+            if (completions[i] > 0) {
+                avgWait[i] = Math.round(tier.waitSum[slot] / completions[i] * 100) / 100.0;
+                maxWait[i] = Math.round(tier.waitMax[slot] * 10) / 10.0;
+            }
+            int samples = tier.samples[slot];
+            if (samples > 0) {
+                avgQueue[i] = Math.round((double) tier.queueSum[slot] / samples * 10) / 10.0;
+                maxQueue[i] = tier.queueMax[slot];
+                avgBusy[i] = Math.round((double) tier.busySum[slot] / samples * 100) / 100.0;
+                maxBusy[i] = tier.busyMax[slot];
+            }
+        }
+
+        Map<String, Object> series = new LinkedHashMap<>();
+        series.put("resolution", resolution.label);
+        series.put("bucketMinutes", resolution.minutes);
+        series.put("start", timeOf(first * width));
+        series.put("points", points);
+        series.put("arrivals", arrivals);
+        series.put("completions", completions);
+        series.put("avgWait", avgWait);
+        series.put("maxWait", maxWait);
+        series.put("avgQueueLength", avgQueue);
+        series.put("maxQueueLength", maxQueue);
+        series.put("avgBusyBaristas", avgBusy);
+        series.put("maxBusyBaristas", maxBusy);
+        return series;
+    }
+
+    /**
+     * Window covered by each tier (null bounds while a tier is empty)
+     */
+    public synchronized List<Map<String, Object>> getTiers() {
+        List<Map<String, Object>> result = new ArrayList<>(tiers.length);
+        for (Tier tier : tiers) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            long width = tier.resolution.minutes;
+            info.put("resolution", tier.resolution.label);
+            info.put("buckets", tier.capacity());
+            info.put("retentionMinutes", (long) tier.capacity() * width);
+            boolean empty = tier.newest == Long.MIN_VALUE;
+            info.put("oldest", empty ? null : timeOf(tier.oldest() * width));
+            info.put("newest", empty ? null : timeOf(tier.newest * width));
+            result.add(info);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        for (Tier tier : tiers) {
+            tier.clear();
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.hackathon.coffeeshop.service;
+
+import com.hackathon.coffeeshop.dto.RushHourOrderDetails;
+import com.hackathon.coffeeshop.model.ScoringWeights;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicy;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches the SMART scoring weights against simulated arrival traces
+ * A tuning run replays the same traces (synthetic Poisson rush hours, optionally plus the
+ * arrivals of a remembered rush-hour run) under every candidate and scores it with a weighted
+ * objective: complaint %, 95th-percentile wait and fairness-violation %. The search is a local
+ * random search from the live weights: each generation perturbs the best weights so far, the
+ * candidates are evaluated in parallel on a worker pool, and the step shrinks whenever a
+ * generation finds nothing better. Candidates are scored with fixed weights, so the live
+ * engine is untouched until the result is applied (QueueService.applyScoringWeights).
+ * One run at a time; the last run is kept for inspection and apply.
+ */
+@Service
+public class WeightTuner {
+
+    public static final int MAX_GENERATIONS = 200;
+    public static final int MAX_POPULATION = 64;
+    public static final int MAX_TRACES = 16;
+    private static final long MAX_SIMULATED_ORDERS = 50_000_000L;  // per run, over all candidates and traces
+    private static final double STEP_SHRINK = 0.7;
+
+    /**
+     * Objective weights: points per complaint %, per minute of p95 wait and per fairness-violation %
+     */
+    public record Objective(double complaints, double p95Wait, double fairness) {
+
+        public double score(double complaintRate, double p95WaitMinutes, double fairnessViolationRate) {
+            return complaints * complaintRate + p95Wait * p95WaitMinutes + fairness * fairnessViolationRate;
+        }
+    }
+
+    /**
+     * Inputs of a tuning run
+     * trace: size, arrival rate, baristas and horizon of each synthetic trace (its seed seeds the run)
+     * replayRunId: rush-hour run whose arrivals (on its own barista count) are added as one more trace
+     */
+    public record TuningRequest(int generations, int population, int traces, Integer replayRunId,
+                                SimulationParameters trace, Objective objective, boolean apply) {
+
+        /**
+         * @throws IllegalArgumentException naming the first out-of-range parameter
+         */
+        public TuningRequest validate() {
+            if (generations < 1 || generations > MAX_GENERATIONS) {
+                throw new IllegalArgumentException("generations must be between 1 and " + MAX_GENERATIONS);
+            }
+            if (population < 1 || population > MAX_POPULATION) {
+                throw new IllegalArgumentException("population must be between 1 and " + MAX_POPULATION);
+            }
+            if (traces < 0 || traces > MAX_TRACES || (traces == 0 && replayRunId == null)) {
+                throw new IllegalArgumentException("traces must be between 1 and " + MAX_TRACES
+                        + " (0 only with replayRunId)");
+            }
+            trace.validate();
+            if (!(objective.complaints() >= 0 && objective.p95Wait() >= 0 && objective.fairness() >= 0)) {
+                throw new IllegalArgumentException("objective weights must be >= 0");
+            }
+            long work = (long) generations * population * Math.max(1, traces) * trace.orders();
+            if (work > MAX_SIMULATED_ORDERS) {
+                throw new IllegalArgumentException(String.format(
+                        "generations x population x traces x orders must be <= %d", MAX_SIMULATED_ORDERS));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Candidate results pooled over every trace of the run
+     */
+    public record Evaluation(ScoringWeights weights, double objective, double complaintRate, double p95Wait,
+                             double fairnessViolationRate, double averageWait) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("weights", weights.toMap());
+            map.put("objective", round(objective, 100));
+            map.put("complaintRate", round(complaintRate, 10));
+            map.put("p95Wait", round(p95Wait, 100));
+            map.put("fairnessViolationRate", round(fairnessViolationRate, 10));
+            map.put("averageWait", round(averageWait, 100));
+            return map;
+        }
+    }
+
+    /**
+     * One trace and the bar it is replayed on
+     */
+    private record Trace(String label, AnalyticsService.ArrivalTrace arrivals, int baristas, double horizon) {
+    }
+
+    public enum Status { RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    /**
+     * State of a tuning run; written by the coordinator thread, read by request threads
+     */
+    public static class TuningRun {
+        private final String id;
+        private final TuningRequest request;
+        private final List<String> traceLabels = new ArrayList<>();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile Status status = Status.RUNNING;
+        private volatile int generation;
+        private volatile int evaluated;
+        private volatile Evaluation baseline;
+        private volatile Evaluation best;
+        private final List<Double> bestByGeneration = new ArrayList<>();
+        private volatile boolean applied;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        TuningRun(String id, TuningRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Optional<Evaluation> getBest() {
+            return Optional.ofNullable(best);
+        }
+
+        /**
+         * Best weights scored strictly lower than the live weights they started from
+         */
+        public boolean improved() {
+            return best != null && baseline != null && best.objective() < baseline.objective();
+        }
+
+        public synchronized Map<String, Object> toSummary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", id);
+            summary.put("status", status.name().toLowerCase());
+            summary.put("startedAt", startedAt);
+            summary.put("finishedAt", finishedAt);
+            summary.put("generation", generation);
+            summary.put("generations", request.generations());
+            summary.put("population", request.population());
+            summary.put("candidatesEvaluated", evaluated);
+            summary.put("traces", new ArrayList<>(traceLabels));
+            summary.put("objective", request.objective());
+            summary.put("baseline", baseline != null ? baseline.toMap() : null);
+            summary.put("best", best != null ? best.toMap() : null);
+            summary.put("improvement", improved()
+                    ? round((1 - best.objective() / baseline.objective()) * 100, 10) : 0.0);
+            summary.put("bestByGeneration", new ArrayList<>(bestByGeneration));
+            summary.put("applied", applied);
+            if (error != null) {
+                summary.put("error", error);
+            }
+            return summary;
+        }
+    }
+
+    private final AnalyticsService analyticsService;
+    private final QueueService queueService;
+    private final SchedulingPolicyRegistry policyRegistry;
+    private final RandomService randomService;
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final Objective defaultObjective;
+    private final Counter evaluations;
+    private final AtomicInteger runCount = new AtomicInteger();
+    private TuningRun lastRun;  // guarded by this
+
+    public WeightTuner(AnalyticsService analyticsService, QueueService queueService,
+                       SchedulingPolicyRegistry policyRegistry, RandomService randomService,
+                       Environment environment, MeterRegistry meterRegistry) {
+        this.analyticsService = analyticsService;
+        this.queueService = queueService;
+        this.policyRegistry = policyRegistry;
+        this.randomService = randomService;
+        int configured = environment.getProperty("tuning.workers", Integer.class, 0);
+        this.workerCount = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.defaultObjective = new Objective(
+                environment.getProperty("tuning.objective.complaints", Double.class, 1.0),
+                environment.getProperty("tuning.objective.p95-wait", Double.class, 2.0),
+                environment.getProperty("tuning.objective.fairness", Double.class, 0.5));
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "weight-tuner"));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                runnable -> daemon(runnable, "weight-tuner-" + threadCount.incrementAndGet()));
+        this.evaluations = Counter.builder("coffee.tuning.evaluations")
+                .description("Scoring-weight candidates evaluated by the tuner")
+                .register(meterRegistry);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);  // live order traffic comes first
+        return thread;
+    }
+
+    public Objective getDefaultObjective() {
+        return defaultObjective;
+    }
+
+    /**
+     * Start a tuning run from the live weights
+     * @throws IllegalArgumentException for invalid requests or an unknown replay run
+     * @throws IllegalStateException if a run is still in progress
+     */
+    public synchronized TuningRun start(TuningRequest request) {
+        request.validate();
+        if (lastRun != null && lastRun.status == Status.RUNNING) {
+            throw new IllegalStateException("Tuning run " + lastRun.id + " is still running");
+        }
+        List<Trace> traces = buildTraces(request);
+        TuningRun run = new TuningRun("tune-" + runCount.incrementAndGet(), request);
+        traces.forEach(trace -> run.traceLabels.add(trace.label()));
+        lastRun = run;
+        run.future = coordinator.submit(() -> execute(run, traces));
+        return run;
+    }
+
+    private List<Trace> buildTraces(TuningRequest request) {
+        SimulationParameters base = request.trace();
+        List<Trace> traces = new ArrayList<>();
+        if (request.replayRunId() != null) {
+            int runId = request.replayRunId();
+            AnalyticsService.ArrivalTrace arrivals = analyticsService.getRunArrivals(runId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            String.format("Rush-hour run %d not found (only recent runs are kept)", runId)));
+            int baristas = analyticsService.getRunDetails(runId)
+                    .map(RushHourOrderDetails::getBaristaCount).orElse(base.baristas());
+            traces.add(new Trace("replay of run " + runId, arrivals, baristas, base.horizonMinutes()));
+        }
+        SplittableRandom seeds = randomService.stream(base.seed());
+        for (int i = 0; i < request.traces(); i++) {
+            long seed = seeds.nextLong();
+            SimulationParameters params = new SimulationParameters(base.orders(), base.lambda(), base.baristas(),
+                    base.horizonMinutes(), seed);
+            traces.add(new Trace("synthetic seed " + seed, analyticsService.generateArrivals(params),
+                    base.baristas(), base.horizonMinutes()));
+        }
+        return traces;
+    }
+
+    private void execute(TuningRun run, List<Trace> traces) {
+        TuningRequest request = run.request;
+        try {
+            SplittableRandom rng = randomService.stream(request.trace().seed());
+            Evaluation baseline = evaluate(ScoringWeights.current(), traces, request.objective());
+            Evaluation best = baseline;
+            synchronized (run) {
+                run.baseline = baseline;
+                run.best = baseline;
+                run.evaluated = 1;
+            }
+            double step = 1.0;
+            for (int generation = 1; generation <= request.generations(); generation++) {
+                List<Future<Evaluation>> pending = new ArrayList<>(request.population());
+                for (int i = 0; i < request.population(); i++) {
+                    ScoringWeights candidate = perturb(best.weights(), step, rng);
+                    pending.add(workers.submit(() -> evaluate(candidate, traces, request.objective())));
+                }
+                Evaluation generationBest = null;
+                for (Future<Evaluation> future : pending) {
+                    Evaluation evaluation = await(future, pending);
+                    if (generationBest == null || evaluation.objective() < generationBest.objective()) {
+                        generationBest = evaluation;
+                    }
+                }
+                if (generationBest.objective() < best.objective()) {
+                    best = generationBest;
+                } else {
+                    step *= STEP_SHRINK;
+                }
+                synchronized (run) {
+                    run.generation = generation;
+                    run.evaluated += request.population();
+                    run.best = best;
+                    run.bestByGeneration.add(round(best.objective(), 100));
+                }
+            }
+            synchronized (run) {
+                run.status = Status.COMPLETED;
+                run.finishedAt = LocalDateTime.now();
+            }
+            if (request.apply() && run.improved()) {
+                apply(run);
+            }
+        } catch (CancellationException e) {
+            finish(run, Status.CANCELLED, null);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            finish(run, Status.FAILED, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static Evaluation await(Future<Evaluation> future, List<Future<Evaluation>> all) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            all.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Tuning cancelled");
+        } catch (ExecutionException e) {
+            all.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof CancellationException cancelled) {
+                throw cancelled;
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void finish(TuningRun run, Status status, String error) {
+        synchronized (run) {
+            run.status = status;
+            run.error = error;
+            run.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Replay every trace under the candidate and pool the results
+     */
+    private Evaluation evaluate(ScoringWeights weights, List<Trace> traces, Objective objective) {
+        SchedulingPolicy policy = policyRegistry.getDefault().withWeights(weights);
+        long orders = 0;
+        long complaints = 0;
+        long violations = 0;
+        double p95Sum = 0;
+        double waitSum = 0;
+        for (Trace trace : traces) {
+            AnalyticsService.TrialResult result = analyticsService.runTrial(trace.arrivals(), trace.baristas(),
+                    trace.horizon(), policy);
+            orders += result.orders();
+            complaints += result.complaints();
+            violations += result.fairnessViolations();
+            p95Sum += result.p95Wait();
+            waitSum += result.averageWait();
+        }
+        evaluations.increment();
+        double complaintRate = complaints * 100.0 / orders;
+        double p95Wait = p95Sum / traces.size();
+        double fairnessRate = violations * 100.0 / orders;
+        return new Evaluation(weights, objective.score(complaintRate, p95Wait, fairnessRate), complaintRate,
+                p95Wait, fairnessRate, waitSum / traces.size());
+    }
+
+    /**
+     * Gaussian step from the given weights, clamped to the valid ranges and rounded to 0.01
+     * (step 1.0 = full step sizes)
+     */
+    static ScoringWeights perturb(ScoringWeights from, double step, SplittableRandom rng) {
+        return new ScoringWeights(
+                clamp(from.waitWeight() + gaussian(rng) * 8.0 * step, 0, 100),
+                clamp(from.complexityWeight() + gaussian(rng) * 8.0 * step, 0, 100),
+                clamp(from.loyaltyWeight() + gaussian(rng) * 4.0 * step, 0, 100),
+                clamp(from.urgencyWeight() + gaussian(rng) * 8.0 * step, 0, 100),
+                clamp(from.urgencyRampMinutes() + gaussian(rng) * 0.5 * step, 0.25, 8),
+                (int) clamp(Math.round(from.fairnessThreshold() + gaussian(rng) * 1.5 * step), 0, 20),
+                clamp(from.fairnessPenalty() + gaussian(rng) * 0.75 * step, 0, 20),
+                clamp(from.overloadedRatio() + gaussian(rng) * 0.1 * step, 1, 3),
+                clamp(from.underutilizedRatio() + gaussian(rng) * 0.1 * step, 0, 1));
+    }
+
+    /**
+     * Standard normal draw (Box-Muller) from the run's own stream, so a seed replays the search
+     */
+    private static double gaussian(SplittableRandom rng) {
+        return Math.sqrt(-2 * Math.log(1 - rng.nextDouble())) * Math.cos(2 * Math.PI * rng.nextDouble());
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return round(Math.max(min, Math.min(max, value)), 100);  // readable, still fine-grained
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    public synchronized Optional<TuningRun> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    /**
+     * @return false if no run is in progress
+     */
+    public synchronized boolean cancel() {
+        if (lastRun == null || lastRun.status != Status.RUNNING) {
+            return false;
+        }
+        lastRun.future.cancel(true);
+        finish(lastRun, Status.CANCELLED, null);
+        return true;
+    }
+
+    /**
+     * Install the best weights of the last run into the live engine
+     * @return the weights that were replaced
+     * @throws IllegalStateException if there is no finished run with a result
+     */
+    public synchronized ScoringWeights applyBest() {
+        if (lastRun == null || lastRun.status == Status.RUNNING || lastRun.best == null) {
+            throw new IllegalStateException("No finished tuning run to apply");
+        }
+        return apply(lastRun);
+    }
+
+    private ScoringWeights apply(TuningRun run) {
+        ScoringWeights previous = queueService.applyScoringWeights(run.best.weights());
+        run.applied = true;
+        return previous;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hackathon.coffeeshop.perf;
+
+import com.hackathon.coffeeshop.model.Barista;
+import com.hackathon.coffeeshop.model.Order;
+import com.hackathon.coffeeshop.support.PerfBudget;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Live dispatch at a queue depth of 10k for every policy: dispatches per second and bytes
+ * allocated per dispatch, with every dispatched order replaced so the depth stays constant
+ */
+class DispatchThroughputIT {
+
+    private static final int DEPTH = 10_000;
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 50_000;
+
+    static Stream<String> policies() {
+        return StoreFixture.POLICIES.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("policies")
+    void dispatchAtDepth10k(String policy) {
+        StoreFixture store = new StoreFixture(42L);
+        store.queue.setSchedulingPolicy(policy);
+        store.queue.setAbandonmentEnabled(false);
+        for (int i = 0; i < DEPTH; i++) {
+            store.queue.addRandomOrder();
+        }
+        Barista barista = store.baristas.getAllBaristas().get(0);
+
+        dispatchAndRefill(store, barista, WARMUP);
+        long allocatedBefore = PerfBudget.allocatedBytes();
+        long start = System.nanoTime();
+        dispatchAndRefill(store, barista, MEASURED);
+        long elapsed = System.nanoTime() - start;
+        long allocated = PerfBudget.allocatedBytes() - allocatedBefore;
+
+        // each iteration is one dispatch plus one arrival; the arrival is part of the cost at this depth
+        PerfBudget.assertAtLeast("dispatch.depth10k." + policy + ".perSecond", MEASURED * 1e9 / elapsed);
+        PerfBudget.assertAtMost("dispatch.depth10k." + policy + ".bytesPerDispatch", (double) allocated / MEASURED);
+    }
+
+    private static void dispatchAndRefill(StoreFixture store, Barista barista, int dispatches) {
+        for (int i = 0; i < dispatches; i++) {
+            Order order = store.queue.getNextOrder(barista, 0);  // average 0 = balanced workload hint
+            assertNotNull(order);
+            store.queue.addRandomOrder();
+        }
+    }
+}
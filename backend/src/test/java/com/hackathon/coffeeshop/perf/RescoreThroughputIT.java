@@ -0,0 +1,82 @@
+package com.hackathon.coffeeshop.perf;
+
+import com.hackathon.coffeeshop.model.Barista;
+import com.hackathon.coffeeshop.support.PerfBudget;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Bulk rescore (recalculateAllPriorities) with 100k orders waiting: microseconds per rescore on
+ * its own, and with three dispatches folded into the served-ahead column before each one, plus
+ * bytes allocated per cycle (the dispatches and refill arrivals included)
+ */
+class RescoreThroughputIT {
+
+    private static final int DEPTH = 100_000;
+    private static final int DISPATCHES_PER_RESCORE = 3;
+    private static final int WARMUP = 2_000;
+    private static final int MEASURED = 2_000;
+
+    @Test
+    void rescoreAtDepth100k() {
+        StoreFixture store = fill();
+
+        rescore(store, WARMUP);
+        long rescoreNanos = rescore(store, MEASURED);
+
+        PerfBudget.assertAtMost("rescore.depth100k.micros", rescoreNanos / 1e3 / MEASURED);
+    }
+
+    @Test
+    void rescoreWithFoldedDispatchesAtDepth100k() {
+        StoreFixture store = fill();
+        Barista barista = store.baristas.getAllBaristas().get(0);
+
+        dispatchAndRescore(store, barista, WARMUP);
+        long allocatedBefore = PerfBudget.allocatedBytes();
+        long rescoreNanos = dispatchAndRescore(store, barista, MEASURED);
+        long allocated = PerfBudget.allocatedBytes() - allocatedBefore;
+
+        PerfBudget.assertAtMost("rescore.depth100k.folded.micros", rescoreNanos / 1e3 / MEASURED);
+        PerfBudget.assertAtMost("rescore.depth100k.folded.kilobytes", allocated / 1024.0 / MEASURED);
+    }
+
+    private static StoreFixture fill() {
+        StoreFixture store = new StoreFixture(42L);
+        store.queue.setAbandonmentEnabled(false);
+        for (int i = 0; i < DEPTH; i++) {
+            store.queue.addRandomOrder();
+        }
+        return store;
+    }
+
+    /**
+     * @return nanoseconds spent in back-to-back recalculateAllPriorities calls
+     */
+    private static long rescore(StoreFixture store, int rescores) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rescores; i++) {
+            store.queue.recalculateAllPriorities();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * @return nanoseconds spent in recalculateAllPriorities alone
+     */
+    private static long dispatchAndRescore(StoreFixture store, Barista barista, int rescores) {
+        long rescoreNanos = 0;
+        for (int i = 0; i < rescores; i++) {
+            for (int d = 0; d < DISPATCHES_PER_RESCORE; d++) {
+                assertNotNull(store.queue.getNextOrder(barista, 0));
+                store.queue.addRandomOrder();
+            }
+            long start = System.nanoTime();
+            store.queue.recalculateAllPriorities();
+            rescoreNanos += System.nanoTime() - start;
+        }
+        return rescoreNanos;
+    }
+}
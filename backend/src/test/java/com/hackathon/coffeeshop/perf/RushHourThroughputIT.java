@@ -0,0 +1,53 @@
+package com.hackathon.coffeeshop.perf;
+
+import com.hackathon.coffeeshop.service.SimulationListener;
+import com.hackathon.coffeeshop.service.SimulationParameters;
+import com.hackathon.coffeeshop.support.PerfBudget;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+/**
+ * Large rush-hour simulations over 1000 baristas: simulated orders per second at 200k orders,
+ * and wall seconds for a full city-wide day of 1M orders
+ */
+class RushHourThroughputIT {
+
+    private static final SimulationParameters LARGE = new SimulationParameters(200_000, 700, 1000, 600, 5L);
+    private static final SimulationParameters FULL_DAY =
+            new SimulationParameters(SimulationParameters.MAX_ORDERS, 700, 1000, 24 * 60, 5L);
+
+    static Stream<String> policies() {
+        return StoreFixture.POLICIES.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("policies")
+    void largeRun(String policy) {
+        StoreFixture store = new StoreFixture(1L);
+        store.analytics.simulateRushHour(SimulationParameters.defaults(1L), store.policies.get(policy),
+                SimulationListener.NONE);  // warm-up
+
+        long start = System.nanoTime();
+        store.analytics.simulateRushHour(LARGE, store.policies.get(policy), SimulationListener.NONE);
+        long elapsed = System.nanoTime() - start;
+
+        PerfBudget.assertAtLeast("rushhour.200k." + policy + ".ordersPerSecond", LARGE.orders() * 1e9 / elapsed);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("policies")
+    void fullDayMillionOrders(String policy) {
+        StoreFixture store = new StoreFixture(1L);
+        store.analytics.simulateRushHour(SimulationParameters.defaults(1L), store.policies.get(policy),
+                SimulationListener.NONE);  // warm-up
+
+        long start = System.nanoTime();
+        store.analytics.simulateRushHour(FULL_DAY, store.policies.get(policy), SimulationListener.NONE);
+        long elapsed = System.nanoTime() - start;
+
+        PerfBudget.assertAtMost("rushhour.1m." + policy + ".seconds", elapsed / 1e9);
+    }
+}
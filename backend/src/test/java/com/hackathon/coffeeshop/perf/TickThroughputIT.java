@@ -0,0 +1,48 @@
+package com.hackathon.coffeeshop.perf;
+
+import com.hackathon.coffeeshop.support.PerfBudget;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+/**
+ * Full scheduler ticks (advance, rescore, complete, assign) with 10k orders waiting
+ */
+class TickThroughputIT {
+
+    private static final int DEPTH = 10_000;
+    private static final int WARMUP_TICKS = 20;
+    private static final int MEASURED_TICKS = 60;
+
+    static Stream<String> policies() {
+        return StoreFixture.POLICIES.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("policies")
+    void tickAtDepth10k(String policy) {
+        StoreFixture store = new StoreFixture(42L);
+        store.queue.setSchedulingPolicy(policy);
+        store.queue.setAbandonmentEnabled(false);
+        store.queue.setBatching(true, 4);
+        for (int i = 0; i < DEPTH; i++) {
+            store.queue.addRandomOrder();
+        }
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            store.scheduler.manualSimulateMinute();
+        }
+        long allocatedBefore = PerfBudget.allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            store.scheduler.manualSimulateMinute();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = PerfBudget.allocatedBytes() - allocatedBefore;
+
+        PerfBudget.assertAtMost("tick.depth10k." + policy + ".millis", elapsed / 1e6 / MEASURED_TICKS);
+        PerfBudget.assertAtMost("tick.depth10k." + policy + ".kilobytes", allocated / 1024.0 / MEASURED_TICKS);
+    }
+}
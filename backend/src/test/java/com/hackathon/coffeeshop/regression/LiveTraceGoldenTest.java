@@ -0,0 +1,64 @@
+package com.hackathon.coffeeshop.regression;
+
+import com.hackathon.coffeeshop.support.GoldenFile;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Replays a fixed-seed live trace (Poisson arrivals, two rush bursts, abandonment) through
+ * QueueService / BaristaService one scheduler tick at a time and pins the outcome metrics
+ * (whole-order tasks, same-drink batching, and the station pipeline)
+ */
+class LiveTraceGoldenTest {
+
+    private static final long SEED = 20240315L;
+    private static final int MINUTES = 180;
+    private static final GoldenFile GOLDEN = new GoldenFile("live-trace");
+
+    static Stream<Arguments> traces() {
+        return StoreFixture.POLICIES.stream()
+                .flatMap(policy -> Stream.of(Arguments.of(policy, ""), Arguments.of(policy, "batching"),
+                        Arguments.of(policy, "pipeline")));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("traces")
+    void replayMatchesGolden(String policy, String mode) {
+        StoreFixture store = new StoreFixture(SEED);
+        store.queue.setSchedulingPolicy(policy);
+        store.queue.setBatching(mode.equals("batching"), 4);
+        store.baristas.setPipeline(mode.equals("pipeline"));
+        store.queue.setAutoArrivalEnabled(true);
+
+        for (int minute = 1; minute <= MINUTES; minute++) {
+            if (minute == 30 || minute == 90) {
+                store.queue.simulateRushHour();
+            }
+            store.scheduler.manualSimulateMinute();
+        }
+
+        Map<String, Object> metrics = store.queue.getMetrics();
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        for (String key : new String[] {"totalOrders", "completedOrders", "queueLength", "abandonedOrders",
+                "avgWaitTime", "maxWaitTime", "timeoutRate", "fairnessViolationRate", "abandonmentRate"}) {
+            outcome.put(key, metrics.get(key));
+        }
+        outcome.put("batching", store.baristas.getBatchingStats());
+        if (mode.equals("pipeline")) {
+            outcome.put("pipeline", store.baristas.getPipelineStats());
+        }
+        GOLDEN.check(mode.isEmpty() ? policy : policy + "+" + mode, outcome);
+    }
+
+    @AfterAll
+    static void record() {
+        GOLDEN.writeIfUpdating();
+    }
+}
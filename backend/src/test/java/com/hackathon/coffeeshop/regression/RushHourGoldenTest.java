@@ -0,0 +1,52 @@
+package com.hackathon.coffeeshop.regression;
+
+import com.hackathon.coffeeshop.service.SimulationListener;
+import com.hackathon.coffeeshop.service.SimulationParameters;
+import com.hackathon.coffeeshop.support.GoldenFile;
+import com.hackathon.coffeeshop.support.StoreFixture;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Fixed-seed rush-hour simulations (the default 100-order run and a larger multi-barista run)
+ * for every policy; the summary numbers, the FIFO baseline, the batching pass and the station
+ * pipeline pass are pinned
+ */
+class RushHourGoldenTest {
+
+    private static final GoldenFile GOLDEN = new GoldenFile("rush-hour");
+
+    static Stream<Arguments> runs() {
+        return StoreFixture.POLICIES.stream().flatMap(policy -> Stream.of(
+                Arguments.of(policy, "default", SimulationParameters.defaults(7L)),
+                Arguments.of(policy, "busy", new SimulationParameters(5_000, 12.0, 25, 600, 11L))));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("runs")
+    void simulationMatchesGolden(String policy, String label, SimulationParameters params) {
+        StoreFixture store = new StoreFixture(1L);
+        Map<String, Object> result = store.analytics.simulateRushHour(params,
+                store.policies.get(policy), SimulationListener.NONE);
+
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        for (String key : new String[] {"totalOrders", "ordersServed", "ordersAbandoned", "ordersBeyondHorizon",
+                "averageWaitTime", "averageCompletionTime", "totalComplaints", "complaintRate",
+                "complaintsByCustomerType", "fairnessViolations", "fairnessJustified", "workloadBalance",
+                "fifoComparison", "batchingComparison", "pipelineComparison"}) {
+            outcome.put(key, result.get(key));
+        }
+        GOLDEN.check(policy + "/" + label, outcome);
+    }
+
+    @AfterAll
+    static void record() {
+        GOLDEN.writeIfUpdating();
+    }
+}
@@ -0,0 +1,98 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rank counts must match a plain BitSet under random adds and removes, at word boundaries
+ * (ranks 63/64, the last rank) and across withCapacity growth, where the copy keeps every
+ * member and takes ranks past the old capacity
+ */
+class FenwickTreeTest {
+
+    @ParameterizedTest(name = "capacity {0}")
+    @ValueSource(ints = {1, 64, 65, 1000, 4096})
+    void countsMatchBitSet(int capacity) {
+        SplittableRandom random = new SplittableRandom(capacity);
+        FenwickTree tree = new FenwickTree(capacity);
+        BitSet expected = new BitSet();
+
+        for (int step = 0; step < 4 * capacity + 100; step++) {
+            int rank = random.nextInt(tree.capacity());
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.get(rank), tree.remove(rank));
+                expected.clear(rank);
+            } else {
+                assertEquals(!expected.get(rank), tree.add(rank));
+                expected.set(rank);
+            }
+            int probe = random.nextInt(tree.capacity());
+            assertCounts(expected, tree, probe);
+        }
+        assertCounts(expected, tree, 0);
+        assertCounts(expected, tree, tree.capacity() - 1);
+        if (tree.capacity() > 64) {
+            assertCounts(expected, tree, 63);
+            assertCounts(expected, tree, 64);
+        }
+    }
+
+    @Test
+    void growthKeepsMembersAndTakesNewRanks() {
+        SplittableRandom random = new SplittableRandom(7);
+        FenwickTree tree = new FenwickTree(128);
+        BitSet expected = new BitSet();
+        for (int rank = 0; rank < 128; rank++) {
+            if (random.nextBoolean()) {
+                tree.add(rank);
+                expected.set(rank);
+            }
+        }
+
+        for (int capacity = 256; capacity <= 1 << 14; capacity *= 2) {
+            FenwickTree grown = tree.withCapacity(capacity);
+            assertTrue(grown.capacity() >= capacity);
+            assertEquals(tree.size(), grown.size());
+            for (int rank = 0; rank < tree.capacity(); rank++) {
+                assertEquals(expected.get(rank), grown.contains(rank), "rank " + rank);
+                assertEquals(expected.cardinality() - expected.get(0, rank + 1).cardinality(),
+                        grown.countAbove(rank), "above rank " + rank);
+            }
+            for (int rank = tree.capacity(); rank < grown.capacity(); rank += 1 + random.nextInt(5)) {
+                grown.add(rank);
+                expected.set(rank);
+            }
+            assertCounts(expected, grown, tree.capacity() - 1);
+            assertCounts(expected, grown, grown.capacity() - 1);
+            tree = grown;
+        }
+        assertEquals(tree.capacity(), tree.withCapacity(16).capacity(), "withCapacity never shrinks");
+    }
+
+    @Test
+    void clearEmptiesTheSet() {
+        FenwickTree tree = new FenwickTree(256);
+        for (int rank = 0; rank < 256; rank += 3) {
+            tree.add(rank);
+        }
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.countAtOrBelow(255));
+        assertFalse(tree.contains(99));
+    }
+
+    private static void assertCounts(BitSet expected, FenwickTree tree, int rank) {
+        int atOrBelow = expected.get(0, rank + 1).cardinality();
+        assertEquals(expected.cardinality(), tree.size());
+        assertEquals(atOrBelow, tree.countAtOrBelow(rank), "at or below rank " + rank);
+        assertEquals(expected.cardinality() - atOrBelow, tree.countAbove(rank), "above rank " + rank);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.CustomerType;
+import com.hackathon.coffeeshop.model.DrinkType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * forEachAhead must visit exactly the jobs inServiceOrder puts before the job, for every
+ * policy, with arrivals, dispatches and walk-outs interleaved and the clock both standing
+ * still (buffered scores) and moving between queries
+ */
+class PolicyQueueRankTest {
+
+    private static final int ROUNDS = 150;
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"FIFO", "SJF", "EDF", "WFQ", "SMART"})
+    void aheadMatchesServiceOrder(String name) {
+        SplittableRandom random = new SplittableRandom(name.hashCode());
+        Jobs jobs = new Jobs();
+        PolicyQueue<Integer> queue = policy(name).createQueue(jobs);
+        List<Integer> held = new ArrayList<>();
+        double now = 0.0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                held.add(jobs.arrive(now, random));
+                queue.offer(held.get(held.size() - 1));
+            }
+            if (!held.isEmpty() && random.nextInt(3) > 0) {
+                held.remove(queue.poll(now, WorkloadHint.BALANCED));
+            }
+            if (!held.isEmpty() && random.nextInt(4) == 0) {
+                assertTrue(queue.remove(held.remove(random.nextInt(held.size()))));
+            }
+            if (random.nextBoolean()) {
+                now += random.nextDouble(0.5);
+            }
+
+            List<Integer> order = queue.inServiceOrder(now);
+            for (int position = 0; position < order.size(); position++) {
+                Set<Integer> ahead = new HashSet<>();
+                int count = queue.forEachAhead(order.get(position), now, ahead::add);
+                assertEquals(position, count, "position of job " + order.get(position));
+                assertEquals(new HashSet<>(order.subList(0, position)), ahead);
+            }
+        }
+        assertEquals(-1, queue.forEachAhead(-1, now, job -> { }));
+    }
+
+    private static SchedulingPolicy policy(String name) {
+        return switch (name) {
+            case "FIFO" -> new FifoPolicy();
+            case "SJF" -> new ShortestJobFirstPolicy();
+            case "EDF" -> new EarliestDeadlineFirstPolicy();
+            case "WFQ" -> new WeightedFairQueueingPolicy();
+            default -> new SmartPolicy();
+        };
+    }
+
+    /**
+     * Jobs are indices into parallel arrays, as in the simulator
+     */
+    private static class Jobs implements JobView<Integer> {
+        private final List<Double> arrivals = new ArrayList<>();
+        private final List<DrinkType> drinks = new ArrayList<>();
+        private final List<CustomerType> customers = new ArrayList<>();
+
+        int arrive(double now, SplittableRandom random) {
+            arrivals.add(now);
+            drinks.add(DrinkType.values()[random.nextInt(DrinkType.values().length)]);
+            customers.add(CustomerType.values()[random.nextInt(CustomerType.values().length)]);
+            return arrivals.size() - 1;
+        }
+
+        @Override
+        public long sequence(Integer job) {
+            return job;
+        }
+
+        @Override
+        public double arrivalMinute(Integer job) {
+            return arrivals.get(job);
+        }
+
+        @Override
+        public DrinkType drinkType(Integer job) {
+            return drinks.get(job);
+        }
+
+        @Override
+        public CustomerType customerType(Integer job) {
+            return customers.get(job);
+        }
+
+        @Override
+        public int peopleServedAhead(Integer job) {
+            return 0;
+        }
+    }
+}
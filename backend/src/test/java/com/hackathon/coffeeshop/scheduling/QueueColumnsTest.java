@@ -0,0 +1,64 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import com.hackathon.coffeeshop.model.ScoringWeights;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Served-ahead counts folded in bulk at rescore must match a FenwickTree over the dispatched
+ * arrival ranks (later arrivals dispatched = dispatched ranks above the item's own), both for
+ * one pass per dispatch (at most 8 pending) and for the sorted binary-search fold (more),
+ * with arrivals and walk-outs moving slots around between rescores
+ */
+class QueueColumnsTest {
+
+    private static final int ROUNDS = 200;
+    private static final int CAPACITY = 1 << 16;
+
+    @ParameterizedTest(name = "{0} dispatches per rescore")
+    @ValueSource(ints = {1, 3, 8, 9, 40})
+    void servedAheadMatchesFenwickTree(int dispatchesPerRescore) {
+        SplittableRandom random = new SplittableRandom(dispatchesPerRescore);
+        QueueColumns<Integer> columns = new QueueColumns<>();
+        FenwickTree dispatched = new FenwickTree(CAPACITY);
+        List<Integer> held = new ArrayList<>();
+        int nextRank = 0;
+        long maxServedAhead = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < dispatchesPerRescore + random.nextInt(4); i++) {
+                int rank = nextRank++;
+                columns.add(rank, rank, rank, 3.0, 10.0, 0.0);
+                held.add(rank);
+            }
+            for (int d = 0; d < dispatchesPerRescore && !held.isEmpty(); d++) {
+                // any waiting order can be served next, not only the oldest
+                int rank = held.remove(random.nextInt(held.size()));
+                assertTrue(columns.remove(rank));
+                columns.recordDispatch(rank);
+                dispatched.add(rank);
+            }
+            if (!held.isEmpty() && random.nextInt(3) == 0) {
+                // a walk-out: removed (its slot refilled from the end) but not dispatched
+                assertTrue(columns.remove(held.remove(random.nextInt(held.size()))));
+            }
+
+            columns.rescore(nextRank, ScoringWeights.DEFAULT);
+
+            assertEquals(held.size(), columns.size());
+            for (int rank : held) {
+                int expected = dispatched.countAbove(rank);
+                assertEquals(expected, columns.servedAhead(rank), "served ahead of rank " + rank);
+                maxServedAhead = Math.max(maxServedAhead, expected);
+            }
+        }
+        assertTrue(maxServedAhead > dispatchesPerRescore, "trace never skipped an order twice");
+    }
+}
@@ -0,0 +1,93 @@
+package com.hackathon.coffeeshop.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every timer fires on exactly its deadline tick, including deadlines on the 64 / 4096 /
+ * 262144 boundaries where a higher level cascades down, whether the wheel is advanced one tick
+ * at a time or in large jumps
+ */
+class TimingWheelTest {
+
+    private static final long[] BOUNDARY_OFFSETS = {1, 2, 63, 64, 65, 127, 128, 129, 4095, 4096, 4097,
+            4160, 8192, 262_143, 262_144, 262_145, 266_240};
+
+    @ParameterizedTest(name = "start tick {0}")
+    @ValueSource(longs = {0, 1, 63, 4_000, 262_100})
+    void boundaryDeadlinesFireOnTheirTick(long start) {
+        TimingWheel<Long> wheel = new TimingWheel<>(start);
+        Map<Long, Long> firedAt = new HashMap<>();
+        List<Long> deadlines = new ArrayList<>();
+        for (long offset : BOUNDARY_OFFSETS) {
+            deadlines.add(start + offset);
+            // absolute boundaries ahead of the start as well (multiples of 64 and 4096)
+            deadlines.add((start / 64 + 1 + offset) * 64);
+            deadlines.add((start / 4096 + 1) * 4096 + offset - 1);
+        }
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        long end = start + 270_000;
+        for (long tick = start + 1; tick <= end; tick++) {
+            long now = tick;
+            wheel.advanceTo(tick, deadline -> firedAt.merge(deadline, now, Math::min));
+        }
+
+        for (long deadline : deadlines) {
+            if (deadline <= end) {
+                assertEquals(deadline, firedAt.get(deadline), "timer due at " + deadline);
+            }
+        }
+    }
+
+    @Test
+    void largeJumpsFireEverythingDueInDeadlineOrder() {
+        SplittableRandom random = new SplittableRandom(7);
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = 1 + random.nextLong(300_000);
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+        long tick = 0;
+        while (wheel.size() > 0) {
+            tick += 1 + random.nextInt(5_000);
+            long now = tick;
+            wheel.advanceTo(tick, deadline -> {
+                assertTrue(deadline <= now, "fired early: " + deadline + " at " + now);
+                fired.add(deadline);
+            });
+        }
+        assertEquals(20_000, fired.size());
+        for (int i = 1; i < fired.size(); i++) {
+            assertTrue(fired.get(i - 1) <= fired.get(i), "out of order at " + i);
+        }
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTickAndCancelledTimersNever() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule("late", 50);
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", 4_096);
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(101, fired::add);
+        assertEquals(List.of("late"), fired);
+        wheel.advanceTo(10_000, fired::add);
+        assertEquals(List.of("late"), fired);
+        assertEquals(0, wheel.size());
+    }
+}
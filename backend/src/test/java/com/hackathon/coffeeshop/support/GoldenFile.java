@@ -0,0 +1,89 @@
+package com.hackathon.coffeeshop.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Stored outcome metrics of fixed-seed replays (src/test/resources/golden/&lt;name&gt;.json)
+ * A replay must reproduce its entry exactly. After an intended behavior change, re-record
+ * with mvn test -Dgolden.update=true and review the diff of the JSON file.
+ */
+public class GoldenFile {
+
+    private static final boolean UPDATE = Boolean.getBoolean("golden.update");
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String name;
+    private final Map<String, Map<String, Object>> expected;
+    private final Map<String, Map<String, Object>> recorded = new TreeMap<>();
+
+    public GoldenFile(String name) {
+        this.name = name;
+        this.expected = UPDATE ? Map.of() : load(name);
+    }
+
+    /**
+     * Compare one replay's metrics with its golden entry (or record them when updating)
+     */
+    public synchronized void check(String key, Map<String, Object> metrics) {
+        Map<String, Object> actual = normalize(metrics);
+        recorded.put(key, actual);
+        if (UPDATE) {
+            return;
+        }
+        Map<String, Object> golden = expected.get(key);
+        assertNotNull(golden, () -> String.format("No golden entry %s in %s.json (record with -Dgolden.update=true)",
+                key, name));
+        assertEquals(golden, actual, () -> String.format("%s: outcome drifted from golden/%s.json", key, name));
+    }
+
+    /**
+     * Write the recorded entries back to the source tree (update mode only)
+     */
+    public synchronized void writeIfUpdating() {
+        if (!UPDATE) {
+            return;
+        }
+        Path file = Path.of("src", "test", "resources", "golden", name + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            MAPPER.writeValue(file.toFile(), recorded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> load(String name) {
+        try (InputStream in = GoldenFile.class.getResourceAsStream("/golden/" + name + ".json")) {
+            if (in == null) {
+                return Map.of();
+            }
+            return MAPPER.readValue(in, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Round-trip through JSON so numbers compare the way they are stored (ints vs longs, key order)
+     */
+    private static Map<String, Object> normalize(Map<String, Object> metrics) {
+        try {
+            return MAPPER.readValue(MAPPER.writeValueAsString(new TreeMap<>(metrics)), new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.hackathon.coffeeshop.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput, latency and allocation budgets from src/test/resources/perf-budgets.properties
+ * Budgets sit well below what a developer laptop measures, so only a real regression (not
+ * run-to-run noise) fails the build. On a slower machine, -Dperf.slack=2 halves every rate
+ * budget and doubles every time/allocation budget.
+ */
+public final class PerfBudget {
+
+    private static final Properties BUDGETS = load();
+    private static final double SLACK = Double.parseDouble(System.getProperty("perf.slack", "1.0"));
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private PerfBudget() {
+    }
+
+    public static void assertAtLeast(String key, double measured) {
+        double budget = budget(key) / SLACK;
+        System.out.printf("[perf] %-40s %14.1f (budget >= %.1f)%n", key, measured, budget);
+        assertTrue(measured >= budget, () -> String.format("%s regressed: %.1f, budget >= %.1f", key, measured, budget));
+    }
+
+    public static void assertAtMost(String key, double measured) {
+        double budget = budget(key) * SLACK;
+        System.out.printf("[perf] %-40s %14.1f (budget <= %.1f)%n", key, measured, budget);
+        assertTrue(measured <= budget, () -> String.format("%s regressed: %.1f, budget <= %.1f", key, measured, budget));
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread
+     */
+    public static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static double budget(String key) {
+        String value = BUDGETS.getProperty(key);
+        if (value == null) {
+            throw new IllegalStateException("No budget " + key + " in perf-budgets.properties");
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = PerfBudget.class.getResourceAsStream("/perf-budgets.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hackathon.coffeeshop.support;
+
+import com.hackathon.coffeeshop.logging.EventLogger;
+import com.hackathon.coffeeshop.repository.CompletedOrderArchive;
+import com.hackathon.coffeeshop.repository.OrderHistoryRepository;
+import com.hackathon.coffeeshop.scheduling.EarliestDeadlineFirstPolicy;
+import com.hackathon.coffeeshop.scheduling.FifoPolicy;
+import com.hackathon.coffeeshop.scheduling.SchedulingPolicyRegistry;
+import com.hackathon.coffeeshop.scheduling.ShortestJobFirstPolicy;
+import com.hackathon.coffeeshop.scheduling.SmartPolicy;
+import com.hackathon.coffeeshop.scheduling.WeightedFairQueueingPolicy;
+import com.hackathon.coffeeshop.service.AnalyticsCache;
+import com.hackathon.coffeeshop.service.AnalyticsService;
+import com.hackathon.coffeeshop.service.BaristaService;
+import com.hackathon.coffeeshop.service.QueueService;
+import com.hackathon.coffeeshop.service.RandomService;
+import com.hackathon.coffeeshop.service.SimulationScheduler;
+import com.hackathon.coffeeshop.service.TickProfiler;
+import com.hackathon.coffeeshop.service.TimeSeriesStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * One store wired by hand (no Spring context): queue, baristas, scheduler and analytics
+ * sharing a fixed master seed, with the event log off so replays stay quiet and repeatable,
+ * and a temporary completed-order archive behind a small hot window
+ */
+public class StoreFixture {
+
+    public static final List<String> POLICIES = List.of("SMART", "FIFO", "SJF", "EDF", "WFQ");
+
+    /**
+     * Small enough that every trace spills to the archive, so the goldens cover both halves
+     */
+    public static final int HOT_WINDOW = 64;
+
+    public final SchedulingPolicyRegistry policies;
+    public final QueueService queue;
+    public final BaristaService baristas;
+    public final SimulationScheduler scheduler;
+    public final AnalyticsService analytics;
+    public final CompletedOrderArchive archive;
+
+    public StoreFixture(long seed) {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        TickProfiler profiler = new TickProfiler();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("events.enabled", "false")
+                .withProperty("archive.hot-window", String.valueOf(HOT_WINDOW))
+                .withProperty("archive.path", archivePath().toString());
+        EventLogger events = new EventLogger(environment);
+        RandomService random = new RandomService(seed);
+        this.policies = new SchedulingPolicyRegistry(List.of(new SmartPolicy(), new FifoPolicy(),
+                new ShortestJobFirstPolicy(), new EarliestDeadlineFirstPolicy(), new WeightedFairQueueingPolicy()));
+        OrderHistoryRepository history = new OrderHistoryRepository(environment, meters);
+        TimeSeriesStore timeSeries = new TimeSeriesStore(environment);
+        this.archive = new CompletedOrderArchive(environment, meters);
+        this.queue = new QueueService(policies, meters, profiler, events, random, history, timeSeries, archive,
+                environment);
+        this.baristas = new BaristaService(queue, meters, profiler, events, environment, history, true, 1.0);
+        this.scheduler = new SimulationScheduler(queue, baristas, profiler, events, timeSeries, meters, 500);
+        this.analytics = new AnalyticsService(queue, baristas, policies, random,
+                new AnalyticsCache(meters, 64));
+    }
+
+    private static Path archivePath() {
+        try {
+            Path path = Files.createTempFile("completed-orders", ".bin");
+            path.toFile().deleteOnExit();
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -110,6 +110,14 @@ export const generateTest100Orders = async () => {
   return response.json();
 };
 
+export const getTimeSeries = async ({ from, to, resolution = 'auto', maxPoints = 500 } = {}) => {
+  const params = new URLSearchParams({ resolution, maxPoints });
+  if (from) params.set('from', from);
+  if (to) params.set('to', to);
+  const response = await fetch(`${API_BASE}/analytics/timeseries?${params}`);
+  return response.json();
+};
+
 export const getLast100Stats = async () => {
   const response = await fetch(`${API_BASE}/analytics/last100`);
   return response.json();